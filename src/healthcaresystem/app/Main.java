@@ -1,7 +1,9 @@
 package healthcaresystem.app;
 
 import healthcaresystem.model.facility.CareHome;
-import healthcaresystem.repo.SerializationRepository;
+import healthcaresystem.repo.JournalRepository;
+import healthcaresystem.repo.MappedAuditStore;
+import healthcaresystem.service.AsyncAuditStore;
 import healthcaresystem.service.CareHomeService;
 import healthcaresystem.view.cli.Menu;
 
@@ -10,18 +12,27 @@ public class Main {
     public static void main(String[] args) {
 
         final String FILE = "carehome.dat";
+        final String AUDIT_DIR = "carehome-audit";
 
-        // load saved data (if any)
-        SerializationRepository repo = new SerializationRepository();
-        CareHome careHome = repo.loadState(FILE);
+        // load saved data (snapshot + any journaled changes since)
+        JournalRepository repo = new JournalRepository(FILE);
+        CareHome careHome = repo.load();
 
-        // create main service using loaded data
+        // create main service using loaded data; every change is journaled as it happens
         CareHomeService service = new CareHomeService(careHome);
+        service.setChangeLog(repo);
+
+        // audit trail lives in its own append-only files rather than in the snapshot,
+        // written in batches by a background thread
+        AsyncAuditStore auditStore = new AsyncAuditStore(new MappedAuditStore(AUDIT_DIR, careHome));
+        service.setAuditStore(auditStore);
 
         // run the CLI menu version of the app
         new Menu(service).start();
 
-        // save state again when exiting
-        repo.saveState(careHome, FILE);
+        // compact the journal into a fresh snapshot when exiting
+        repo.checkpoint();
+        repo.close();
+        auditStore.close();
     }
 }
@@ -0,0 +1,57 @@
+package healthcaresystem.app;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import healthcaresystem.model.facility.CareHome;
+import healthcaresystem.repo.JournalRepository;
+import healthcaresystem.repo.MappedAuditStore;
+import healthcaresystem.server.CareHomeServer;
+import healthcaresystem.service.AsyncAuditStore;
+import healthcaresystem.service.ConcurrentCareHomeService;
+
+// Runs one shared CareHome behind the HTTP server (port from the first argument, default 8080).
+// Terminals talk to it instead of each loading their own copy of carehome.dat.
+public class ServerMain {
+
+    public static void main(String[] args) throws Exception {
+
+        final String FILE = "carehome.dat";
+        final String AUDIT_DIR = "carehome-audit";
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+
+        // the journal never checkpoints on its own here: a checkpoint has to see a still
+        // CareHome, so it runs on a timer under the service's exclusive lock instead
+        JournalRepository repo = new JournalRepository(FILE, Integer.MAX_VALUE);
+        CareHome careHome = repo.load();
+
+        ConcurrentCareHomeService service = new ConcurrentCareHomeService(careHome);
+        service.setChangeLog(repo);
+        AsyncAuditStore auditStore = new AsyncAuditStore(new MappedAuditStore(AUDIT_DIR, careHome));
+        service.setAuditStore(auditStore);
+        service.ensureDefaultAdmin();
+        service.ensureDefaultFacility();
+
+        ScheduledExecutorService checkpoints = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "checkpoint");
+            t.setDaemon(true);
+            return t;
+        });
+        checkpoints.scheduleWithFixedDelay(() -> service.runExclusive(repo::checkpoint), 5, 5, TimeUnit.MINUTES);
+
+        CareHomeServer server = new CareHomeServer(service, new InetSocketAddress(port));
+        server.start();
+        System.out.println("CareHome server listening on port " + server.getPort() + " (Ctrl+C to stop)");
+
+        // on shutdown: stop taking requests, then compact the journal and drain the audit queue
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            checkpoints.shutdownNow();
+            service.runExclusive(repo::checkpoint);
+            repo.close();
+            auditStore.close();
+        }, "shutdown"));
+    }
+}
@@ -18,12 +18,23 @@ public class MenuController {
     private final AuthService auth;
     private final Scanner in;
 
-    private Staff currentUser; // session user
+    private String sessionToken; // issued by the service's SessionManager at login
 
     public MenuController(CareHomeService service, Scanner in) {
         this.service = service;
         this.in = in;
-        this.auth = new AuthService(service.getCareHome());
+        this.auth = new AuthService(service);
+    }
+
+    // Staff behind the session token; an expired session logs the user out
+    private Staff currentUser() {
+        if (sessionToken == null) return null;
+        Staff s = service.getSessions().user(sessionToken);
+        if (s == null) {
+            sessionToken = null;
+            System.out.println("Session expired; please log in again.");
+        }
+        return s;
     }
 
     // --- session handling ---
@@ -37,23 +48,27 @@ public class MenuController {
         Staff s = auth.login(u, p);
         if (s == null) System.out.println("Login failed.");
         else {
-            currentUser = s;
+            service.getSessions().close(sessionToken);
+            sessionToken = service.getSessions().open(s).getToken();
             System.out.println("Logged in as " + s.getClass().getSimpleName() + " " + s.getName());
         }
     }
 
     public void logout() {
-        if (currentUser == null) System.out.println("Not logged in.");
+        Staff user = currentUser();
+        if (user == null) System.out.println("Not logged in.");
         else {
-            System.out.println("Logged out @" + currentUser.getUsername());
-            currentUser = null;
+            service.getSessions().close(sessionToken);
+            sessionToken = null;
+            System.out.println("Logged out @" + user.getUsername());
         }
     }
 
     public void printCurrentUser() {
-        if (currentUser == null) System.out.println("Not logged in.");
-        else System.out.println("Current: " + currentUser.getClass().getSimpleName()
-                + " " + currentUser.getName() + " @" + currentUser.getUsername());
+        Staff user = currentUser();
+        if (user == null) System.out.println("Not logged in.");
+        else System.out.println("Current: " + user.getClass().getSimpleName()
+                + " " + user.getName() + " @" + user.getUsername());
     }
 
     // --- startup seeding ---
@@ -76,7 +91,7 @@ public class MenuController {
             System.out.print("Bed ID: ");
             String bedId = in.nextLine().trim();
 
-            service.addResidentToBed(id, name, gender, bedId, currentUser);
+            service.addResidentToBed(id, name, gender, bedId, currentUser());
             System.out.println("Added resident " + name + " to " + bedId);
         } catch (Exception e) {
             System.out.println("Error: " + e.getMessage());
@@ -101,7 +116,7 @@ public class MenuController {
             System.out.print("Password: ");
             String pw = in.nextLine();
 
-            service.addStaffWithCredentials(role, id, name, username, pw, currentUser);
+            service.addStaffWithCredentials(role, id, name, username, pw, currentUser());
             System.out.println("Added " + role + " " + name);
         } catch (Exception e) {
             System.out.println("Error: " + e.getMessage());
@@ -117,7 +132,7 @@ public class MenuController {
             System.out.print("New password: ");
             String pw = in.nextLine();
 
-            service.modifyStaffPassword(key, pw, currentUser);
+            service.modifyStaffPassword(key, pw, currentUser());
             System.out.println("Password updated.");
         } catch (Exception e) {
             System.out.println("Error: " + e.getMessage());
@@ -139,7 +154,7 @@ public class MenuController {
             System.out.print("Replace existing on same day? (Y/N): ");
             boolean replace = in.nextLine().trim().equalsIgnoreCase("Y");
 
-            service.assignOrReplaceShift(key, day, t, replace, currentUser);
+            service.assignOrReplaceShift(key, day, t, replace, currentUser());
             System.out.println((replace ? "Replaced" : "Assigned") + " " + t + " on " + day + ".");
         } catch (Exception e) {
             System.out.println("Error: " + e.getMessage());
@@ -152,7 +167,7 @@ public class MenuController {
             System.out.print("Bed ID: ");
             String bedId = in.nextLine().trim();
 
-            var opt = service.viewResidentInBed(bedId, currentUser);
+            var opt = service.viewResidentInBed(bedId, currentUser());
             if (opt.isEmpty()) System.out.println("VACANT");
             else {
                 Resident r = opt.get();
@@ -189,7 +204,7 @@ public class MenuController {
                 items.add(new PrescriptionItem(med, dose, freq, notes));
             }
 
-            var p = service.attachPrescriptionToBed(bedId, items, currentUser);
+            var p = service.attachPrescriptionToBed(bedId, items, currentUser());
             System.out.println("Prescription " + p.getId() + " added (" + p.getItems().size() + " items).");
         } catch (Exception e) {
             System.out.println("Error: " + e.getMessage());
@@ -205,7 +220,7 @@ public class MenuController {
             System.out.print("TO bed: ");
             String toId = in.nextLine().trim();
 
-            service.moveResident(fromId, toId, currentUser);
+            service.moveResident(fromId, toId, currentUser());
             System.out.println("Moved successfully.");
         } catch (Exception e) {
             System.out.println("Error: " + e.getMessage());
@@ -235,7 +250,7 @@ public class MenuController {
                     System.out.print("Notes: ");
                     String notes = in.nextLine().trim();
 
-                    service.addPrescriptionItem(rxId, new PrescriptionItem(med, dose, freq, notes), currentUser);
+                    service.addPrescriptionItem(rxId, new PrescriptionItem(med, dose, freq, notes), currentUser());
                     System.out.println("Added.");
                 }
                 case "E" -> {
@@ -254,14 +269,14 @@ public class MenuController {
                     System.out.print("Notes: ");
                     String notes = in.nextLine().trim();
 
-                    service.editPrescriptionItem(rxId, idx, new PrescriptionItem(med, dose, freq, notes), currentUser);
+                    service.editPrescriptionItem(rxId, idx, new PrescriptionItem(med, dose, freq, notes), currentUser());
                     System.out.println("Updated.");
                 }
                 case "R" -> {
                     System.out.print("Item index (1..n): ");
                     int idx = Integer.parseInt(in.nextLine().trim()) - 1;
 
-                    service.removePrescriptionItem(rxId, idx, currentUser);
+                    service.removePrescriptionItem(rxId, idx, currentUser());
                     System.out.println("Removed.");
                 }
                 default -> System.out.println("Invalid choice.");
@@ -286,7 +301,7 @@ public class MenuController {
             System.out.print("Dose override (Enter to use prescribed dose): ");
             String dose = in.nextLine().trim();
 
-            AdministrationRecord rec = service.administerDose(bedId, rxId, idx, dose, currentUser);
+            AdministrationRecord rec = service.administerDose(bedId, rxId, idx, dose, currentUser());
             System.out.println("Admin OK at " + rec.getTime() + " for " + rec.getMedicine() + " " + rec.getDose());
         } catch (Exception e) {
             System.out.println("Error: " + e.getMessage());
@@ -299,7 +314,7 @@ public class MenuController {
             System.out.print("Bed ID: ");
             String bedId = in.nextLine().trim();
 
-            List<AdministrationRecord> rows = service.administrationLogForBed(bedId, currentUser);
+            List<AdministrationRecord> rows = service.administrationLogForBed(bedId, currentUser());
             if (rows.isEmpty()) {
                 System.out.println("No records.");
                 return;
@@ -317,8 +332,14 @@ public class MenuController {
     // --- compliance check ---
     public void checkCompliance() {
         try {
-            service.checkCompliance();
-            System.out.println("Compliance OK.");
+            var report = service.weeklyComplianceReport();
+            if (report.isCompliant()) {
+                System.out.println("Compliance OK.");
+                return;
+            }
+            System.out.println("Compliance FAILED (" + report.getViolations().size() + " issue(s) "
+                    + report.getFrom() + " to " + report.getTo() + "):");
+            report.getViolations().forEach(v -> System.out.println("  - " + v.getMessage()));
         } catch (Exception e) {
             System.out.println("Compliance FAILED: " + e.getMessage());
         }
@@ -330,4 +351,10 @@ public class MenuController {
         if (log.isEmpty()) System.out.println("Audit log is empty.");
         else log.forEach(e -> System.out.println(e.toString()));
     }
+
+    // --- metrics dump ---
+    public void showMetrics() {
+        String report = service.getMetrics().getReport();
+        System.out.print(report.lines().count() <= 1 ? "No calls recorded yet.\n" : report);
+    }
 }
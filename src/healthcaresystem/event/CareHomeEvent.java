@@ -0,0 +1,114 @@
+package healthcaresystem.event;
+
+import java.time.LocalDate;
+
+import healthcaresystem.model.facility.Bed;
+import healthcaresystem.model.meds.AdministrationRecord;
+import healthcaresystem.model.people.Resident;
+import healthcaresystem.model.schedule.ShiftType;
+
+// Domain events published by CareHomeService after a mutation has been committed.
+// Events with the same key describe the same thing (one bed, one prescription, one staff-day),
+// so a subscriber that falls behind can skip to the latest one (see EventBus).
+public abstract class CareHomeEvent {
+
+    private final long publishedNanos = System.nanoTime();
+
+    // coalescing key, or null when every event matters (doses, moves)
+    public abstract String key();
+
+    long publishedNanos() { return publishedNanos; }
+
+    // ---------- beds ----------
+    // occupant is the state after the change (null when vacated)
+    public abstract static class BedEvent extends CareHomeEvent {
+        private final Bed bed;
+        private final Resident occupant;
+
+        BedEvent(Bed bed, Resident occupant) { this.bed = bed; this.occupant = occupant; }
+
+        public Bed getBed() { return bed; }
+        public Resident getOccupant() { return occupant; }
+        @Override public String key() { return "bed:" + bed.getId(); }
+    }
+
+    public static final class BedOccupied extends BedEvent {
+        public BedOccupied(Bed bed, Resident resident) { super(bed, resident); }
+        @Override public String toString() { return "BedOccupied " + getBed().getId() + " " + getOccupant().getId(); }
+    }
+
+    public static final class BedVacated extends BedEvent {
+        private final Resident previous;
+
+        public BedVacated(Bed bed, Resident previous) { super(bed, null); this.previous = previous; }
+
+        public Resident getPrevious() { return previous; }
+        @Override public String toString() { return "BedVacated " + getBed().getId() + " " + previous.getId(); }
+    }
+
+    // published after the BedVacated/BedOccupied pair of the two beds involved
+    public static final class ResidentMoved extends CareHomeEvent {
+        private final Resident resident;
+        private final Bed from, to;
+
+        public ResidentMoved(Resident resident, Bed from, Bed to) { this.resident = resident; this.from = from; this.to = to; }
+
+        public Resident getResident() { return resident; }
+        public Bed getFrom() { return from; }
+        public Bed getTo() { return to; }
+        @Override public String key() { return null; }
+        @Override public String toString() { return "ResidentMoved " + resident.getId() + " " + from.getId() + "->" + to.getId(); }
+    }
+
+    // ---------- roster ----------
+    public static final class ShiftAssigned extends CareHomeEvent {
+        private final String staffId;
+        private final LocalDate day;
+        private final ShiftType type;
+        private final boolean replaced;
+
+        public ShiftAssigned(String staffId, LocalDate day, ShiftType type, boolean replaced) {
+            this.staffId = staffId; this.day = day; this.type = type; this.replaced = replaced;
+        }
+
+        public String getStaffId() { return staffId; }
+        public LocalDate getDay() { return day; }
+        public ShiftType getType() { return type; }
+        public boolean isReplaced() { return replaced; }
+        @Override public String key() { return "shift:" + staffId + ":" + day; }
+        @Override public String toString() { return "ShiftAssigned " + staffId + " " + day + " " + type + (replaced ? " (replace)" : ""); }
+    }
+
+    // ---------- medication ----------
+    public static final class PrescriptionChanged extends CareHomeEvent {
+        public enum Change { CREATED, ITEM_ADDED, ITEM_EDITED, ITEM_REMOVED }
+
+        private final String prescriptionId, patientId;
+        private final Change change;
+
+        public PrescriptionChanged(String prescriptionId, String patientId, Change change) {
+            this.prescriptionId = prescriptionId; this.patientId = patientId; this.change = change;
+        }
+
+        public String getPrescriptionId() { return prescriptionId; }
+        public String getPatientId() { return patientId; }
+        public Change getChange() { return change; }
+        @Override public String key() { return "rx:" + prescriptionId; }
+        @Override public String toString() { return "PrescriptionChanged " + prescriptionId + " " + change; }
+    }
+
+    public static final class DoseAdministered extends CareHomeEvent {
+        private final AdministrationRecord record;
+        private final String bedId, patientId;
+
+        public DoseAdministered(AdministrationRecord record, String bedId, String patientId) {
+            this.record = record; this.bedId = bedId; this.patientId = patientId;
+        }
+
+        public AdministrationRecord getRecord() { return record; }
+        public String getBedId() { return bedId; }
+        public String getPatientId() { return patientId; }
+        @Override public String key() { return null; }
+        @Override public String toString() { return "DoseAdministered " + record.getPrescriptionId() + " " + record.getMedicine() + " bed=" + bedId; }
+    }
+}
@@ -0,0 +1,136 @@
+package healthcaresystem.event;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import healthcaresystem.metrics.Metrics;
+
+// Typed, asynchronous delivery of CareHomeEvents.
+// publish() only drops the event into each matching subscriber's mailbox and schedules a drain
+// on that subscriber's executor, so a service call never waits for a view, cache or writer.
+// One drain runs per mailbox at a time, so each subscriber sees events in publish order.
+// A coalescing subscriber keeps only the newest pending event per key: a board that falls
+// behind a burst of admissions repaints each bed once, with its latest state. The newer event
+// takes the older one's place in the mailbox, so the order between keys is still publish order
+// (of each key's first pending event).
+public class EventBus {
+
+    // shared daemon pool for subscribers that don't bring their own executor (e.g. Platform::runLater)
+    private static final ExecutorService DEFAULT_EXECUTOR = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "care-home-events");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final Metrics metrics = Metrics.global();
+
+    // coalescing subscriber on the shared pool
+    public <T extends CareHomeEvent> Subscription subscribe(Class<T> type, Consumer<? super T> handler) {
+        return subscribe(type, DEFAULT_EXECUTOR, true, handler);
+    }
+
+    public <T extends CareHomeEvent> Subscription subscribe(Class<T> type, Executor executor, boolean coalesce,
+                                                            Consumer<? super T> handler) {
+        Subscription s = new Subscription(type, executor, coalesce, event -> handler.accept(type.cast(event)));
+        subscriptions.add(s);
+        return s;
+    }
+
+    public void publish(CareHomeEvent event) {
+        for (Subscription s : subscriptions) s.offer(event);
+    }
+
+    public boolean hasSubscribers() { return !subscriptions.isEmpty(); }
+
+    // A subscriber's mailbox. Handlers that throw are counted and skipped; they don't stop delivery.
+    public final class Subscription {
+        private final Class<? extends CareHomeEvent> type;
+        private final Executor executor;
+        private final boolean coalesce;
+        private final Consumer<CareHomeEvent> handler;
+
+        // key -> newest pending event; events without a key (or not coalescing) get a sequence number
+        private final Map<Object, CareHomeEvent> pending = new LinkedHashMap<>();
+        private long seq, coalesced, failed;
+        private boolean scheduled;
+        private volatile boolean cancelled;
+
+        private Subscription(Class<? extends CareHomeEvent> type, Executor executor, boolean coalesce,
+                             Consumer<CareHomeEvent> handler) {
+            this.type = type;
+            this.executor = executor;
+            this.coalesce = coalesce;
+            this.handler = handler;
+        }
+
+        // stops delivery; events still pending are dropped
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            synchronized (this) { pending.clear(); }
+        }
+
+        public synchronized int getPending() { return pending.size(); }
+        public synchronized long getCoalesced() { return coalesced; }
+        public synchronized long getFailed() { return failed; }
+
+        private void offer(CareHomeEvent event) {
+            if (cancelled || !type.isInstance(event)) return;
+            boolean schedule;
+            synchronized (this) {
+                String key = coalesce ? event.key() : null;
+                if (key == null) {
+                    pending.put(seq++, event);
+                } else {
+                    // replaced in place: LinkedHashMap keeps the key's original position
+                    if (pending.put(key, event) != null) coalesced++;
+                }
+                schedule = !scheduled;
+                scheduled = true;
+            }
+            if (!schedule) return;
+            try {
+                executor.execute(this::drain);
+            } catch (RuntimeException e) {
+                // executor gone (e.g. the FX toolkit has exited): nobody is left to deliver to
+                synchronized (this) { pending.clear(); scheduled = false; }
+                metrics.record("events.delivery", 0, e);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                List<CareHomeEvent> batch;
+                synchronized (this) {
+                    if (pending.isEmpty() || cancelled) {
+                        pending.clear();
+                        scheduled = false;
+                        return;
+                    }
+                    batch = new ArrayList<>(pending.values());
+                    pending.clear();
+                }
+                for (CareHomeEvent e : batch) {
+                    if (cancelled) break;
+                    RuntimeException error = null;
+                    try {
+                        handler.accept(e);
+                    } catch (RuntimeException ex) {
+                        error = ex;
+                        synchronized (this) { failed++; }
+                    }
+                    // time from publish to handled
+                    metrics.record("events.delivery", System.nanoTime() - e.publishedNanos(), error);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package healthcaresystem.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Call counts, failures by exception type and latency histograms per named operation
+// ("service.moveResident", "repo.serialization.save", ...). The global registry is what the
+// service, repositories, CLI and GUI use; it is also published over JMX under "healthcaresystem".
+public class Metrics implements MetricsMXBean {
+
+    private static final Metrics GLOBAL = published("healthcaresystem");
+
+    public static Metrics global() { return GLOBAL; }
+
+    public static final class Operation implements OperationMXBean {
+        private final String name;
+        private final LongAdder errors = new LongAdder();
+        private final Map<String, LongAdder> errorsByType = new ConcurrentHashMap<>();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        Operation(String name) { this.name = name; }
+
+        void record(long nanos, Throwable error) {
+            latency.record(nanos);
+            if (error == null) return;
+            errors.increment();
+            errorsByType.computeIfAbsent(error.getClass().getSimpleName(), k -> new LongAdder()).increment();
+        }
+
+        public String getName() { return name; }
+        public long getCount() { return latency.getCount(); }
+        public long getErrors() { return errors.sum(); }
+        public LatencyHistogram getLatency() { return latency; }
+
+        public Map<String, Long> getErrorsByType() {
+            Map<String, Long> out = new TreeMap<>();
+            errorsByType.forEach((k, v) -> out.put(k, v.sum()));
+            return out;
+        }
+
+        public double getMeanMillis() { return latency.getMean() / 1e6; }
+        public double getP50Millis() { return latency.percentile(50) / 1e6; }
+        public double getP90Millis() { return latency.percentile(90) / 1e6; }
+        public double getP99Millis() { return latency.percentile(99) / 1e6; }
+        public double getMaxMillis() { return latency.getMax() / 1e6; }
+
+        void reset() {
+            latency.reset();
+            errors.reset();
+            errorsByType.clear();
+        }
+    }
+
+    private final String jmxDomain;     // null = not published
+    private final Map<String, Operation> operations = new ConcurrentSkipListMap<>();
+
+    // Private registry (tests); only the global one is published over JMX
+    public Metrics() {
+        this(null);
+    }
+
+    private Metrics(String jmxDomain) {
+        this.jmxDomain = jmxDomain;
+    }
+
+    // registered once constructed, so the MBean server never sees a half-built registry
+    private static Metrics published(String jmxDomain) {
+        Metrics m = new Metrics(jmxDomain);
+        m.register(m, "type=Metrics");
+        return m;
+    }
+
+    public Operation operation(String name) {
+        Operation op = operations.get(name);
+        if (op != null) return op;
+        return operations.computeIfAbsent(name, n -> {
+            Operation created = new Operation(n);
+            register(created, "type=Metrics,name=" + ObjectName.quote(n));
+            return created;
+        });
+    }
+
+    // Runs and times an action, counting it as failed if it throws
+    public <T> T time(String name, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            T result = action.get();
+            record(name, System.nanoTime() - start, null);
+            return result;
+        } catch (RuntimeException | Error e) {
+            record(name, System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    public void time(String name, Runnable action) {
+        time(name, () -> { action.run(); return null; });
+    }
+
+    public void record(String name, long nanos, Throwable error) {
+        operation(name).record(nanos, error);
+    }
+
+    // Failures across all operations, by exception type
+    public Map<String, Long> getErrorsByType() {
+        Map<String, Long> out = new TreeMap<>();
+        for (Operation op : operations.values())
+            op.getErrorsByType().forEach((k, v) -> out.merge(k, v, Long::sum));
+        return out;
+    }
+
+    // One line per operation, for the CLI and the dashboard
+    public String getReport() {
+        StringBuilder sb = new StringBuilder(String.format("%-34s %8s %6s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "mean ms", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        for (Operation op : operations.values()) {
+            if (op.getCount() == 0) continue;
+            sb.append(String.format("%-34s %8d %6d %9.3f %9.3f %9.3f %9.3f %9.3f%n", op.getName(), op.getCount(),
+                    op.getErrors(), op.getMeanMillis(), op.getP50Millis(), op.getP90Millis(), op.getP99Millis(),
+                    op.getMaxMillis()));
+        }
+        Map<String, Long> errors = getErrorsByType();
+        if (!errors.isEmpty()) sb.append("errors by type: ").append(errors).append('\n');
+        return sb.toString();
+    }
+
+    public void reset() {
+        operations.values().forEach(Operation::reset);
+    }
+
+    // ---------- JMX ----------
+    private void register(Object bean, String keys) {
+        if (jmxDomain == null) return;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(jmxDomain + ":" + keys);
+            if (!server.isRegistered(name)) server.registerMBean(bean, name);
+        } catch (JMException | SecurityException e) {
+            // metrics still work without JMX (e.g. a locked-down JVM)
+        }
+    }
+}
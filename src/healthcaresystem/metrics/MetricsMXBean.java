@@ -0,0 +1,10 @@
+package healthcaresystem.metrics;
+
+import java.util.Map;
+
+// JMX view of the whole registry (healthcaresystem:type=Metrics)
+public interface MetricsMXBean {
+    String getReport();
+    Map<String, Long> getErrorsByType();
+    void reset();
+}
@@ -0,0 +1,16 @@
+package healthcaresystem.metrics;
+
+import java.util.Map;
+
+// JMX view of one timed operation (healthcaresystem:type=Metrics,name=<operation>)
+public interface OperationMXBean {
+    String getName();
+    long getCount();
+    long getErrors();
+    Map<String, Long> getErrorsByType();
+    double getMeanMillis();
+    double getP50Millis();
+    double getP90Millis();
+    double getP99Millis();
+    double getMaxMillis();
+}
@@ -1,18 +1,24 @@
 package healthcaresystem.model.audit;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 
 import healthcaresystem.model.people.Staff;
+import healthcaresystem.model.people.StaffRegistry;
 
 public class AuditEntry implements Serializable {
     private static final long serialVersionUID = 1L;
 
     private final LocalDateTime time;   // timestamp of the action
-    private final Staff actor;          // staff member who performed it (null for system)
+    private transient Staff actor;      // staff member who performed it (null for system)
+    private int actorRef;               // its handle in the CareHome's StaffRegistry (0 = system or not bound yet)
     private final String action;        // action code (e.g., LOGIN, ADD_RESIDENT)
     private final String details;       // descriptive info about the action
     private final boolean success;      // true if successful, false if denied
+    private transient AuditEntry read;  // built by readObject (the final fields can't be set there), see readResolve
 
     public AuditEntry(LocalDateTime time, Staff actor, String action, String details, boolean success) {
         this.time = time;
@@ -29,6 +35,12 @@ public class AuditEntry implements Serializable {
     public String getDetails() { return details; }
     public boolean isSuccess() { return success; }
 
+    // Before a save: takes a handle. After a load: resolves the handle to the shared Staff object.
+    public void bindStaff(StaffRegistry registry) {
+        if (actor == null) actor = registry.get(actorRef);
+        else actor = registry.get(actorRef = registry.intern(actor));
+    }
+
     // formatted summary for logs and console
     @Override 
     public String toString() {
@@ -37,4 +49,32 @@ public class AuditEntry implements Serializable {
                action + " " + details + " " +
                (success ? "OK" : "DENIED");
     }
+
+    // actor as a handle (see Shift); system entries write 0
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        boolean unbound = actorRef == 0 && actor != null;
+        ObjectOutputStream.PutField f = out.putFields();
+        f.put("time", time);
+        f.put("action", action);
+        f.put("details", details);
+        f.put("success", success);
+        f.put("actorRef", unbound ? -1 : actorRef);
+        out.writeFields();
+        if (unbound) out.writeObject(actor);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField f = in.readFields();
+        int ref = f.defaulted("actorRef") ? 0 : f.get("actorRef", 0);
+        Staff who = null;
+        if (f.defaulted("actorRef")) who = (Staff) f.get("actor", null);   // older snapshot: the object itself
+        else if (ref < 0) { who = (Staff) in.readObject(); ref = 0; }
+        read = new AuditEntry((LocalDateTime) f.get("time", null), who, (String) f.get("action", null),
+                (String) f.get("details", null), f.get("success", false));
+        read.actorRef = ref;
+    }
+
+    private Object readResolve() {
+        return read;
+    }
 }
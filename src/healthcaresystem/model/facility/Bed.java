@@ -1,13 +1,26 @@
 package healthcaresystem.model.facility;
 
 import java.io.Serializable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
 import healthcaresystem.model.people.Resident;
 
 public class Bed implements Serializable {
     private static final long serialVersionUID = 1L;
 
-    private String id;                // unique bed ID (e.g., W1-R2-B3)
-    private Resident occupiedBy;      // null means the bed is vacant
+    // compare-and-set access to occupiedBy (volatile does not change the serialized form)
+    private static final VarHandle OCCUPIED_BY;
+    static {
+        try {
+            OCCUPIED_BY = MethodHandles.lookup().findVarHandle(Bed.class, "occupiedBy", Resident.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private String id;                        // unique bed ID (e.g., W1-R2-B3)
+    private volatile Resident occupiedBy;     // null means the bed is vacant
 
     public Bed(String id) {
         this.id = id;
@@ -17,4 +30,14 @@ public class Bed implements Serializable {
     public String getId() { return id; }
     public Resident getOccupiedBy() { return occupiedBy; }
     public void setOccupiedBy(Resident occupiedBy) { this.occupiedBy = occupiedBy; }
+
+    // Atomically claims a vacant bed; false if someone got there first
+    public boolean tryOccupy(Resident resident) {
+        return OCCUPIED_BY.compareAndSet(this, (Resident) null, resident);
+    }
+
+    // Atomically frees the bed, but only if it still holds the expected resident
+    public boolean tryVacate(Resident expected) {
+        return expected != null && OCCUPIED_BY.compareAndSet(this, expected, (Resident) null);
+    }
 }
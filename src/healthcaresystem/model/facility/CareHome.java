@@ -1,12 +1,21 @@
 package healthcaresystem.model.facility;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import healthcaresystem.model.people.Resident;
 import healthcaresystem.model.people.Staff;
+import healthcaresystem.model.people.StaffRegistry;
+import healthcaresystem.model.schedule.ComplianceReport;
+import healthcaresystem.model.schedule.ComplianceViolation;
 import healthcaresystem.model.schedule.Roster;
+import healthcaresystem.model.schedule.Shift;
 import healthcaresystem.model.meds.Prescription;
 import healthcaresystem.model.meds.AdministrationRecord;
 import healthcaresystem.model.audit.AuditEntry;
@@ -15,6 +24,11 @@ import healthcaresystem.exception.ComplianceException;
 public class CareHome implements Serializable {
     private static final long serialVersionUID = 1L;
 
+    // names of the history sections a loader may defer
+    public static final String SECTION_PRESCRIPTIONS = "prescriptions";
+    public static final String SECTION_ADMINISTRATIONS = "administrations";
+    public static final String SECTION_AUDIT = "audit";
+
     // core collections that define the system state
     private List<Ward> wards = new ArrayList<>();
     private List<Staff> staff = new ArrayList<>();
@@ -24,19 +38,35 @@ public class CareHome implements Serializable {
     private List<AuditEntry> auditLog = new ArrayList<>();
     private Roster roster = new Roster();
 
+    // one object and int handle per staff id; records are saved with handles into it
+    private StaffRegistry staffRegistry = new StaffRegistry();
+
+    // sequence number of the last journal record already folded into this state
+    private long journalSeq;
+
+    // history sections not read from disk yet (filled in on first access)
+    // (volatile + synchronized loading so sessions sharing this CareHome never see a half-read section)
+    private transient volatile Map<String, Runnable> deferred;
+
+    // free-bed lookup, built on first use
+    private transient volatile VacancyIndex vacancies;
+
     // ---------- Getters ----------
     public List<AuditEntry> getAuditLog() {
         if (auditLog == null) auditLog = new ArrayList<>();
+        loadDeferred(SECTION_AUDIT);
         return auditLog;
     }
 
     public List<Prescription> getPrescriptions() {
         if (prescriptions == null) prescriptions = new ArrayList<>();
+        loadDeferred(SECTION_PRESCRIPTIONS);
         return prescriptions;
     }
 
     public List<AdministrationRecord> getAdministrations() {
         if (administrations == null) administrations = new ArrayList<>();
+        loadDeferred(SECTION_ADMINISTRATIONS);
         return administrations;
     }
 
@@ -60,16 +90,98 @@ public class CareHome implements Serializable {
         return roster;
     }
 
+    public long getJournalSeq() { return journalSeq; }
+
+    public StaffRegistry getStaffRegistry() {
+        if (staffRegistry == null) staffRegistry = new StaffRegistry();
+        return staffRegistry;
+    }
+
+    public VacancyIndex getVacancies() {
+        VacancyIndex v = vacancies;
+        if (v == null) {
+            synchronized (this) {
+                if (vacancies == null) vacancies = new VacancyIndex(this);
+                v = vacancies;
+            }
+        }
+        return v;
+    }
+
     // ---------- Setters ----------
     public void setWards(List<Ward> wards) { this.wards = wards; }
     public void setStaff(List<Staff> staff) { this.staff = staff; }
     public void setResidents(List<Resident> residents) { this.residents = residents; }
     public void setRoster(Roster roster) { this.roster = roster; }
+    public void setJournalSeq(long journalSeq) { this.journalSeq = journalSeq; }
+
+    // ---------- Lazy sections ----------
+    // registers a loader that appends a section's contents the first time its getter is used
+    public synchronized void defer(String section, Runnable loader) {
+        if (deferred == null) deferred = new HashMap<>();
+        deferred.put(section, loader);
+    }
+
+    public boolean isLoaded(String section) {
+        return deferred == null || !deferred.containsKey(section);
+    }
+
+    private void loadDeferred(String section) {
+        if (deferred == null) return; // nothing (left) to load
+        synchronized (this) {
+            if (deferred == null) return;
+            Runnable loader = deferred.remove(section); // removed first so the loader can use the getter
+            if (loader != null) {
+                loader.run();
+                bindSection(section);
+            }
+            if (deferred != null && deferred.isEmpty()) deferred = null; // a loader may have finished the rest
+        }
+    }
+
+    // ---------- Staff handles ----------
+    // Gives every record's staff member a handle (listed staff first, so they stay canonical),
+    // or after a load resolves the handles back. Records from older snapshots still carry a
+    // Staff copy; it is swapped for the registered object with the same id.
+    // History sections that are still deferred are bound when they are read.
+    public void bindStaff() {
+        StaffRegistry registry = getStaffRegistry();
+        for (Staff s : getStaff()) registry.intern(s);
+        for (Shift s : getRoster().getShifts()) s.bindStaff(registry);
+        for (String section : new String[] {SECTION_PRESCRIPTIONS, SECTION_ADMINISTRATIONS, SECTION_AUDIT})
+            if (isLoaded(section)) bindSection(section);
+    }
+
+    private void bindSection(String section) {
+        StaffRegistry registry = getStaffRegistry();
+        switch (section) {
+            case SECTION_PRESCRIPTIONS -> { for (Prescription p : getPrescriptions()) p.bindStaff(registry); }
+            case SECTION_ADMINISTRATIONS -> { for (AdministrationRecord a : getAdministrations()) a.bindStaff(registry); }
+            case SECTION_AUDIT -> { for (AuditEntry e : getAuditLog()) e.bindStaff(registry); }
+            default -> { }
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        // fields are written directly, so deferred sections must be read first
+        getPrescriptions();
+        getAdministrations();
+        getAuditLog();
+        bindStaff();
+        out.defaultWriteObject();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        bindStaff();
+    }
 
     // ---------- Compliance check ----------
     // verifies that staffing and scheduling meet required compliance rules
     public void checkCompliance() throws ComplianceException {
-        roster.ensureDailyDoctorHour();
-        roster.ensureNurseShiftsAndHours();
+        // one pass over the roster; doctor gaps are reported before nurse problems
+        ComplianceReport week = roster.weeklyReport();
+        week.throwFirst(ComplianceViolation.Rule.NO_DOCTOR);
+        week.throwFirst();
     }
 }
@@ -0,0 +1,194 @@
+package healthcaresystem.model.facility;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import healthcaresystem.model.people.Resident;
+
+// Free beds per ward and room, plus each room's gender mix.
+// Rooms sit in small ordered sets per ward (same-gender rooms by occupancy, empty rooms,
+// any room with space), so the best bed is found in O(wards x log rooms), not by scanning beds.
+// Callers report each bed they change through bedChanged(). Allocations claim through claim(),
+// which re-reads the room's actual occupants under the index lock, so a missed update only
+// costs a retry, never a mixed-gender room.
+public class VacancyIndex {
+
+    private static final int MALE = 0, FEMALE = 1, OTHER = 2;
+
+    private static final class RoomState {
+        final int ward, order;     // positions in the care home, used for ordering
+        final Room room;
+        final BitSet free = new BitSet();
+        final int[] genders = new int[3];
+        int occupied;
+
+        RoomState(int ward, int order, Room room) { this.ward = ward; this.order = order; this.room = room; }
+
+        // single gender held by the room, -1 if empty, -2 if mixed
+        int gender() {
+            int g = -1;
+            for (int i = 0; i < 3; i++)
+                if (genders[i] > 0) g = (g == -1) ? i : -2;
+            return g;
+        }
+
+        void recount() {
+            free.clear();
+            genders[MALE] = genders[FEMALE] = genders[OTHER] = 0;
+            occupied = 0;
+            List<Bed> beds = room.getBeds();
+            for (int i = 0; i < beds.size(); i++) {
+                Resident r = beds.get(i).getOccupiedBy();
+                if (r == null) free.set(i);
+                else { genders[code(r.getGender())]++; occupied++; }
+            }
+        }
+    }
+
+    private static final Comparator<RoomState> BY_OCCUPANCY =
+            Comparator.<RoomState>comparingInt(r -> r.occupied).thenComparingInt(r -> r.order);
+    private static final Comparator<RoomState> BY_ORDER = Comparator.comparingInt(r -> r.order);
+
+    private static final class WardState {
+        final String id;
+        final List<TreeSet<RoomState>> sameGender = List.of(
+                new TreeSet<>(BY_OCCUPANCY), new TreeSet<>(BY_OCCUPANCY), new TreeSet<>(BY_OCCUPANCY));
+        final TreeSet<RoomState> empty = new TreeSet<>(BY_ORDER);
+        final TreeSet<RoomState> withSpace = new TreeSet<>(BY_OCCUPANCY);
+        int freeBeds;
+
+        WardState(String id) { this.id = id; }
+    }
+
+    private final CareHome careHome;
+    private final List<WardState> wards = new ArrayList<>();
+    private final Map<Bed, RoomState> roomOfBed = new IdentityHashMap<>();
+
+    VacancyIndex(CareHome careHome) {
+        this.careHome = careHome;
+        rebuild();
+    }
+
+    // Re-reads every ward (on first use, after wards are added, or if the index was bypassed)
+    public synchronized void rebuild() {
+        wards.clear();
+        roomOfBed.clear();
+        int order = 0;
+        for (Ward w : careHome.getWards()) {
+            WardState ws = new WardState(w.getId());
+            wards.add(ws);
+            for (Room r : w.getRooms()) {
+                RoomState rs = new RoomState(wards.size() - 1, order++, r);
+                for (Bed b : r.getBeds()) roomOfBed.put(b, rs);
+                rs.recount();
+                file(ws, rs);
+            }
+        }
+    }
+
+    // Re-reads the room holding this bed after an admit, move or discharge
+    public synchronized void bedChanged(Bed bed) {
+        RoomState rs = roomOfBed.get(bed);
+        if (rs == null) { rebuild(); return; } // a ward we haven't seen
+        WardState ws = wards.get(rs.ward);
+        unfile(ws, rs);
+        rs.recount();
+        file(ws, rs);
+    }
+
+    // Claims a bed returned by bestFreeBed after re-reading its room; false (with the room
+    // re-filed) if the bed was taken meanwhile or the room now holds another gender
+    public synchronized boolean claim(Bed bed, Resident resident, boolean genderMatched) {
+        RoomState rs = roomOfBed.get(bed);
+        if (rs == null) { rebuild(); return false; }
+        WardState ws = wards.get(rs.ward);
+        unfile(ws, rs);
+        rs.recount();
+        int g = rs.gender();
+        boolean fits = !genderMatched || g == -1 || g == code(resident.getGender());
+        boolean claimed = fits && bed.tryOccupy(resident);
+        if (claimed) rs.recount();
+        file(ws, rs);
+        return claimed;
+    }
+
+    // Best free bed: a room already holding the same gender (least occupied first), then an
+    // empty room, nearest ward to the preferred one breaking ties; null if nothing fits
+    public synchronized Bed bestFreeBed(char gender, String preferredWard, boolean genderMatched) {
+        int home = 0;
+        for (int i = 0; i < wards.size(); i++)
+            if (wards.get(i).id.equalsIgnoreCase(preferredWard == null ? "" : preferredWard)) home = i;
+
+        RoomState best = null;
+        int bestCategory = Integer.MAX_VALUE, bestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < wards.size(); i++) {
+            WardState ws = wards.get(i);
+            if (ws.freeBeds == 0) continue;
+            int distance = Math.abs(i - home);
+
+            RoomState candidate;
+            int category;
+            if (genderMatched) {
+                candidate = first(ws.sameGender.get(code(gender)));
+                category = 0;
+                if (candidate == null) { candidate = first(ws.empty); category = 1; }
+            } else {
+                candidate = first(ws.withSpace);
+                category = 0;
+            }
+            if (candidate == null) continue;
+
+            boolean better = category < bestCategory
+                    || (category == bestCategory && candidate.occupied < best.occupied)
+                    || (category == bestCategory && candidate.occupied == best.occupied && distance < bestDistance);
+            if (better) { best = candidate; bestCategory = category; bestDistance = distance; }
+        }
+        return best == null ? null : best.room.getBeds().get(best.free.nextSetBit(0));
+    }
+
+    public synchronized int freeBeds() {
+        int n = 0;
+        for (WardState ws : wards) n += ws.freeBeds;
+        return n;
+    }
+
+    public synchronized int freeBeds(String wardId) {
+        for (WardState ws : wards) if (ws.id.equalsIgnoreCase(wardId)) return ws.freeBeds;
+        return 0;
+    }
+
+    // ---------- helpers ----------
+    private static RoomState first(TreeSet<RoomState> set) {
+        return set.isEmpty() ? null : set.first();
+    }
+
+    private static void file(WardState ws, RoomState rs) {
+        int free = rs.free.cardinality();
+        ws.freeBeds += free;
+        if (free == 0) return;
+        ws.withSpace.add(rs);
+        int g = rs.gender();
+        if (g == -1) ws.empty.add(rs);
+        else if (g >= 0) ws.sameGender.get(g).add(rs);
+    }
+
+    private static void unfile(WardState ws, RoomState rs) {
+        ws.freeBeds -= rs.free.cardinality();
+        ws.withSpace.remove(rs);
+        ws.empty.remove(rs);
+        for (TreeSet<RoomState> set : ws.sameGender) set.remove(rs);
+    }
+
+    private static int code(char gender) {
+        switch (Character.toUpperCase(gender)) {
+            case 'M': return MALE;
+            case 'F': return FEMALE;
+            default:  return OTHER;
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package healthcaresystem.model.meds;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import healthcaresystem.model.people.Staff;
+import healthcaresystem.model.people.StaffRegistry;
 
 public class AdministrationRecord implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -11,13 +15,19 @@ public class AdministrationRecord implements Serializable {
     private String medicine;         // medicine name
     private String dose;             // dose administered
     private LocalDateTime time;      // timestamp of administration
-    private Staff administeredBy;    // nurse or staff who administered it
+    private transient Staff administeredBy;    // nurse or staff who administered it
+    private int administeredByRef;   // its handle in the CareHome's StaffRegistry (0 = not bound yet)
 
     public AdministrationRecord(String prescriptionId, String medicine, String dose, Staff by) {
+        this(prescriptionId, medicine, dose, by, LocalDateTime.now());
+    }
+
+    // used when restoring a record with its original timestamp
+    public AdministrationRecord(String prescriptionId, String medicine, String dose, Staff by, LocalDateTime time) {
         this.prescriptionId = prescriptionId;
         this.medicine = medicine;
         this.dose = dose;
-        this.time = LocalDateTime.now();
+        this.time = time;
         this.administeredBy = by;
     }
 
@@ -28,8 +38,44 @@ public class AdministrationRecord implements Serializable {
     public LocalDateTime getTime() { return time; }
     public Staff getAdministeredBy() { return administeredBy; }
 
+    // Before a save: takes a handle. After a load: resolves the handle to the shared Staff object.
+    public void bindStaff(StaffRegistry registry) {
+        if (administeredBy == null) administeredBy = registry.get(administeredByRef);
+        else administeredBy = registry.get(administeredByRef = registry.intern(administeredBy));
+    }
+
     @Override
     public String toString() {
         return "[" + time + "] " + medicine + " " + dose + " by " + administeredBy.getName();
     }
+
+    // handle only, as for Shift (-1 plus the object when the record was never bound)
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        boolean unbound = administeredByRef == 0 && administeredBy != null;
+        ObjectOutputStream.PutField f = out.putFields();
+        f.put("prescriptionId", prescriptionId);
+        f.put("medicine", medicine);
+        f.put("dose", dose);
+        f.put("time", time);
+        f.put("administeredByRef", unbound ? -1 : administeredByRef);
+        out.writeFields();
+        if (unbound) out.writeObject(administeredBy);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField f = in.readFields();
+        prescriptionId = (String) f.get("prescriptionId", null);
+        medicine = (String) f.get("medicine", null);
+        dose = (String) f.get("dose", null);
+        time = (LocalDateTime) f.get("time", null);
+        if (f.defaulted("administeredByRef")) {
+            administeredBy = (Staff) f.get("administeredBy", null);   // older snapshot: the object itself
+            return;
+        }
+        administeredByRef = f.get("administeredByRef", 0);
+        if (administeredByRef < 0) {
+            administeredBy = (Staff) in.readObject();
+            administeredByRef = 0;
+        }
+    }
 }
@@ -1,5 +1,8 @@
 package healthcaresystem.model.meds;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -7,21 +10,28 @@ import java.util.List;
 
 import healthcaresystem.model.people.Doctor;
 import healthcaresystem.model.people.Resident;
+import healthcaresystem.model.people.StaffRegistry;
 
 public class Prescription implements Serializable {
     private static final long serialVersionUID = 1L;
 
     private String id;                        // unique prescription ID
     private Resident patient;                 // resident this prescription belongs to
-    private Doctor doctor;                    // doctor who created the prescription
+    private transient Doctor doctor;          // doctor who created the prescription
+    private int doctorRef;                    // its handle in the CareHome's StaffRegistry (0 = not bound yet)
     private LocalDateTime createdAt;          // creation timestamp
-    private final List<PrescriptionItem> items = new ArrayList<>();  // list of prescribed medicines
+    private List<PrescriptionItem> items = new ArrayList<>();  // list of prescribed medicines
 
     public Prescription(String id, Resident patient, Doctor doctor) {
+        this(id, patient, doctor, LocalDateTime.now());
+    }
+
+    // used when restoring a prescription with its original timestamp
+    public Prescription(String id, Resident patient, Doctor doctor, LocalDateTime createdAt) {
         this.id = id;
         this.patient = patient;
         this.doctor = doctor;
-        this.createdAt = LocalDateTime.now();
+        this.createdAt = createdAt;
     }
 
     // ---------- Getters ----------
@@ -34,9 +44,47 @@ public class Prescription implements Serializable {
     // ---------- Methods ----------
     public void addItem(PrescriptionItem item) { items.add(item); }
 
+    // Before a save: takes a handle. After a load: resolves the handle to the shared Doctor object.
+    public void bindStaff(StaffRegistry registry) {
+        if (doctor == null) doctor = (Doctor) registry.get(doctorRef);
+        else doctor = (Doctor) registry.get(doctorRef = registry.intern(doctor));
+    }
+
     @Override
     public String toString() {
         return "Prescription " + id + " for " + patient.getName() + " by Dr. " + doctor.getName()
                 + " (" + items.size() + " items)";
     }
+
+    // the doctor is written as a handle, as for Shift
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        boolean unbound = doctorRef == 0 && doctor != null;
+        ObjectOutputStream.PutField f = out.putFields();
+        f.put("id", id);
+        f.put("patient", patient);
+        f.put("createdAt", createdAt);
+        f.put("items", items);
+        f.put("doctorRef", unbound ? -1 : doctorRef);
+        out.writeFields();
+        if (unbound) out.writeObject(doctor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField f = in.readFields();
+        id = (String) f.get("id", null);
+        patient = (Resident) f.get("patient", null);
+        createdAt = (LocalDateTime) f.get("createdAt", null);
+        items = (List<PrescriptionItem>) f.get("items", null);
+        if (items == null) items = new ArrayList<>();
+        if (f.defaulted("doctorRef")) {
+            doctor = (Doctor) f.get("doctor", null);   // older snapshot: the object itself
+            return;
+        }
+        doctorRef = f.get("doctorRef", 0);
+        if (doctorRef < 0) {
+            doctor = (Doctor) in.readObject();
+            doctorRef = 0;
+        }
+    }
 }
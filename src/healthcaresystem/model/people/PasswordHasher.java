@@ -0,0 +1,68 @@
+package healthcaresystem.model.people;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+// Salted PBKDF2 password hashes, stored as "pbkdf2$<iterations>$<salt>$<hash>" (Base64).
+// The iteration count travels with each hash, so raising the work factor only affects new hashes.
+public final class PasswordHasher {
+
+    private static final String PREFIX = "pbkdf2$";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16, HASH_BITS = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // work factor for new hashes; override with -Dcarehome.pbkdf2.iterations=...
+    private static volatile int iterations = Integer.getInteger("carehome.pbkdf2.iterations", 100_000);
+
+    private PasswordHasher() { }
+
+    public static int getIterations() { return iterations; }
+    public static void setIterations(int n) {
+        if (n < 1) throw new IllegalArgumentException("Iterations must be positive.");
+        iterations = n;
+    }
+
+    public static String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        int n = iterations;
+        Base64.Encoder b64 = Base64.getEncoder();
+        return PREFIX + n + "$" + b64.encodeToString(salt) + "$" + b64.encodeToString(derive(password, salt, n));
+    }
+
+    // Constant-time check against a stored hash; legacy plaintext values are compared the same way
+    public static boolean verify(String password, String stored) {
+        if (password == null || stored == null) return false;
+        if (!isHash(stored))
+            return MessageDigest.isEqual(password.getBytes(java.nio.charset.StandardCharsets.UTF_8),
+                    stored.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) return false;
+        Base64.Decoder b64 = Base64.getDecoder();
+        byte[] expected = b64.decode(parts[3]);
+        byte[] actual = derive(password, b64.decode(parts[2]), Integer.parseInt(parts[1]));
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    // false for passwords stored by older versions (plaintext)
+    public static boolean isHash(String stored) {
+        return stored != null && stored.startsWith(PREFIX);
+    }
+
+    private static byte[] derive(String password, byte[] salt, int n) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, n, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Password hashing unavailable: " + e.getMessage(), e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
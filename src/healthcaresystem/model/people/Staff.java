@@ -1,15 +1,19 @@
 package healthcaresystem.model.people;
 
 import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
 
 // Base class for all staff members (Doctor, Nurse, Manager)
 public abstract class Staff implements Serializable {
     private static final long serialVersionUID = 1L;
 
+    // bumped by every rename, so username indexes (AuthService) know to re-read
+    private static final AtomicLong usernameChanges = new AtomicLong();
+
     private String id;
     private String name;
     private String username;
-    private String password;
+    private String password; // PasswordHasher hash (plaintext in files from older versions)
 
     public Staff(String id, String name, String username) {
         this.id = id;
@@ -21,10 +25,20 @@ public abstract class Staff implements Serializable {
     public String getId() { return id; }
     public String getName() { return name; }
     public String getUsername() { return username; }
-    public String getPassword() { return password; }
+    public String getPasswordHash() { return password; }
 
     // Setters
     public void setName(String name) { this.name = name; }
-    public void setUsername(String username) { this.username = username; }
-    public void setPassword(String password) { this.password = password; }
+    public void setUsername(String username) { this.username = username; usernameChanges.incrementAndGet(); }
+    public void setPassword(String password) { this.password = password == null ? null : PasswordHasher.hash(password); }
+
+    // used by loaders: the value is already hashed (or legacy plaintext)
+    public void setPasswordHash(String hash) { this.password = hash; }
+
+    public boolean checkPassword(String candidate) { return PasswordHasher.verify(candidate, password); }
+
+    public static long usernameChanges() { return usernameChanges.get(); }
+
+    // true until a legacy plaintext password has been re-hashed
+    public boolean needsRehash() { return password != null && !PasswordHasher.isHash(password); }
 }
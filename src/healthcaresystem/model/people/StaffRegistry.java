@@ -0,0 +1,48 @@
+package healthcaresystem.model.people;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+// Staff of one CareHome, interned by id: each id has one canonical Staff object and a small
+// int handle (1, 2, ...; 0 = nobody). Shifts, prescriptions, administrations and audit entries
+// are serialized with the handle instead of the Staff object and resolved back through here,
+// so a snapshot holds each staff member (and password hash) once and a reload shares them.
+public class StaffRegistry implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final ArrayList<Staff> byHandle = new ArrayList<>();   // declared as ArrayList: it is serialized
+    private transient Map<String, Integer> handles = new HashMap<>();   // id -> handle
+
+    // Handle for this staff member's id, registering `s` as the canonical object if the id is new
+    public synchronized int intern(Staff s) {
+        if (s == null) return 0;
+        Integer h = handles.get(s.getId());
+        if (h != null) return h;
+        byHandle.add(s);
+        handles.put(s.getId(), byHandle.size());
+        return byHandle.size();
+    }
+
+    // The registered object with the same id as `s` (registering `s` if there is none)
+    public synchronized Staff canonical(Staff s) {
+        return get(intern(s));
+    }
+
+    public synchronized Staff get(int handle) {
+        if (handle == 0) return null;
+        if (handle < 0 || handle > byHandle.size()) throw new IllegalArgumentException("Unknown staff handle: " + handle);
+        return byHandle.get(handle - 1);
+    }
+
+    public synchronized int size() { return byHandle.size(); }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        handles = new HashMap<>();
+        for (int i = 0; i < byHandle.size(); i++) handles.put(byHandle.get(i).getId(), i + 1);
+    }
+}
@@ -0,0 +1,37 @@
+package healthcaresystem.model.schedule;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import healthcaresystem.exception.ComplianceException;
+
+// Every violation found in a date window, ordered by day then rule
+public class ComplianceReport {
+
+    private final LocalDate from, to;
+    private final List<ComplianceViolation> violations;
+
+    public ComplianceReport(LocalDate from, LocalDate to, List<ComplianceViolation> violations) {
+        this.from = from;
+        this.to = to;
+        this.violations = Collections.unmodifiableList(violations);
+    }
+
+    // Getters
+    public LocalDate getFrom() { return from; }
+    public LocalDate getTo() { return to; }
+    public List<ComplianceViolation> getViolations() { return violations; }
+    public boolean isCompliant() { return violations.isEmpty(); }
+
+    // Throws the earliest violation of the given rules (all rules if none given)
+    public void throwFirst(ComplianceViolation.Rule... rules) {
+        Set<ComplianceViolation.Rule> wanted = rules.length == 0
+                ? EnumSet.allOf(ComplianceViolation.Rule.class)
+                : EnumSet.of(rules[0], rules);
+        for (ComplianceViolation v : violations)
+            if (wanted.contains(v.getRule())) throw new ComplianceException(v.getMessage());
+    }
+}
@@ -0,0 +1,35 @@
+package healthcaresystem.model.schedule;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import healthcaresystem.model.people.Staff;
+
+// One broken roster rule on one day (staff is set for per-nurse rules)
+public class ComplianceViolation implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // in the order the weekly check reports them within a day
+    public enum Rule { NO_DOCTOR, NURSE_COVERAGE, NURSE_OVER_HOURS }
+
+    private final LocalDate day;
+    private final Rule rule;
+    private final Staff staff;
+    private final String message;
+
+    public ComplianceViolation(LocalDate day, Rule rule, Staff staff, String message) {
+        this.day = day;
+        this.rule = rule;
+        this.staff = staff;
+        this.message = message;
+    }
+
+    // Getters
+    public LocalDate getDay() { return day; }
+    public Rule getRule() { return rule; }
+    public Staff getStaff() { return staff; }
+    public String getMessage() { return message; }
+
+    @Override
+    public String toString() { return message; }
+}
@@ -0,0 +1,52 @@
+package healthcaresystem.model.schedule;
+
+import java.time.LocalDate;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import healthcaresystem.model.people.Doctor;
+import healthcaresystem.model.people.Nurse;
+import healthcaresystem.model.people.Staff;
+
+// Counters for one day of the roster; every rule is checked from these alone.
+// Roster keeps one per day up to date as shifts come and go.
+class DayCoverage {
+
+    static final int HOURS_PER_SHIFT = 8;
+    static final int MAX_NURSE_HOURS = 8;
+
+    int shifts;
+    int doctors;
+    int nurseDay, nurseEve;
+    final Map<Staff, Integer> nurseHours = new IdentityHashMap<>();
+
+    void add(Shift s) { count(s, 1); }
+    void remove(Shift s) { count(s, -1); }
+
+    boolean isEmpty() { return shifts == 0; }
+
+    private void count(Shift s, int delta) {
+        Staff staff = s.getStaff();
+        shifts += delta;
+        if (staff instanceof Doctor) doctors += delta;
+        if (!(staff instanceof Nurse)) return;
+        if (s.getType() == ShiftType.DAY) nurseDay += delta;
+        else if (s.getType() == ShiftType.EVE) nurseEve += delta;
+        nurseHours.merge(staff, delta * HOURS_PER_SHIFT, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    // Appends this day's violations in rule order
+    void evaluate(LocalDate day, List<ComplianceViolation> out) {
+        if (doctors == 0)
+            out.add(new ComplianceViolation(day, ComplianceViolation.Rule.NO_DOCTOR, null,
+                    "No doctor assigned on " + day + "."));
+        if (nurseDay == 0 || nurseEve == 0)
+            out.add(new ComplianceViolation(day, ComplianceViolation.Rule.NURSE_COVERAGE, null,
+                    "Nurse coverage missing on " + day + " (needs DAY and EVE)."));
+        for (Map.Entry<Staff, Integer> e : nurseHours.entrySet())
+            if (e.getValue() > MAX_NURSE_HOURS)
+                out.add(new ComplianceViolation(day, ComplianceViolation.Rule.NURSE_OVER_HOURS, e.getKey(),
+                        "Nurse over 8 hours on " + day + "."));
+    }
+}
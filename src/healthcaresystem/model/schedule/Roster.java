@@ -5,8 +5,13 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 
 import healthcaresystem.exception.ComplianceException;
 import healthcaresystem.model.people.*;
@@ -16,92 +21,136 @@ public class Roster implements Serializable {
 
     private List<Shift> shifts = new ArrayList<>();
 
-    // Getters/Setters
-    public List<Shift> getShifts() { return shifts; }
-    public void setShifts(List<Shift> shifts) { this.shifts = shifts; }
+    // staff id (lower case) -> day -> that staff member's shifts; rebuilt lazily after loading
+    private transient volatile Map<String, NavigableMap<LocalDate, List<Shift>>> byStaff;
+    // day -> coverage counters, kept up to date on every add/remove so compliance is read, not recomputed
+    private transient volatile NavigableMap<LocalDate, DayCoverage> coverage;
+    // bumped on every change so cached views (e.g. session shift windows) know to refresh
+    private transient volatile long version;
+
+    // Getters/Setters (the list is read-only so the index cannot go stale)
+    public List<Shift> getShifts() { return Collections.unmodifiableList(shifts); }
+    public void setShifts(List<Shift> shifts) {
+        this.shifts = new ArrayList<>(shifts);
+        this.byStaff = null;
+        this.coverage = null;
+        version++;
+    }
+
+    public long getVersion() { return version; }
 
     // Add or remove shifts
-    public void addShift(Shift shift) { shifts.add(shift); }
-    public boolean removeShift(Shift shift) { return shifts.remove(shift); }
+    public void addShift(Shift shift) {
+        shifts.add(shift);
+        if (byStaff != null) indexShift(shift);
+        version++;
+    }
+
+    public boolean removeShift(Shift shift) {
+        if (!shifts.remove(shift)) return false;
+        version++;
+        if (byStaff != null) {
+            List<Shift> sameDay = shiftsOn(shift.getStaff(), shift.getDay());
+            sameDay.remove(shift);
+            if (sameDay.isEmpty()) byStaff.get(key(shift.getStaff())).remove(shift.getDay());
+
+            DayCoverage day = coverage.get(shift.getDay());
+            day.remove(shift);
+            if (day.isEmpty()) coverage.remove(shift.getDay());
+        }
+        return true;
+    }
+
+    // Removes every shift this staff member has on the day (used when replacing a shift)
+    public int removeShiftsFor(Staff staff, LocalDate day) {
+        List<Shift> sameDay = new ArrayList<>(shiftsOn(staff, day));
+        int removed = 0;
+        for (Shift s : sameDay)
+            if (s.getStaff() == staff && removeShift(s)) removed++;
+        return removed;
+    }
+
+    // This staff member's shifts on a day (a single map probe)
+    public List<Shift> shiftsOn(Staff staff, LocalDate day) {
+        NavigableMap<LocalDate, List<Shift>> days = index().get(key(staff));
+        List<Shift> list = days == null ? null : days.get(day);
+        return list == null ? Collections.emptyList() : list;
+    }
 
     // Check if staff is rostered at a given time
     public boolean isRostered(Staff staff, LocalDateTime at) {
         LocalTime t = at.toLocalTime();
-        return shifts.stream()
-                .filter(s -> s.getDay().equals(at.toLocalDate())
-                          && s.getStaff().getId().equalsIgnoreCase(staff.getId()))
-                .anyMatch(s -> covers(s.getType(), t));
-    }
-
-    // Helper: defines what hours each shift covers
-    private boolean covers(ShiftType type, LocalTime t) {
-        switch (type) {
-            case DAY: return !t.isBefore(LocalTime.of(8, 0)) && t.isBefore(LocalTime.of(16, 0)); // 08:00–16:00
-            case EVE: return !t.isBefore(LocalTime.of(14, 0)) && t.isBefore(LocalTime.of(22, 0)); // 14:00–22:00
-            default:  return false;
+        for (Shift s : shiftsOn(staff, at.toLocalDate()))
+            if (s.getType().covers(t)) return true;
+        return false;
+    }
+
+    private Map<String, NavigableMap<LocalDate, List<Shift>>> index() {
+        Map<String, NavigableMap<LocalDate, List<Shift>>> m = byStaff;
+        return m != null ? m : buildIndex();
+    }
+
+    // built once per load; synchronized so concurrent readers don't build it twice
+    private synchronized Map<String, NavigableMap<LocalDate, List<Shift>>> buildIndex() {
+        if (byStaff == null) {
+            Map<String, NavigableMap<LocalDate, List<Shift>>> staffIndex = new HashMap<>();
+            NavigableMap<LocalDate, DayCoverage> days = new TreeMap<>();
+            for (Shift s : shifts) indexShift(staffIndex, days, s);
+            coverage = days;
+            byStaff = staffIndex; // published last: non-null means both are ready
         }
+        return byStaff;
+    }
+
+    private void indexShift(Shift s) {
+        indexShift(byStaff, coverage, s);
+    }
+
+    private static void indexShift(Map<String, NavigableMap<LocalDate, List<Shift>>> staffIndex,
+                                   NavigableMap<LocalDate, DayCoverage> days, Shift s) {
+        staffIndex.computeIfAbsent(key(s.getStaff()), k -> new TreeMap<>())
+                  .computeIfAbsent(s.getDay(), d -> new ArrayList<>(2))
+                  .add(s);
+        days.computeIfAbsent(s.getDay(), d -> new DayCoverage()).add(s);
+    }
+
+    private static String key(Staff staff) {
+        return staff.getId().toLowerCase(Locale.ROOT);
+    }
+
+    // All rule violations between two days (inclusive), read from the live per-day counters
+    public ComplianceReport complianceReport(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) throw new IllegalArgumentException("Window ends before it starts.");
+        index();
+        List<ComplianceViolation> out = new ArrayList<>();
+        DayCoverage none = new DayCoverage();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1))
+            coverage.getOrDefault(day, none).evaluate(day, out);
+        return new ComplianceReport(from, to, out);
+    }
+
+    // The 7 days starting at the earliest scheduled shift
+    public ComplianceReport weeklyReport() {
+        if (shifts.isEmpty()) throw new ComplianceException("No shifts scheduled.");
+        index();
+        LocalDate start = coverage.firstKey();
+        return complianceReport(start, start.plusDays(6));
     }
 
     // Ensure at least one doctor is assigned for each of the next 7 days
     public void ensureDailyDoctorHour() {
-        if (shifts.isEmpty()) throw new ComplianceException("No shifts scheduled.");
-        LocalDate start = shifts.stream()
-                .map(Shift::getDay)
-                .min(Comparator.naturalOrder())
-                .orElseThrow(() -> new ComplianceException("No shift dates."));
-        for (int i = 0; i < 7; i++) {
-            LocalDate day = start.plusDays(i);
-            boolean hasDoctor = shifts.stream()
-                    .anyMatch(s -> s.getDay().equals(day) && (s.getStaff() instanceof Doctor));
-            if (!hasDoctor) throw new ComplianceException("No doctor assigned on " + day + ".");
-        }
+        weeklyReport().throwFirst(ComplianceViolation.Rule.NO_DOCTOR);
     }
 
     // Ensure nurse coverage for both DAY and EVE shifts without exceeding 8h/day
     public void ensureNurseShiftsAndHours() {
-        if (shifts.isEmpty()) throw new ComplianceException("No shifts scheduled.");
-        LocalDate start = shifts.stream()
-                .map(Shift::getDay)
-                .min(Comparator.naturalOrder())
-                .orElseThrow(() -> new ComplianceException("No shift dates."));
-        for (int i = 0; i < 7; i++) {
-            LocalDate day = start.plusDays(i);
-
-            boolean dayCovered = shifts.stream().anyMatch(s ->
-                    s.getDay().equals(day) &&
-                    s.getStaff() instanceof Nurse &&
-                    s.getType() == ShiftType.DAY);
-
-            boolean eveCovered = shifts.stream().anyMatch(s ->
-                    s.getDay().equals(day) &&
-                    s.getStaff() instanceof Nurse &&
-                    s.getType() == ShiftType.EVE);
-
-            if (!dayCovered || !eveCovered)
-                throw new ComplianceException("Nurse coverage missing on " + day + " (needs DAY and EVE).");
-
-            // No nurse should work both DAY and EVE shifts on the same day
-            shifts.stream()
-                    .filter(s -> s.getDay().equals(day) && s.getStaff() instanceof Nurse)
-                    .map(Shift::getStaff)
-                    .distinct()
-                    .forEach(nurse -> {
-                        int hours = shifts.stream()
-                                .filter(s -> s.getDay().equals(day) && s.getStaff().equals(nurse))
-                                .mapToInt(s -> s.getType() == ShiftType.DAY || s.getType() == ShiftType.EVE ? 8 : 0)
-                                .sum();
-                        if (hours > 8)
-                            throw new ComplianceException("Nurse over 8 hours on " + day + ".");
-                    });
-        }
+        weeklyReport().throwFirst(ComplianceViolation.Rule.NURSE_COVERAGE, ComplianceViolation.Rule.NURSE_OVER_HOURS);
     }
 
     // Ensures a nurse isn't double-booked for multiple 8h shifts on the same day
     public void ensureNurseDailyHoursOk(Staff staff, LocalDate day) {
         if (!(staff instanceof Nurse)) return;
-        long count = shifts.stream()
-                .filter(s -> s.getDay().equals(day) && s.getStaff().equals(staff))
-                .count();
+        long count = shiftsOn(staff, day).stream().filter(s -> s.getStaff() == staff).count();
         if (count > 1)
             throw new ComplianceException("Nurse over 8 hours on " + day + " (already has a shift).");
     }
@@ -1,16 +1,21 @@
 package healthcaresystem.model.schedule;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.time.LocalDate;
 import healthcaresystem.model.people.Staff;
+import healthcaresystem.model.people.StaffRegistry;
 
 // Represents a single work shift for a staff member
 public class Shift implements Serializable {
     private static final long serialVersionUID = 1L;
 
-    private Staff staff;      // who is assigned
-    private LocalDate day;    // which day
-    private ShiftType type;   // shift type (DAY / EVE)
+    private transient Staff staff;  // who is assigned
+    private int staffRef;           // its handle in the CareHome's StaffRegistry (0 = not bound yet)
+    private LocalDate day;          // which day
+    private ShiftType type;         // shift type (DAY / EVE)
 
     public Shift(Staff staff, LocalDate day, ShiftType type) {
         this.staff = staff;
@@ -24,7 +29,40 @@ public class Shift implements Serializable {
     public ShiftType getType() { return type; }
 
     // Setters
-    public void setStaff(Staff staff) { this.staff = staff; }
+    public void setStaff(Staff staff) { this.staff = staff; this.staffRef = 0; }
     public void setDay(LocalDate day) { this.day = day; }
     public void setType(ShiftType type) { this.type = type; }
+
+    // Before a save: takes a handle. After a load: resolves the handle to the shared Staff object.
+    public void bindStaff(StaffRegistry registry) {
+        if (staff == null) staff = registry.get(staffRef);
+        else staff = registry.get(staffRef = registry.intern(staff));
+    }
+
+    // Inside a CareHome snapshot only the handle is written (the registry holds the Staff once).
+    // A record that was never bound writes -1 and carries the object itself.
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        boolean unbound = staffRef == 0 && staff != null;
+        ObjectOutputStream.PutField f = out.putFields();
+        f.put("day", day);
+        f.put("type", type);
+        f.put("staffRef", unbound ? -1 : staffRef);
+        out.writeFields();
+        if (unbound) out.writeObject(staff);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField f = in.readFields();
+        day = (LocalDate) f.get("day", null);
+        type = (ShiftType) f.get("type", null);
+        if (f.defaulted("staffRef")) {
+            staff = (Staff) f.get("staff", null);   // older snapshot: the object itself
+            return;
+        }
+        staffRef = f.get("staffRef", 0);
+        if (staffRef < 0) {
+            staff = (Staff) in.readObject();
+            staffRef = 0;
+        }
+    }
 }
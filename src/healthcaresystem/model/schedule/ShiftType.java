@@ -1,5 +1,23 @@
 package healthcaresystem.model.schedule;
 
+import java.time.LocalTime;
+
 public enum ShiftType {
-    DAY, EVE
+    DAY(LocalTime.of(8, 0), LocalTime.of(16, 0)),    // 08:00–16:00
+    EVE(LocalTime.of(14, 0), LocalTime.of(22, 0));   // 14:00–22:00
+
+    private final LocalTime start, end;
+
+    ShiftType(LocalTime start, LocalTime end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    public LocalTime getStart() { return start; }
+    public LocalTime getEnd() { return end; }
+
+    // true if the shift covers this time of day (start inclusive, end exclusive)
+    public boolean covers(LocalTime t) {
+        return !t.isBefore(start) && t.isBefore(end);
+    }
 }
@@ -0,0 +1,497 @@
+package healthcaresystem.repo;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.zip.CRC32;
+
+import healthcaresystem.exception.PersistenceException;
+import healthcaresystem.metrics.Metrics;
+import healthcaresystem.model.audit.AuditEntry;
+import healthcaresystem.model.facility.Bed;
+import healthcaresystem.model.facility.CareHome;
+import healthcaresystem.model.facility.Room;
+import healthcaresystem.model.facility.Ward;
+import healthcaresystem.model.meds.AdministrationRecord;
+import healthcaresystem.model.meds.Prescription;
+import healthcaresystem.model.meds.PrescriptionItem;
+import healthcaresystem.model.people.*;
+import healthcaresystem.model.schedule.Shift;
+import healthcaresystem.model.schedule.ShiftType;
+
+// Compact, versioned binary snapshot of a CareHome (alternative to SerializationRepository).
+// Staff and residents are written once and referenced by number everywhere else, and each
+// section carries its own string table so it can be read on its own. loadState reads the
+// people, wards and roster straight away; prescriptions, administrations and the audit log
+// are only read the first time something asks the CareHome for them (their checksums are
+// verified at load, so a damaged file is found while an older generation can still be used).
+// Like SerializationRepository, older snapshots are kept as file.1, file.2, ...; a generation
+// that predates the binary format is read as Java serialization.
+public class BinarySnapshotRepository {
+
+    private static final int MAGIC = 0x43484231;   // "CHB1"
+    private static final short VERSION = 1;
+
+    // section ids, in file order
+    private static final int PEOPLE = 1, WARDS = 2, ROSTER = 3, PRESCRIPTIONS = 4, ADMINISTRATIONS = 5, AUDIT = 6;
+    private static final int[] SECTIONS = {PEOPLE, WARDS, ROSTER, PRESCRIPTIONS, ADMINISTRATIONS, AUDIT};
+
+    // magic, version, snapshot id, journal seq, section count, then (id, offset, length, crc) per section
+    private static final int ENTRY_BYTES = 4 + 8 + 8 + 4;
+    private static final int HEADER_BYTES = 4 + 2 + 8 + 8 + 4 + SECTIONS.length * ENTRY_BYTES;
+
+    private static final String[] ROLES = {"Manager", "Doctor", "Nurse"};
+
+    private static final int DEFAULT_GENERATIONS = 3;
+
+    private final int generations;
+    private final SerializationRepository legacy = new SerializationRepository(0);
+    private final Metrics metrics = Metrics.global();
+
+    public BinarySnapshotRepository() {
+        this(DEFAULT_GENERATIONS);
+    }
+
+    // generations = how many older snapshots to keep next to the live file
+    public BinarySnapshotRepository(int generations) {
+        this.generations = Math.max(0, generations);
+    }
+
+    // ---------- Save ----------
+    public void saveState(CareHome careHome, String file) {
+        metrics.time("repo.binary.save", () -> {
+            Path target = Paths.get(file);
+            Path tmp = Paths.get(file + ".tmp");
+            People people = People.collect(careHome);
+
+            try (FileChannel ch = FileChannel.open(tmp,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                header.putInt(MAGIC).putShort(VERSION).putLong(new Random().nextLong())
+                      .putLong(careHome.getJournalSeq()).putInt(SECTIONS.length);
+
+                ch.position(HEADER_BYTES);
+                for (int id : SECTIONS) {
+                    byte[] data = encode(id, careHome, people);
+                    CRC32 crc = new CRC32();
+                    crc.update(data);
+                    header.putInt(id).putLong(ch.position()).putLong(data.length).putInt((int) crc.getValue());
+                    ch.write(ByteBuffer.wrap(data));
+                }
+                header.flip();
+                ch.write(header, 0);
+                ch.force(true);
+            } catch (IOException e) {
+                throw new PersistenceException("Save failed: " + e.getMessage(), e);
+            }
+            try {
+                SnapshotFiles.replace(tmp, target, generations);
+            } catch (IOException e) {
+                throw new PersistenceException("Save failed: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    private byte[] encode(int section, CareHome ch, People people) throws IOException {
+        SectionWriter w = new SectionWriter();
+        switch (section) {
+            case PEOPLE -> {
+                Set<Staff> listedStaff = Collections.newSetFromMap(new IdentityHashMap<>());
+                listedStaff.addAll(ch.getStaff());
+                w.varInt(people.staff.size());
+                for (Staff s : people.staff) {
+                    int role = Arrays.asList(ROLES).indexOf(s.getClass().getSimpleName());
+                    if (role < 0) throw new PersistenceException("Save failed: unknown staff role " + s.getClass().getName());
+                    w.varInt(role);
+                    w.str(s.getId()); w.str(s.getName()); w.str(s.getUsername()); w.str(s.getPasswordHash());
+                    w.bool(listedStaff.contains(s));
+                }
+                Set<Resident> listedResidents = Collections.newSetFromMap(new IdentityHashMap<>());
+                listedResidents.addAll(ch.getResidents());
+                w.varInt(people.residents.size());
+                for (Resident r : people.residents) {
+                    w.str(r.getId()); w.str(r.getName()); w.varInt(r.getGender());
+                    w.bool(listedResidents.contains(r));
+                }
+            }
+            case WARDS -> {
+                w.varInt(ch.getWards().size());
+                for (Ward ward : ch.getWards()) {
+                    w.str(ward.getId());
+                    w.varInt(ward.getRooms().size());
+                    for (Room room : ward.getRooms()) {
+                        w.str(room.getId());
+                        w.varInt(room.getBeds().size());
+                        for (Bed b : room.getBeds()) {
+                            w.str(b.getId());
+                            w.varInt(people.residentRef(b.getOccupiedBy()));
+                        }
+                    }
+                }
+            }
+            case ROSTER -> {
+                w.varInt(ch.getRoster().getShifts().size());
+                for (Shift s : ch.getRoster().getShifts()) {
+                    w.varInt(people.staffRef(s.getStaff()));
+                    w.date(s.getDay());
+                    w.varInt(s.getType().ordinal());
+                }
+            }
+            case PRESCRIPTIONS -> {
+                w.varInt(ch.getPrescriptions().size());
+                for (Prescription p : ch.getPrescriptions()) {
+                    w.str(p.getId());
+                    w.varInt(people.residentRef(p.getPatient()));
+                    w.varInt(people.staffRef(p.getDoctor()));
+                    w.time(p.getCreatedAt());
+                    w.varInt(p.getItems().size());
+                    for (PrescriptionItem it : p.getItems()) {
+                        w.str(it.getMedicine()); w.str(it.getDose()); w.str(it.getFrequency()); w.str(it.getNotes());
+                    }
+                }
+            }
+            case ADMINISTRATIONS -> {
+                w.varInt(ch.getAdministrations().size());
+                for (AdministrationRecord a : ch.getAdministrations()) {
+                    w.str(a.getPrescriptionId()); w.str(a.getMedicine()); w.str(a.getDose());
+                    w.time(a.getTime());
+                    w.varInt(people.staffRef(a.getAdministeredBy()));
+                }
+            }
+            case AUDIT -> {
+                w.varInt(ch.getAuditLog().size());
+                for (AuditEntry e : ch.getAuditLog()) {
+                    w.time(e.getTime());
+                    w.varInt(people.staffRef(e.getActor()));
+                    w.str(e.getAction()); w.str(e.getDetails());
+                    w.bool(e.isSuccess());
+                }
+            }
+            default -> throw new IllegalStateException("Unknown section " + section);
+        }
+        return w.toBytes();
+    }
+
+    // ---------- Load ----------
+    // Newest generation that loads cleanly; a new CareHome if there is no file at all
+    public CareHome loadState(String file) {
+        return metrics.time("repo.binary.load", () -> {
+            PersistenceException firstError = null;
+            boolean anyFound = false;
+            for (int gen = 0; gen <= generations; gen++) {
+                String name = SnapshotFiles.generationName(file, gen);
+                if (!Files.exists(Paths.get(name))) continue;
+                anyFound = true;
+                try {
+                    return isBinarySnapshot(name) ? load(Paths.get(name)) : legacy.loadState(name);
+                } catch (PersistenceException e) {
+                    if (firstError == null) firstError = e;
+                }
+            }
+            if (!anyFound) return new CareHome();
+            throw firstError;
+        });
+    }
+
+    // Reads people, wards and roster now; history sections are deferred until first use
+    private CareHome load(Path path) {
+        Header h = readHeader(path);
+        for (int id : new int[] {PRESCRIPTIONS, ADMINISTRATIONS, AUDIT}) verifySection(path, h, id);
+        SectionReader peopleIn = readSection(path, h, PEOPLE);
+
+        CareHome ch = new CareHome();
+        ch.setJournalSeq(h.journalSeq);
+
+        Staff[] staff = new Staff[peopleIn.varInt()];
+        for (int i = 0; i < staff.length; i++) {
+            String role = ROLES[peopleIn.varInt()];
+            String id = peopleIn.str(), name = peopleIn.str(), username = peopleIn.str();
+            Staff s = switch (role) {
+                case "Manager" -> new Manager(id, name, username);
+                case "Doctor"  -> new Doctor(id, name, username);
+                default        -> new Nurse(id, name, username);
+            };
+            s.setPasswordHash(peopleIn.str());
+            if (peopleIn.bool()) ch.getStaff().add(s);
+            staff[i] = s;
+        }
+        Resident[] residents = new Resident[peopleIn.varInt()];
+        for (int i = 0; i < residents.length; i++) {
+            Resident r = new Resident(peopleIn.str(), peopleIn.str(), (char) peopleIn.varInt());
+            if (peopleIn.bool()) ch.getResidents().add(r);
+            residents[i] = r;
+        }
+
+        SectionReader in = readSection(path, h, WARDS);
+        for (int wi = in.varInt(); wi > 0; wi--) {
+            Ward ward = new Ward(in.str());
+            for (int ri = in.varInt(); ri > 0; ri--) {
+                Room room = new Room(in.str());
+                for (int bi = in.varInt(); bi > 0; bi--) {
+                    Bed b = new Bed(in.str());
+                    b.setOccupiedBy(ref(residents, in.varInt()));
+                    room.getBeds().add(b);
+                }
+                ward.getRooms().add(room);
+            }
+            ch.getWards().add(ward);
+        }
+
+        in = readSection(path, h, ROSTER);
+        for (int n = in.varInt(); n > 0; n--) {
+            Staff s = ref(staff, in.varInt());
+            LocalDate day = in.date();
+            ch.getRoster().addShift(new Shift(s, day, ShiftType.values()[in.varInt()]));
+        }
+
+        ch.defer(CareHome.SECTION_PRESCRIPTIONS, () -> {
+            SectionReader r = readSection(path, h, PRESCRIPTIONS);
+            List<Prescription> list = ch.getPrescriptions();
+            for (int n = r.varInt(); n > 0; n--) {
+                String id = r.str();
+                Resident patient = ref(residents, r.varInt());
+                Doctor doctor = (Doctor) ref(staff, r.varInt());
+                Prescription p = new Prescription(id, patient, doctor, r.time());
+                for (int k = r.varInt(); k > 0; k--) p.addItem(new PrescriptionItem(r.str(), r.str(), r.str(), r.str()));
+                list.add(p);
+            }
+        });
+        ch.defer(CareHome.SECTION_ADMINISTRATIONS, () -> {
+            SectionReader r = readSection(path, h, ADMINISTRATIONS);
+            List<AdministrationRecord> list = ch.getAdministrations();
+            for (int n = r.varInt(); n > 0; n--) {
+                String rxId = r.str(), med = r.str(), dose = r.str();
+                LocalDateTime time = r.time();
+                list.add(new AdministrationRecord(rxId, med, dose, ref(staff, r.varInt()), time));
+            }
+        });
+        ch.defer(CareHome.SECTION_AUDIT, () -> {
+            SectionReader r = readSection(path, h, AUDIT);
+            List<AuditEntry> list = ch.getAuditLog();
+            for (int n = r.varInt(); n > 0; n--) {
+                LocalDateTime time = r.time();
+                Staff actor = ref(staff, r.varInt());
+                list.add(new AuditEntry(time, actor, r.str(), r.str(), r.bool()));
+            }
+        });
+        ch.bindStaff();   // roster now; each history section when it is read
+        return ch;
+    }
+
+    // true if `file` exists and starts with this format's magic (older files are Java serialization)
+    public static boolean isBinarySnapshot(String file) {
+        Path path = Paths.get(file);
+        if (!Files.exists(path)) return false;
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+            return in.readInt() == MAGIC;
+        } catch (EOFException e) {
+            return false;
+        } catch (IOException e) {
+            throw new PersistenceException("Load failed: " + e.getMessage(), e);
+        }
+    }
+
+    private static <T> T ref(T[] table, int ref) {
+        return ref == 0 ? null : table[ref - 1];
+    }
+
+    private Header readHeader(Path path) {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES);
+            while (buf.hasRemaining() && ch.read(buf) >= 0) { }
+            buf.flip();
+            if (buf.remaining() < HEADER_BYTES || buf.getInt() != MAGIC)
+                throw new PersistenceException("Load failed: " + path + " is not a binary snapshot.");
+            short version = buf.getShort();
+            if (version != VERSION)
+                throw new PersistenceException("Load failed: unsupported snapshot version " + version);
+
+            Header h = new Header();
+            h.snapshotId = buf.getLong();
+            h.journalSeq = buf.getLong();
+            for (int n = buf.getInt(); n > 0; n--) {
+                int id = buf.getInt();
+                h.sections.put(id, new long[] {buf.getLong(), buf.getLong(), buf.getInt() & 0xFFFFFFFFL});
+            }
+            return h;
+        } catch (IOException e) {
+            throw new PersistenceException("Load failed: " + e.getMessage(), e);
+        }
+    }
+
+    // reads one section; deferred reads re-check that the file is still the same snapshot
+    private SectionReader readSection(Path path, Header h, int id) {
+        long[] entry = h.sections.get(id);
+        if (entry == null) throw new PersistenceException("Load failed: snapshot has no section " + id);
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer idBuf = ByteBuffer.allocate(8);
+            ch.read(idBuf, 6);
+            if (idBuf.flip().getLong() != h.snapshotId)
+                throw new PersistenceException("Load failed: " + path + " was replaced before its history was read.");
+
+            ByteBuffer buf = ByteBuffer.allocate((int) entry[1]);
+            long pos = entry[0];
+            while (buf.hasRemaining()) {
+                int n = ch.read(buf, pos);
+                if (n < 0) throw new EOFException("section " + id + " is truncated");
+                pos += n;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buf.array());
+            if (crc.getValue() != entry[2])
+                throw new PersistenceException("Load failed: checksum mismatch in section " + id);
+            return new SectionReader(buf.array());
+        } catch (IOException e) {
+            throw new PersistenceException("Load failed: " + e.getMessage(), e);
+        }
+    }
+
+    // checks a deferred section's checksum without decoding (or holding) it
+    private void verifySection(Path path, Header h, int id) {
+        long[] entry = h.sections.get(id);
+        if (entry == null) throw new PersistenceException("Load failed: snapshot has no section " + id);
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            CRC32 crc = new CRC32();
+            ByteBuffer buf = ByteBuffer.allocate(64 * 1024);
+            long pos = entry[0], end = entry[0] + entry[1];
+            while (pos < end) {
+                buf.clear().limit((int) Math.min(buf.capacity(), end - pos));
+                int n = ch.read(buf, pos);
+                if (n < 0) throw new EOFException("section " + id + " is truncated");
+                buf.flip();
+                crc.update(buf);
+                pos += n;
+            }
+            if (crc.getValue() != entry[2])
+                throw new PersistenceException("Load failed: checksum mismatch in section " + id);
+        } catch (IOException e) {
+            throw new PersistenceException("Load failed: " + e.getMessage(), e);
+        }
+    }
+
+    private static final class Header {
+        long snapshotId;
+        long journalSeq;
+        final Map<Integer, long[]> sections = new HashMap<>(); // id -> {offset, length, crc}
+    }
+
+    // ---------- people tables ----------
+    // every distinct staff member / resident, in list order first, then any only referenced from records
+    private static final class People {
+        final List<Staff> staff = new ArrayList<>();
+        final List<Resident> residents = new ArrayList<>();
+        private final Map<Staff, Integer> staffRefs = new IdentityHashMap<>();
+        private final Map<Resident, Integer> residentRefs = new IdentityHashMap<>();
+
+        static People collect(CareHome ch) {
+            People p = new People();
+            ch.getStaff().forEach(p::addStaff);
+            ch.getResidents().forEach(p::addResident);
+            for (Ward w : ch.getWards())
+                for (Room r : w.getRooms())
+                    for (Bed b : r.getBeds()) p.addResident(b.getOccupiedBy());
+            ch.getRoster().getShifts().forEach(s -> p.addStaff(s.getStaff()));
+            for (Prescription rx : ch.getPrescriptions()) { p.addResident(rx.getPatient()); p.addStaff(rx.getDoctor()); }
+            ch.getAdministrations().forEach(a -> p.addStaff(a.getAdministeredBy()));
+            ch.getAuditLog().forEach(e -> p.addStaff(e.getActor()));
+            return p;
+        }
+
+        private void addStaff(Staff s) {
+            if (s != null && staffRefs.putIfAbsent(s, staff.size() + 1) == null) staff.add(s);
+        }
+
+        private void addResident(Resident r) {
+            if (r != null && residentRefs.putIfAbsent(r, residents.size() + 1) == null) residents.add(r);
+        }
+
+        int staffRef(Staff s) { return s == null ? 0 : staffRefs.get(s); }
+        int residentRef(Resident r) { return r == null ? 0 : residentRefs.get(r); }
+    }
+
+    // ---------- section encoding ----------
+    // section = [string count][strings...][body]; strings in the body are table indexes (0 = null)
+    private static final class SectionWriter {
+        private final Map<String, Integer> strings = new LinkedHashMap<>();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream body = new DataOutputStream(bytes);
+
+        void str(String s) throws IOException {
+            if (s == null) { varInt(0); return; }
+            Integer ref = strings.get(s);
+            if (ref == null) { ref = strings.size() + 1; strings.put(s, ref); }
+            varInt(ref);
+        }
+
+        void bool(boolean b) throws IOException { body.writeBoolean(b); }
+        void date(LocalDate d) throws IOException { varLong(d.toEpochDay()); }
+
+        void time(LocalDateTime t) throws IOException {
+            varLong(t.toEpochSecond(ZoneOffset.UTC));
+            varInt(t.getNano());
+        }
+
+        void varInt(int v) throws IOException { varLong(v & 0xFFFFFFFFL); }
+
+        void varLong(long v) throws IOException {
+            while ((v & ~0x7FL) != 0) {
+                body.writeByte((int) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            body.writeByte((int) v);
+        }
+
+        byte[] toBytes() throws IOException {
+            ByteArrayOutputStream all = new ByteArrayOutputStream(bytes.size() + strings.size() * 8);
+            DataOutputStream out = new DataOutputStream(all);
+            out.writeInt(strings.size());
+            for (String s : strings.keySet()) out.writeUTF(s);
+            bytes.writeTo(out);
+            return all.toByteArray();
+        }
+    }
+
+    private static final class SectionReader {
+        private final DataInputStream in;
+        private final String[] strings;
+
+        SectionReader(byte[] data) throws IOException {
+            in = new DataInputStream(new ByteArrayInputStream(data));
+            strings = new String[in.readInt()];
+            for (int i = 0; i < strings.length; i++) strings[i] = in.readUTF();
+        }
+
+        String str() { int ref = varInt(); return ref == 0 ? null : strings[ref - 1]; }
+        boolean bool() { return read() != 0; }
+        LocalDate date() { return LocalDate.ofEpochDay(varLong()); }
+
+        LocalDateTime time() {
+            long seconds = varLong();
+            return LocalDateTime.ofEpochSecond(seconds, varInt(), ZoneOffset.UTC);
+        }
+
+        int varInt() { return (int) varLong(); }
+
+        long varLong() {
+            long v = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = read();
+                v |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return v;
+            }
+        }
+
+        private int read() {
+            try {
+                return in.readUnsignedByte();
+            } catch (IOException e) {
+                throw new PersistenceException("Load failed: section is truncated.", e);
+            }
+        }
+    }
+}
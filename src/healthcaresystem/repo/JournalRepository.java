@@ -0,0 +1,296 @@
+package healthcaresystem.repo;
+
+import java.io.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import healthcaresystem.exception.PersistenceException;
+import healthcaresystem.metrics.Metrics;
+import healthcaresystem.model.audit.AuditEntry;
+import healthcaresystem.model.facility.Bed;
+import healthcaresystem.model.facility.CareHome;
+import healthcaresystem.model.facility.Room;
+import healthcaresystem.model.facility.Ward;
+import healthcaresystem.model.meds.AdministrationRecord;
+import healthcaresystem.model.meds.Prescription;
+import healthcaresystem.model.meds.PrescriptionItem;
+import healthcaresystem.model.people.*;
+import healthcaresystem.model.schedule.Shift;
+import healthcaresystem.model.schedule.ShiftType;
+import healthcaresystem.service.ChangeLog;
+
+// Write-ahead journal on top of the snapshot file.
+// Each change is appended as a small framed record; a checkpoint writes a full
+// snapshot and empties the journal. Loading = snapshot + replay of the tail.
+// Snapshots are written in the binary format, keeping older generations; a Java-serialized
+// carehome.dat from an older version is still read, and replaced by a binary one at the next checkpoint.
+public class JournalRepository implements ChangeLog {
+
+    private static final int DEFAULT_CHECKPOINT_EVERY = 500;
+
+    private final BinarySnapshotRepository snapshots = new BinarySnapshotRepository();
+    private final String snapshotFile;
+    private final File journalFile;
+    private final int checkpointEvery;
+    private final Metrics metrics = Metrics.global();
+
+    private CareHome careHome;
+    private DataOutputStream out;
+    private long seq;              // last sequence number written
+    private int sinceCheckpoint;   // records appended since the last snapshot
+
+    public JournalRepository(String snapshotFile) {
+        this(snapshotFile, DEFAULT_CHECKPOINT_EVERY);
+    }
+
+    public JournalRepository(String snapshotFile, int checkpointEvery) {
+        this.snapshotFile = snapshotFile;
+        this.journalFile = new File(snapshotFile + ".journal");
+        this.checkpointEvery = Math.max(1, checkpointEvery);
+    }
+
+    // Loads the latest snapshot, replays newer journal records and opens the journal for appends
+    public synchronized CareHome load() {
+        return metrics.time("repo.journal.load", () -> {
+            careHome = snapshots.loadState(snapshotFile);
+            seq = careHome.getJournalSeq();
+
+            if (journalFile.length() > 0) {   // empty after every checkpoint: nothing to replay
+                long validLength = replay(careHome);
+                // drop a half-written record left behind by a crash
+                if (validLength < journalFile.length()) {
+                    try (RandomAccessFile raf = new RandomAccessFile(journalFile, "rw")) {
+                        raf.setLength(validLength);
+                    } catch (IOException e) {
+                        throw new PersistenceException("Journal repair failed: " + e.getMessage(), e);
+                    }
+                }
+            }
+            openJournal(true);
+            // plaintext passwords from older files are hashed once, here, and journaled like a change
+            for (Staff s : careHome.getStaff()) {
+                if (!s.needsRehash()) continue;
+                s.setPassword(s.getPasswordHash());
+                record("PASSWORD", s.getId(), s.getPasswordHash());
+            }
+            return careHome;
+        });
+    }
+
+    // Appends one record; every checkpointEvery records the journal is compacted into a snapshot
+    @Override
+    public synchronized void record(String op, String... args) {
+        metrics.time("repo.journal.record", () -> {
+            if (out == null) return; // not loaded yet, nothing to journal against
+            try {
+                ByteArrayOutputStream buf = new ByteArrayOutputStream(64);
+                DataOutputStream rec = new DataOutputStream(buf);
+                rec.writeLong(seq + 1);
+                rec.writeUTF(op);
+                rec.writeShort(args.length);
+                for (String a : args) {
+                    rec.writeBoolean(a != null);
+                    if (a != null) rec.writeUTF(a);
+                }
+                byte[] body = buf.toByteArray();
+
+                CRC32 crc = new CRC32();
+                crc.update(body);
+                out.writeInt(body.length);
+                out.write(body);
+                out.writeInt((int) crc.getValue());
+                out.flush();
+                seq++;
+            } catch (IOException e) {
+                throw new PersistenceException("Journal append failed: " + e.getMessage(), e);
+            }
+            if (++sinceCheckpoint >= checkpointEvery) checkpoint();
+        });
+    }
+
+    // Writes a full snapshot and starts an empty journal
+    public synchronized void checkpoint() {
+        metrics.time("repo.journal.checkpoint", () -> {
+            if (careHome == null) return;
+            careHome.setJournalSeq(seq);
+            snapshots.saveState(careHome, snapshotFile);
+            // records up to seq are now in the snapshot; a crash before the truncate just replays nothing new
+            closeJournal();
+            openJournal(false);
+            sinceCheckpoint = 0;
+        });
+    }
+
+    public synchronized void close() {
+        closeJournal();
+    }
+
+    // ---------- journal file ----------
+    private void openJournal(boolean append) {
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(journalFile, append)));
+        } catch (IOException e) {
+            throw new PersistenceException("Cannot open journal: " + e.getMessage(), e);
+        }
+    }
+
+    private void closeJournal() {
+        if (out == null) return;
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new PersistenceException("Cannot close journal: " + e.getMessage(), e);
+        } finally {
+            out = null;
+        }
+    }
+
+    // Applies every intact record newer than the snapshot; returns the length of the intact prefix
+    private long replay(CareHome ch) {
+        Lookup lookup = new Lookup(ch);
+        long valid = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)))) {
+            while (true) {
+                byte[] body;
+                int storedCrc;
+                try {
+                    int len = in.readInt();
+                    if (len < 0 || len > (1 << 24)) break;
+                    body = new byte[len];
+                    in.readFully(body);
+                    storedCrc = in.readInt();
+                } catch (EOFException torn) {
+                    break;
+                }
+                CRC32 crc = new CRC32();
+                crc.update(body);
+                if ((int) crc.getValue() != storedCrc) break;
+
+                DataInputStream rec = new DataInputStream(new ByteArrayInputStream(body));
+                long recSeq = rec.readLong();
+                String op = rec.readUTF();
+                String[] args = new String[rec.readShort()];
+                for (int i = 0; i < args.length; i++) args[i] = rec.readBoolean() ? rec.readUTF() : null;
+
+                if (recSeq > seq) {
+                    apply(ch, lookup, op, args);
+                    seq = recSeq;
+                }
+                valid += 4 + body.length + 4;
+            }
+        } catch (IOException e) {
+            throw new PersistenceException("Journal replay failed: " + e.getMessage(), e);
+        }
+        return valid;
+    }
+
+    // Re-applies one record directly to the model (no auth checks, no new audit entries)
+    private void apply(CareHome ch, Lookup l, String op, String[] a) {
+        switch (op) {
+            case "WARD" -> {
+                Ward w = new Ward(a[0]);
+                for (int i = 1; i + 1 < a.length; i += 2) {
+                    Room room = new Room(a[i]);
+                    for (String bedId : a[i + 1].split(",")) {
+                        Bed b = new Bed(bedId);
+                        room.getBeds().add(b);
+                        l.beds.put(bedId, b);
+                    }
+                    w.getRooms().add(room);
+                }
+                ch.getWards().add(w);
+            }
+            case "STAFF" -> {
+                Staff s = switch (a[0]) {
+                    case "Manager" -> new Manager(a[1], a[2], a[3]);
+                    case "Doctor"  -> new Doctor(a[1], a[2], a[3]);
+                    case "Nurse"   -> new Nurse(a[1], a[2], a[3]);
+                    default -> throw new PersistenceException("Unknown staff role in journal: " + a[0]);
+                };
+                s.setPasswordHash(a[4]);
+                ch.getStaff().add(s);
+                l.staff.put(s.getId(), s);
+            }
+            case "PASSWORD" -> l.staff(a[0]).setPasswordHash(a[1]);
+            case "RESIDENT" -> {
+                Resident r = new Resident(a[0], a[1], a[2].charAt(0));
+                ch.getResidents().add(r);
+                l.residents.put(r.getId(), r);
+            }
+            case "OCCUPY" -> l.bed(a[0]).setOccupiedBy(l.resident(a[1]));
+            case "MOVE" -> {
+                Bed from = l.bed(a[0]);
+                l.bed(a[1]).setOccupiedBy(from.getOccupiedBy());
+                from.setOccupiedBy(null);
+            }
+            case "SHIFT" -> {
+                Staff s = l.staff(a[0]);
+                LocalDate day = LocalDate.parse(a[1]);
+                if ("REPLACE".equals(a[3]))
+                    ch.getRoster().removeShiftsFor(s, day);
+                ch.getRoster().addShift(new Shift(s, day, ShiftType.valueOf(a[2])));
+            }
+            case "RX" -> {
+                Prescription p = new Prescription(a[0], l.resident(a[1]), (Doctor) l.staff(a[2]),
+                        LocalDateTime.parse(a[3]));
+                for (int i = 4; i + 3 < a.length; i += 4) p.addItem(item(a, i));
+                ch.getPrescriptions().add(p);
+                l.rx().putIfAbsent(p.getId(), p);
+            }
+            case "RX_ITEM_ADD" -> l.rx(a[0]).addItem(item(a, 1));
+            case "RX_ITEM_SET" -> l.rx(a[0]).getItems().set(Integer.parseInt(a[1]), item(a, 2));
+            case "RX_ITEM_REMOVE" -> l.rx(a[0]).getItems().remove(Integer.parseInt(a[1]));
+            case "DOSE" -> ch.getAdministrations().add(new AdministrationRecord(
+                    a[0], a[1], a[2], l.staff(a[4]), LocalDateTime.parse(a[3])));
+            case "AUDIT" -> ch.getAuditLog().add(new AuditEntry(
+                    LocalDateTime.parse(a[0]), a[1] == null ? null : l.staff.get(a[1]), a[2], a[3], Boolean.parseBoolean(a[4])));
+            default -> throw new PersistenceException("Unknown journal record: " + op);
+        }
+    }
+
+    private static PrescriptionItem item(String[] a, int from) {
+        return new PrescriptionItem(a[from], a[from + 1], a[from + 2], a[from + 3]);
+    }
+
+    // id -> object maps used while replaying (ids are written exactly as the service saw them).
+    // Prescriptions are mapped on the first RX_* record, so a tail without any leaves a lazily
+    // loaded snapshot's prescription section unread.
+    private static final class Lookup {
+        final CareHome ch;
+        final Map<String, Bed> beds = new HashMap<>();
+        final Map<String, Staff> staff = new HashMap<>();
+        final Map<String, Resident> residents = new HashMap<>();
+        private Map<String, Prescription> rx;
+
+        Lookup(CareHome ch) {
+            this.ch = ch;
+            for (Ward w : ch.getWards())
+                for (Room r : w.getRooms())
+                    for (Bed b : r.getBeds()) beds.put(b.getId(), b);
+            for (Staff s : ch.getStaff()) staff.putIfAbsent(s.getId(), s);
+            for (Resident r : ch.getResidents()) residents.putIfAbsent(r.getId(), r);
+        }
+
+        Map<String, Prescription> rx() {
+            if (rx == null) {
+                rx = new HashMap<>();
+                for (Prescription p : ch.getPrescriptions()) rx.putIfAbsent(p.getId(), p);
+            }
+            return rx;
+        }
+
+        Bed bed(String id) { return require(beds, id, "bed"); }
+        Staff staff(String id) { return require(staff, id, "staff"); }
+        Resident resident(String id) { return require(residents, id, "resident"); }
+        Prescription rx(String id) { return require(rx(), id, "prescription"); }
+
+        private static <T> T require(Map<String, T> m, String id, String what) {
+            T v = m.get(id);
+            if (v == null) throw new PersistenceException("Journal refers to unknown " + what + ": " + id);
+            return v;
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package healthcaresystem.repo;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+import healthcaresystem.exception.PersistenceException;
+import healthcaresystem.model.audit.AuditEntry;
+import healthcaresystem.model.facility.CareHome;
+import healthcaresystem.model.people.Staff;
+import healthcaresystem.service.AuditStore;
+
+// Append-only audit trail in memory-mapped segment files, outside the CareHome snapshot.
+//   audit-NNNNNN.seg     : header (magic, layout, record count) + fixed 32-byte records
+//   audit-NNNNNN.details : that segment's length-prefixed UTF-8 detail strings, addressed by offset
+//   audit.names          : dictionary of actor ids and action codes (records hold its numbers)
+//   audit.starts         : position of each segment's first record, appended as segments start
+// A full segment is closed and a new one (with its own details file) started. Positions come from
+// audit.starts rather than from counting the older segments, so closed segments and their details
+// can be archived or removed together: positions stay the same and reads stop where the trail
+// now begins (firstPosition). Readers map one segment at a time.
+// Segments written before details were split (layout 0) point into one shared audit.details.
+public class MappedAuditStore implements AuditStore {
+
+    private static final int MAGIC = 0x41554431;   // "AUD1"
+    private static final int HEADER_BYTES = 16;     // magic, layout, record count
+    private static final int LAYOUT_AT = 4;
+    private static final int COUNT_AT = 8;
+    private static final int SHARED_DETAILS = 0, SEGMENT_DETAILS = 1;
+
+    // epoch millis, actor ref, action code, details offset, success, padding
+    static final int RECORD_BYTES = 8 + 4 + 4 + 8 + 1 + 7;
+    private static final int DEFAULT_RECORDS_PER_SEGMENT = 1 << 16;
+
+    private final Path dir;
+    private final CareHome careHome;          // resolves actor ids back to Staff
+    private final int recordsPerSegment;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> nameCodes = new HashMap<>();
+    private final Map<String, Staff> staffById = new HashMap<>();
+    private DataOutputStream namesOut;
+    private DataOutputStream startsOut;
+    private FileChannel details;              // details of the segment being written
+    private FileChannel sharedDetails;        // audit.details of older stores (opened when first read)
+    private int readDetailsSegment;           // older segment whose details file is open for reading
+    private FileChannel readDetails;
+
+    private int segmentNo;                // number of the segment being written
+    private MappedByteBuffer segment;     // its mapping
+    private long count;                   // total records across all segments
+    private final List<Long> segmentStarts = new ArrayList<>();  // position of each segment's first record
+    private int firstSegment;             // oldest segment still on disk
+    private int lastReadSegment;          // older segment mapped by the last get(), kept for the next one
+    private ByteBuffer lastRead;
+
+    public MappedAuditStore(String dir, CareHome careHome) {
+        this(dir, careHome, DEFAULT_RECORDS_PER_SEGMENT);
+    }
+
+    public MappedAuditStore(String dir, CareHome careHome, int recordsPerSegment) {
+        this.dir = Paths.get(dir);
+        this.careHome = careHome;
+        this.recordsPerSegment = Math.max(1, recordsPerSegment);
+        open();
+    }
+
+    private void open() {
+        try {
+            Files.createDirectories(dir);
+
+            Path namesFile = dir.resolve("audit.names");
+            if (Files.exists(namesFile)) {
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(namesFile)))) {
+                    while (true) {
+                        String n;
+                        try { n = in.readUTF(); } catch (EOFException end) { break; }
+                        nameCodes.put(n, names.size());
+                        names.add(n);
+                    }
+                }
+            }
+            namesOut = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(namesFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+
+            segmentNo = Math.max(1, lastSegmentNo());
+            firstSegment = segmentNo;
+            while (firstSegment > 1 && Files.exists(segmentPath(firstSegment - 1))) firstSegment--;
+
+            Path startsFile = dir.resolve("audit.starts");
+            if (Files.exists(startsFile)) {
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(startsFile)))) {
+                    while (segmentStarts.size() < segmentNo) {
+                        try { segmentStarts.add(in.readLong()); } catch (EOFException end) { break; }
+                    }
+                }
+            }
+            startsOut = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(startsFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+            // stores from before audit.starts, or a crash between starting a segment and recording it:
+            // the missing starts are counted from segments that are necessarily still here
+            for (int n = segmentStarts.size() + 1; n <= segmentNo; n++) {
+                long start = (n == 1) ? 0 : segmentStarts.get(n - 2) + recordsIn(n - 1);
+                segmentStarts.add(start);
+                startsOut.writeLong(start);
+            }
+            startsOut.flush();
+
+            segment = map(segmentNo, FileChannel.MapMode.READ_WRITE);
+            count = segmentStarts.get(segmentNo - 1) + segment.getLong(COUNT_AT);
+            details = openDetailsForWrite();
+        } catch (IOException e) {
+            throw new PersistenceException("Cannot open audit store: " + e.getMessage(), e);
+        }
+    }
+
+    // ---------- writing ----------
+    @Override
+    public synchronized void append(AuditEntry e) {
+        try {
+            long inSegment = segment.getLong(COUNT_AT);
+            if (inSegment == recordsPerSegment) {
+                segment.force();
+                details.force(false);
+                details.close();
+                segmentNo++;
+                segment = map(segmentNo, FileChannel.MapMode.READ_WRITE);
+                details = openDetailsForWrite();
+                segmentStarts.add(count);
+                startsOut.writeLong(count);
+                startsOut.flush();
+                inSegment = 0;
+            }
+
+            long detailsAt = details.position();
+            byte[] text = e.getDetails() == null ? null : e.getDetails().getBytes(StandardCharsets.UTF_8);
+            ByteBuffer d = ByteBuffer.allocate(4 + (text == null ? 0 : text.length));
+            d.putInt(text == null ? -1 : text.length);
+            if (text != null) d.put(text);
+            d.flip();
+            while (d.hasRemaining()) details.write(d);
+
+            int at = HEADER_BYTES + (int) inSegment * RECORD_BYTES;
+            segment.putLong(at, e.getTime().atZone(zone).toInstant().toEpochMilli());
+            segment.putInt(at + 8, e.getActor() == null ? -1 : code(e.getActor().getId()));
+            segment.putInt(at + 12, code(e.getAction()));
+            segment.putLong(at + 16, detailsAt);
+            segment.put(at + 24, (byte) (e.isSuccess() ? 1 : 0));
+            // the details are forced and the count bumped last, so a counted record never points
+            // past the end of its details file, and a crash mid-record leaves it uncounted
+            details.force(false);
+            segment.putLong(COUNT_AT, inSegment + 1);
+            count++;
+        } catch (IOException ex) {
+            throw new PersistenceException("Audit append failed: " + ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public synchronized long size() { return count; }
+
+    @Override
+    public synchronized long firstPosition() { return segmentStarts.get(firstSegment - 1); }
+
+    @Override
+    public synchronized void flush() {
+        try {
+            segment.force();
+            details.force(false);
+            namesOut.flush();
+            startsOut.flush();
+        } catch (IOException e) {
+            throw new PersistenceException("Audit flush failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        flush();
+        try {
+            namesOut.close();
+            startsOut.close();
+            details.close();
+            if (readDetails != null) readDetails.close();
+            if (sharedDetails != null) sharedDetails.close();
+        } catch (IOException e) {
+            throw new PersistenceException("Cannot close audit store: " + e.getMessage(), e);
+        }
+    }
+
+    // ---------- reading ----------
+    // One record by position; an index-driven query reads a handful of records from the same few segments
+    @Override
+    public synchronized AuditEntry get(long position) {
+        if (position < firstPosition() || position >= count) throw new IllegalArgumentException("No audit entry at " + position);
+        int seg = segmentOf(position);
+        ByteBuffer buf;
+        if (seg == segmentNo) {
+            buf = segment;
+        } else {
+            if (seg != lastReadSegment) {
+                lastRead = mapQuietly(seg);
+                lastReadSegment = seg;
+            }
+            buf = lastRead;
+        }
+        return read(seg, buf, (int) (position - segmentStarts.get(seg - 1)));
+    }
+
+    // number of the segment holding a position
+    private int segmentOf(long position) {
+        int found = Collections.binarySearch(segmentStarts, position);
+        return (found >= 0 ? found : -found - 2) + 1;
+    }
+
+    // Newest first; segments are mapped (not copied onto the heap) one at a time as the walk reaches them.
+    // The walk starts in the segment holding position before - 1, found from the segment start positions.
+    @Override
+    public synchronized Iterator<AuditEntry> newestFirst(long before) {
+        long first = Math.min(before, count) - 1;
+        if (first < firstPosition()) return Collections.emptyIterator();
+        final int startSegment = segmentOf(first);
+        final ByteBuffer startBuf = (startSegment == segmentNo) ? segment.duplicate() : mapQuietly(startSegment);
+        final long startIndex = first - segmentStarts.get(startSegment - 1);
+
+        return new Iterator<>() {
+            int seg = startSegment;
+            ByteBuffer buf = startBuf;
+            long next = startIndex;   // record index inside seg
+
+            public boolean hasNext() {
+                while (next < 0 && seg > firstSegment) {
+                    seg--;
+                    buf = mapQuietly(seg);
+                    next = buf.getLong(COUNT_AT) - 1;
+                }
+                return next >= 0;
+            }
+
+            public AuditEntry next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return read(seg, buf, (int) next--);
+            }
+        };
+    }
+
+    private AuditEntry read(int seg, ByteBuffer buf, int index) {
+        int at = HEADER_BYTES + index * RECORD_BYTES;
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(buf.getLong(at)), zone);
+        int actorRef = buf.getInt(at + 8);
+        String action = name(buf.getInt(at + 12));
+        String text = details(seg, buf.getInt(LAYOUT_AT), buf.getLong(at + 16));
+        boolean success = buf.get(at + 24) == 1;
+        return new AuditEntry(time, actorRef < 0 ? null : staff(name(actorRef)), action, text, success);
+    }
+
+    private synchronized String details(int seg, int layout, long offset) {
+        try {
+            FileChannel details = detailsForRead(seg, layout);
+            ByteBuffer len = ByteBuffer.allocate(4);
+            details.read(len, offset);
+            int n = len.flip().getInt();
+            if (n < 0) return null;
+            ByteBuffer text = ByteBuffer.allocate(n);
+            while (text.hasRemaining() && details.read(text, offset + 4 + text.position()) > 0) { }
+            return new String(text.array(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new PersistenceException("Audit read failed: " + e.getMessage(), e);
+        }
+    }
+
+    // actor ids are resolved against the care home's staff list (re-read on a miss)
+    private synchronized Staff staff(String id) {
+        Staff s = staffById.get(id);
+        if (s == null) {
+            for (Staff x : careHome.getStaff()) staffById.putIfAbsent(x.getId(), x);
+            s = staffById.get(id);
+        }
+        return s;
+    }
+
+    // ---------- dictionary / segment files ----------
+    private synchronized int code(String name) throws IOException {
+        Integer c = nameCodes.get(name);
+        if (c != null) return c;
+        namesOut.writeUTF(name);
+        namesOut.flush();
+        nameCodes.put(name, names.size());
+        names.add(name);
+        return names.size() - 1;
+    }
+
+    private synchronized String name(int code) {
+        return names.get(code);
+    }
+
+    private Path segmentPath(int n) {
+        return dir.resolve(String.format("audit-%06d.seg", n));
+    }
+
+    private Path detailsPath(int n) {
+        return dir.resolve(String.format("audit-%06d.details", n));
+    }
+
+    // the current segment's details file (the shared one if the segment predates the split)
+    private FileChannel openDetailsForWrite() throws IOException {
+        Path file = segment.getInt(LAYOUT_AT) == SEGMENT_DETAILS ? detailsPath(segmentNo) : dir.resolve("audit.details");
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ch.position(ch.size());
+        return ch;
+    }
+
+    private FileChannel detailsForRead(int seg, int layout) throws IOException {
+        if (seg == segmentNo) return details;
+        if (layout == SHARED_DETAILS) {
+            if (sharedDetails == null) sharedDetails = FileChannel.open(dir.resolve("audit.details"), StandardOpenOption.READ);
+            return sharedDetails;
+        }
+        if (readDetails == null || readDetailsSegment != seg) {
+            if (readDetails != null) readDetails.close();
+            readDetails = FileChannel.open(detailsPath(seg), StandardOpenOption.READ);
+            readDetailsSegment = seg;
+        }
+        return readDetails;
+    }
+
+    private int lastSegmentNo() throws IOException {
+        int last = 0;
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "audit-*.seg")) {
+            for (Path p : ds) {
+                String f = p.getFileName().toString();
+                last = Math.max(last, Integer.parseInt(f.substring(6, f.length() - 4)));
+            }
+        }
+        return last;
+    }
+
+    private long recordsIn(int n) throws IOException {
+        try (FileChannel ch = FileChannel.open(segmentPath(n), StandardOpenOption.READ)) {
+            ByteBuffer b = ByteBuffer.allocate(8);
+            ch.read(b, COUNT_AT);
+            return b.flip().getLong();
+        }
+    }
+
+    private MappedByteBuffer map(int n, FileChannel.MapMode mode) throws IOException {
+        long bytes = HEADER_BYTES + (long) recordsPerSegment * RECORD_BYTES;
+        boolean fresh = !Files.exists(segmentPath(n));
+        OpenOption[] opts = mode == FileChannel.MapMode.READ_ONLY
+                ? new OpenOption[] {StandardOpenOption.READ}
+                : new OpenOption[] {StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE};
+        try (FileChannel ch = FileChannel.open(segmentPath(n), opts)) {
+            MappedByteBuffer buf = ch.map(mode, 0, mode == FileChannel.MapMode.READ_ONLY ? ch.size() : bytes);
+            if (fresh) buf.putInt(0, MAGIC).putInt(LAYOUT_AT, SEGMENT_DETAILS);
+            else if (buf.getInt(0) != MAGIC) throw new IOException(segmentPath(n) + " is not an audit segment");
+            return buf;
+        }
+    }
+
+    private ByteBuffer mapQuietly(int n) {
+        try {
+            return map(n, FileChannel.MapMode.READ_ONLY);
+        } catch (IOException e) {
+            throw new PersistenceException("Audit read failed: " + e.getMessage(), e);
+        }
+    }
+}
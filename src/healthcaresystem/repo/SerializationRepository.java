@@ -1,29 +1,122 @@
 package healthcaresystem.repo;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
 import healthcaresystem.exception.PersistenceException;
+import healthcaresystem.metrics.Metrics;
 import healthcaresystem.model.facility.CareHome;
 
-// Handles saving and loading CareHome data to disk
+// Handles saving and loading CareHome data to disk.
+// Snapshots are written to a temp file, forced to disk and renamed over the target
+// (see SnapshotFiles), so a crash mid-save never leaves a truncated or missing carehome.dat. Older snapshots are
+// kept as file.1, file.2, ... and used if the newest one fails its checksum.
 public class SerializationRepository {
 
+    private static final int MAGIC = 0x43485331;          // "CHS1"
+    private static final int HEADER_BYTES = 4 + 8 + 8;    // magic, payload length, crc32
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final int DEFAULT_GENERATIONS = 3;
+
+    private final int generations;
+    private final Metrics metrics = Metrics.global();
+
+    public SerializationRepository() {
+        this(DEFAULT_GENERATIONS);
+    }
+
+    // generations = how many older snapshots to keep next to the live file
+    public SerializationRepository(int generations) {
+        this.generations = Math.max(0, generations);
+    }
+
     // Saves the CareHome object to a file
     public void saveState(CareHome careHome, String file) {
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
-            out.writeObject(careHome);
-        } catch (IOException e) {
-            throw new PersistenceException("Save failed: " + e.getMessage(), e);
-        }
+        metrics.time("repo.serialization.save", () -> {
+            Path target = Paths.get(file);
+            Path tmp = Paths.get(file + ".tmp");
+            try {
+                try (FileChannel ch = FileChannel.open(tmp,
+                        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    // payload first (after room for the header), then fill the header in
+                    ch.position(HEADER_BYTES);
+                    CRC32 crc = new CRC32();
+                    OutputStream body = new CheckedOutputStream(
+                            new BufferedOutputStream(Channels.newOutputStream(ch), BUFFER_BYTES), crc);
+                    ObjectOutputStream out = new ObjectOutputStream(body);
+                    out.writeObject(careHome);
+                    out.flush();
+                    long length = ch.position() - HEADER_BYTES;
+
+                    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                    header.putInt(MAGIC).putLong(length).putLong(crc.getValue()).flip();
+                    ch.write(header, 0);
+                    ch.force(true);
+                }
+                SnapshotFiles.replace(tmp, target, generations);
+            } catch (IOException e) {
+                try { Files.deleteIfExists(tmp); } catch (IOException ignored) { }
+                throw new PersistenceException("Save failed: " + e.getMessage(), e);
+            }
+        });
     }
 
-    // Loads the CareHome object from file, or creates a new one if file not found
+    // Loads the CareHome object from file, or creates a new one if file not found.
+    // Falls back to the newest older generation that passes its checksum.
     public CareHome loadState(String file) {
-        File f = new File(file);
-        if (!f.exists()) return new CareHome();
+        return metrics.time("repo.serialization.load", () -> {
+            PersistenceException firstError = null;
+            boolean anyFound = false;
+
+            for (int gen = 0; gen <= generations; gen++) {
+                File f = new File(SnapshotFiles.generationName(file, gen));
+                if (!f.exists()) continue;
+                anyFound = true;
+                try {
+                    return read(f);
+                } catch (PersistenceException e) {
+                    if (firstError == null) firstError = e;
+                }
+            }
+            if (!anyFound) return new CareHome();
+            throw firstError;
+        });
+    }
+
+    // ---------- helpers ----------
+    private CareHome read(File f) {
+        try (InputStream raw = new BufferedInputStream(new FileInputStream(f), BUFFER_BYTES)) {
+            raw.mark(4);
+            int magic = new DataInputStream(raw).readInt();
+            raw.reset();
+
+            // files written before checksums existed are plain Java serialization
+            if (magic != MAGIC) {
+                try (ObjectInputStream in = new ObjectInputStream(raw)) {
+                    return (CareHome) in.readObject();
+                }
+            }
+
+            DataInputStream header = new DataInputStream(raw);
+            header.readInt();
+            long length = header.readLong();
+            long expectedCrc = header.readLong();
+            if (length != f.length() - HEADER_BYTES)
+                throw new PersistenceException("Load failed: " + f.getName() + " is truncated.");
 
-        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(file))) {
-            return (CareHome) in.readObject();
-        } catch (IOException | ClassNotFoundException e) {
+            CheckedInputStream body = new CheckedInputStream(raw, new CRC32());
+            CareHome ch = (CareHome) new ObjectInputStream(body).readObject();
+            body.transferTo(OutputStream.nullOutputStream()); // checksum covers the whole payload
+            if (body.getChecksum().getValue() != expectedCrc)
+                throw new PersistenceException("Load failed: checksum mismatch in " + f.getName());
+            return ch;
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
             throw new PersistenceException("Load failed: " + e.getMessage(), e);
         }
     }
@@ -0,0 +1,50 @@
+package healthcaresystem.repo;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+// File steps shared by the snapshot formats: keeping older generations next to the live file
+// and putting a freshly written temp file in its place.
+// The live file is never absent: it is hard-linked (or copied) to file.1 first, then the temp
+// file is atomically moved over it and the directory is forced, so a crash at any point leaves
+// either the old or the new snapshot at `file`.
+final class SnapshotFiles {
+
+    private SnapshotFiles() { }
+
+    static String generationName(String file, int gen) {
+        return gen == 0 ? file : file + "." + gen;
+    }
+
+    // file -> file.1 -> file.2 ... (oldest generation dropped), then tmp -> file
+    static void replace(Path tmp, Path target, int generations) throws IOException {
+        if (generations > 0 && Files.exists(target)) {
+            String file = target.toString();
+            Files.deleteIfExists(Paths.get(generationName(file, generations)));
+            for (int gen = generations - 1; gen >= 1; gen--) {
+                Path from = Paths.get(generationName(file, gen));
+                if (Files.exists(from))
+                    Files.move(from, Paths.get(generationName(file, gen + 1)), StandardCopyOption.REPLACE_EXISTING);
+            }
+            Path first = Paths.get(generationName(file, 1));
+            try {
+                Files.createLink(first, target);
+            } catch (UnsupportedOperationException | IOException noLinks) {
+                Files.copy(target, first, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        forceDirectory(target);
+    }
+
+    // makes the renames durable; not every platform can open a directory, so this is best effort
+    private static void forceDirectory(Path file) {
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir == null) return;
+        try (FileChannel ch = FileChannel.open(dir, StandardOpenOption.READ)) {
+            ch.force(true);
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package healthcaresystem.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import healthcaresystem.exception.ComplianceException;
+import healthcaresystem.exception.NotRosteredException;
+import healthcaresystem.exception.UnauthorizedActionException;
+import healthcaresystem.model.audit.AuditEntry;
+import healthcaresystem.model.meds.AdministrationRecord;
+import healthcaresystem.model.meds.Prescription;
+import healthcaresystem.model.meds.PrescriptionItem;
+import healthcaresystem.model.people.Manager;
+import healthcaresystem.model.people.Resident;
+import healthcaresystem.model.people.Staff;
+import healthcaresystem.model.schedule.ComplianceReport;
+import healthcaresystem.model.schedule.ShiftType;
+import healthcaresystem.service.AuditPage;
+import healthcaresystem.service.AuditQuery;
+import healthcaresystem.service.AuthService;
+import healthcaresystem.service.CareHomeService;
+
+// Small HTTP front end so many terminals share one in-memory CareHome.
+// Parameters come as query string or form body; replies are plain text, one record per line
+// with tab-separated fields. Log in with POST /login, then send the token as "X-Session".
+// Each request runs on its own virtual thread when the JVM has them (21+), else on a pool.
+public class CareHomeServer {
+
+    private static final Logger LOG = Logger.getLogger(CareHomeServer.class.getName());
+
+    private final CareHomeService service;
+    private final AuthService auth;
+    private final HttpServer http;
+    private final ExecutorService executor;
+    private final Map<String, Route> routes = new HashMap<>();
+
+    @FunctionalInterface
+    private interface Route {
+        String handle(Request r);
+    }
+
+    // maps to a status code instead of a 500
+    private static class HttpError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        final int status;
+        HttpError(int status, String message) { super(message); this.status = status; }
+    }
+
+    public CareHomeServer(CareHomeService service, InetSocketAddress address) throws IOException {
+        this.service = service;
+        this.auth = new AuthService(service);
+        this.http = HttpServer.create(address, 512);
+        this.executor = requestExecutor();
+        http.setExecutor(executor);
+        http.createContext("/", this::dispatch);
+        registerRoutes();
+    }
+
+    public void start() { http.start(); }
+
+    public void stop() {
+        http.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getPort() { return http.getAddress().getPort(); }
+
+    // One virtual thread per request when available (looked up reflectively so this still
+    // builds and runs on 17), otherwise a fixed pool sized for blocking I/O
+    static ExecutorService requestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(Math.max(32, Runtime.getRuntime().availableProcessors() * 16));
+        }
+    }
+
+    // ---------- routes ----------
+    private void registerRoutes() {
+        routes.put("POST /login", r -> {
+            Staff s = auth.login(r.param("username"), r.param("password"));
+            if (s == null) throw new HttpError(401, "Login failed.");
+            return service.getSessions().open(s).getToken();
+        });
+        routes.put("POST /logout", r -> {
+            service.getSessions().close(r.token);
+            return "OK";
+        });
+        routes.put("GET /beds", r -> {
+            r.actor();
+            StringBuilder sb = new StringBuilder();
+            for (Map.Entry<String, Resident> e : service.occupancySnapshot().entrySet())
+                sb.append(e.getKey()).append('\t').append(e.getValue() == null ? "-" : e.getValue().getId()).append('\n');
+            return sb.toString();
+        });
+        routes.put("GET /bed", r -> service.viewResidentInBed(r.param("bed"), r.actor())
+                .map(res -> res.getId() + "\t" + res.getName() + "\t" + res.getGender())
+                .orElse("VACANT"));
+        routes.put("POST /residents", r -> {
+            String gender = r.param("gender");
+            service.addResidentToBed(r.param("id"), r.param("name"), gender.isEmpty() ? '?' : gender.charAt(0),
+                    r.param("bed"), r.actor());
+            return "OK";
+        });
+        routes.put("POST /move", r -> {
+            service.moveResident(r.param("from"), r.param("to"), r.actor());
+            return "OK";
+        });
+        routes.put("POST /prescriptions", r -> {
+            PrescriptionItem item = new PrescriptionItem(r.param("medicine"), r.param("dose"),
+                    r.optional("frequency", ""), r.optional("notes", ""));
+            Prescription p = service.attachPrescriptionToBed(r.param("bed"), List.of(item), r.actor());
+            return p.getId();
+        });
+        routes.put("POST /doses", r -> {
+            AdministrationRecord rec = service.administerDose(r.param("bed"), r.param("rx"),
+                    r.intParam("item"), r.optional("dose", null), r.actor());
+            return rec.getTime() + "\t" + rec.getMedicine() + "\t" + rec.getDose();
+        });
+        routes.put("GET /administrations", r -> {
+            StringBuilder sb = new StringBuilder();
+            for (AdministrationRecord a : service.administrationLogForBed(r.param("bed"), r.actor()))
+                sb.append(a.getTime()).append('\t').append(a.getMedicine()).append('\t').append(a.getDose())
+                  .append('\t').append(a.getAdministeredBy().getUsername()).append('\n');
+            return sb.toString();
+        });
+        routes.put("POST /shifts", r -> {
+            service.assignOrReplaceShift(r.param("staff"), r.dateParam("day"),
+                    ShiftType.valueOf(r.param("type").toUpperCase(Locale.ROOT)), Boolean.parseBoolean(r.optional("replace", "false")),
+                    r.actor());
+            return "OK";
+        });
+        routes.put("GET /compliance", r -> {
+            r.manager();
+            ComplianceReport report = service.weeklyComplianceReport();
+            StringBuilder sb = new StringBuilder(report.isCompliant() ? "OK\n" : "");
+            report.getViolations().forEach(v -> sb.append(v.getMessage()).append('\n'));
+            return sb.toString();
+        });
+        // newest first, one page; the last line is "next\t<cursor>" when there are older entries
+        routes.put("GET /audit", r -> {
+            r.manager();
+            String success = r.optional("success", null);
+            AuditQuery q = new AuditQuery()
+                    .limit(r.has("limit") ? r.intParam("limit") : 50)
+                    .cursor(r.has("cursor") ? r.longParam("cursor") : -1)
+                    .actor(r.optional("actor", null))
+                    .action(r.optional("action", null))
+                    .success(success == null ? null : Boolean.parseBoolean(success))
+                    .from(r.timeParam("from"))
+                    .to(r.timeParam("to"));
+
+            AuditPage page = service.auditPage(q);
+            StringBuilder sb = new StringBuilder();
+            for (AuditEntry e : page.getEntries()) {
+                sb.append(e.getTime()).append('\t').append(e.getActor() == null ? "-" : e.getActor().getUsername())
+                  .append('\t').append(e.getAction()).append('\t').append(e.getDetails()).append('\n');
+            }
+            if (page.hasMore()) sb.append("next\t").append(page.getNextCursor()).append('\n');
+            return sb.toString();
+        });
+    }
+
+    // ---------- plumbing ----------
+    private void dispatch(HttpExchange ex) throws IOException {
+        int status = 200;
+        String body;
+        try {
+            Route route = routes.get(ex.getRequestMethod() + " " + ex.getRequestURI().getPath());
+            if (route == null) throw new HttpError(404, "No such endpoint.");
+            body = route.handle(new Request(ex));
+        } catch (HttpError e) {
+            status = e.status; body = e.getMessage();
+        } catch (UnauthorizedActionException | NotRosteredException e) {
+            status = 403; body = e.getMessage();
+        } catch (IllegalArgumentException e) {
+            status = 400; body = e.getMessage();
+        } catch (IllegalStateException | ComplianceException e) {
+            status = 409; body = e.getMessage();
+        } catch (RuntimeException e) {
+            // details stay in the server log; the client only learns that the request failed
+            LOG.log(Level.SEVERE, "Request failed: " + ex.getRequestMethod() + " " + ex.getRequestURI().getPath(), e);
+            status = 500; body = "Internal error.";
+        }
+
+        byte[] bytes = (body == null ? "" : body).getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        ex.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private final class Request {
+        final Map<String, String> params = new HashMap<>();
+        final String token;
+
+        Request(HttpExchange ex) throws IOException {
+            parse(ex.getRequestURI().getRawQuery());
+            try (InputStream in = ex.getRequestBody()) {
+                parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            this.token = ex.getRequestHeaders().getFirst("X-Session");
+        }
+
+        private void parse(String encoded) {
+            if (encoded == null || encoded.isEmpty()) return;
+            for (String pair : encoded.split("&")) {
+                int eq = pair.indexOf('=');
+                String k = eq < 0 ? pair : pair.substring(0, eq);
+                String v = eq < 0 ? "" : pair.substring(eq + 1);
+                params.put(URLDecoder.decode(k, StandardCharsets.UTF_8), URLDecoder.decode(v, StandardCharsets.UTF_8));
+            }
+        }
+
+        String param(String name) {
+            String v = params.get(name);
+            if (v == null) throw new HttpError(400, "Missing parameter: " + name);
+            return v;
+        }
+
+        String optional(String name, String fallback) {
+            return params.getOrDefault(name, fallback);
+        }
+
+        boolean has(String name) {
+            return params.containsKey(name);
+        }
+
+        int intParam(String name) {
+            try {
+                return Integer.parseInt(param(name));
+            } catch (NumberFormatException e) {
+                throw new HttpError(400, "Not a number: " + name);
+            }
+        }
+
+        long longParam(String name) {
+            try {
+                return Long.parseLong(param(name));
+            } catch (NumberFormatException e) {
+                throw new HttpError(400, "Not a number: " + name);
+            }
+        }
+
+        // ISO date such as 2025-01-06
+        LocalDate dateParam(String name) {
+            try {
+                return LocalDate.parse(param(name));
+            } catch (DateTimeParseException e) {
+                throw new HttpError(400, "Not a date: " + name);
+            }
+        }
+
+        // optional ISO date-time such as 2025-01-06T08:00; null when absent
+        LocalDateTime timeParam(String name) {
+            String v = params.get(name);
+            if (v == null) return null;
+            try {
+                return LocalDateTime.parse(v);
+            } catch (DateTimeParseException e) {
+                throw new HttpError(400, "Not a date-time: " + name);
+            }
+        }
+
+        Staff actor() {
+            Staff s = service.getSessions().user(token);
+            if (s == null) throw new HttpError(401, "Not logged in or session expired.");
+            return s;
+        }
+
+        // the service leaves these reads unchecked; the menus only offer them to managers
+        Staff manager() {
+            Staff s = actor();
+            if (!(s instanceof Manager)) throw new UnauthorizedActionException("Only a Manager can do this.");
+            return s;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package healthcaresystem.server;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import healthcaresystem.model.facility.CareHome;
+import healthcaresystem.service.ConcurrentCareHomeService;
+
+// Loopback load test: many simulated terminals log in as the manager and hit the server at once.
+// Mix per request: 80% bed board, 10% audit tail, 10% admissions (409 once the beds are full).
+//   java healthcaresystem.server.LoadGenerator [clients] [requestsPerClient] [baseUrl]
+// Without a baseUrl it starts a throwaway in-memory server on a free port.
+public class LoadGenerator {
+
+    private final String baseUrl;
+    private final HttpClient http;
+    private final ExecutorService clients = CareHomeServer.requestExecutor();
+    private final Map<Integer, AtomicInteger> statuses = new ConcurrentHashMap<>();
+    private final AtomicInteger admissions = new AtomicInteger();
+
+    public LoadGenerator(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.http = HttpClient.newHttpClient(); // own executor: clients block on it
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clientCount = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int perClient = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        CareHomeServer local = null;
+        String url;
+        if (args.length > 2) {
+            url = args[2];
+        } else {
+            ConcurrentCareHomeService service = new ConcurrentCareHomeService(new CareHome());
+            service.ensureDefaultAdmin();
+            service.ensureDefaultFacility();
+            local = new CareHomeServer(service, new InetSocketAddress("127.0.0.1", 0));
+            local.start();
+            url = "http://127.0.0.1:" + local.getPort();
+        }
+
+        LoadGenerator gen = new LoadGenerator(url);
+        try {
+            System.out.println(gen.run(clientCount, perClient, "admin", "admin123"));
+        } finally {
+            gen.close();
+            if (local != null) local.stop();
+        }
+    }
+
+    // Runs the load and returns a short report (throughput, latency percentiles, status counts)
+    public String run(int clientCount, int perClient, String username, String password) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int c = 0; c < clientCount; c++)
+            results.add(clients.submit(() -> client(perClient, username, password, start)));
+
+        long t0 = System.nanoTime();
+        start.countDown();
+        List<long[]> latencies = new ArrayList<>();
+        for (Future<long[]> f : results) latencies.add(f.get());
+        long elapsed = System.nanoTime() - t0;
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        double seconds = elapsed / 1e9;
+        return String.format("%d requests from %d clients in %.2fs = %.0f req/s%n"
+                        + "latency ms: p50=%.2f p90=%.2f p99=%.2f max=%.2f%n"
+                        + "status: %s",
+                all.length, clientCount, seconds, all.length / seconds,
+                percentile(all, 50), percentile(all, 90), percentile(all, 99),
+                all.length == 0 ? 0 : all[all.length - 1] / 1e6,
+                new TreeMap<>(statuses));
+    }
+
+    public void close() {
+        clients.shutdownNow();
+    }
+
+    private long[] client(int requests, String username, String password, CountDownLatch start) throws Exception {
+        start.await();
+        String token = send(post("/login", "username=" + username + "&password=" + password, null)).body();
+        long[] latency = new long[requests];
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        for (int i = 0; i < requests; i++) {
+            int pick = rnd.nextInt(10);
+            HttpRequest req;
+            if (pick < 8) req = get("/beds", token);
+            else if (pick == 8) req = get("/audit?limit=10", token);
+            else {
+                int n = admissions.incrementAndGet();
+                String bed = "W" + (1 + n % 2) + "-R" + (1 + n % 6) + "-B" + (1 + n % 4);
+                req = post("/residents", "id=LR" + n + "&name=Load+" + n + "&gender=" + (n % 2 == 0 ? 'M' : 'F')
+                        + "&bed=" + bed, token);
+            }
+            long t = System.nanoTime();
+            send(req);
+            latency[i] = System.nanoTime() - t;
+        }
+        send(post("/logout", "", token));
+        return latency;
+    }
+
+    private HttpResponse<String> send(HttpRequest req) throws Exception {
+        HttpResponse<String> res = http.send(req, HttpResponse.BodyHandlers.ofString());
+        statuses.computeIfAbsent(res.statusCode(), k -> new AtomicInteger()).incrementAndGet();
+        return res;
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).header("X-Session", token).GET().build();
+    }
+
+    private HttpRequest post(String path, String form, String token) {
+        HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form));
+        if (token != null) b.header("X-Session", token);
+        return b.build();
+    }
+
+    private static double percentile(long[] sorted, int p) {
+        if (sorted.length == 0) return 0;
+        int i = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, i)] / 1e6;
+    }
+}
@@ -0,0 +1,30 @@
+package healthcaresystem.service;
+
+// One resident to admit in a batch, with placement constraints
+public class AdmissionRequest {
+
+    private final String residentId;
+    private final String name;
+    private final char gender;
+    private final String preferredWard;     // tie-breaker between equally good rooms; null = any ward
+    private final boolean genderMatchedRoom; // only rooms that are empty or hold the same gender
+
+    public AdmissionRequest(String residentId, String name, char gender) {
+        this(residentId, name, gender, null, true);
+    }
+
+    public AdmissionRequest(String residentId, String name, char gender, String preferredWard, boolean genderMatchedRoom) {
+        this.residentId = residentId;
+        this.name = name;
+        this.gender = gender;
+        this.preferredWard = preferredWard;
+        this.genderMatchedRoom = genderMatchedRoom;
+    }
+
+    // Getters
+    public String getResidentId() { return residentId; }
+    public String getName() { return name; }
+    public char getGender() { return gender; }
+    public String getPreferredWard() { return preferredWard; }
+    public boolean isGenderMatchedRoom() { return genderMatchedRoom; }
+}
@@ -1,15 +1,36 @@
 package healthcaresystem.service;
 
 import healthcaresystem.model.facility.Bed;
+import healthcaresystem.model.facility.CareHome;
+import healthcaresystem.model.facility.VacancyIndex;
 import healthcaresystem.model.people.Resident;
 
 // Handles assigning residents to beds
 public class AllocationService {
 
-    // Places a resident into the given bed if it's vacant
+    // Places a resident into the given bed if it's vacant (no vacancy index is told: a bed of a
+    // care home goes through the overload below)
     public boolean placeResident(Resident resident, Bed bed) {
-        if (bed.getOccupiedBy() != null) return false; // bed already occupied
-        bed.setOccupiedBy(resident);
-        return true;
+        return bed.tryOccupy(resident); // false if already occupied (check and claim in one step)
+    }
+
+    // Same, keeping the care home's vacancy index current
+    public boolean placeResident(CareHome careHome, Resident resident, Bed bed) {
+        boolean placed = placeResident(resident, bed);
+        if (placed) careHome.getVacancies().bedChanged(bed);
+        return placed;
+    }
+
+    // Picks the best free bed from the vacancy index (same-gender room, least occupied,
+    // nearest ward) and claims it; null if no bed fits
+    public Bed allocate(CareHome careHome, Resident resident, String preferredWard, boolean genderMatched) {
+        VacancyIndex vacancies = careHome.getVacancies();
+        while (true) {
+            Bed bed = vacancies.bestFreeBed(resident.getGender(), preferredWard, genderMatched);
+            if (bed == null) return null;
+            // re-checks the room's actual occupants; on a lost race or a stale entry the room is
+            // re-filed, so the next pick is a different bed
+            if (vacancies.claim(bed, resident, genderMatched)) return bed;
+        }
     }
 }
@@ -0,0 +1,299 @@
+package healthcaresystem.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import healthcaresystem.exception.PersistenceException;
+import healthcaresystem.model.audit.AuditEntry;
+import healthcaresystem.model.people.Staff;
+
+// Asynchronous front for a durable audit store.
+// Callers drop a small event into a bounded queue and return; one writer thread
+// drains it in batches and flushes the target every batchSize entries or flushMillis.
+// Actions listed as sync (e.g. password changes) wait until they are flushed.
+// If the target fails, the store stops: waiting and later callers get a PersistenceException.
+public class AsyncAuditStore implements AuditStore {
+
+    // written and flushed before log() returns
+    public static final Set<String> DEFAULT_SYNC_ACTIONS =
+            Set.of("MODIFY_STAFF_PASSWORD", "ADD_STAFF", "SEED_MANAGER");
+
+    private static final int DEFAULT_CAPACITY = 4096;
+    private static final int DEFAULT_BATCH = 256;
+    private static final long DEFAULT_FLUSH_MILLIS = 200;
+
+    private final AuditStore target;
+    private final BlockingQueue<Event> queue;
+    private final int batchSize;
+    private final long flushMillis;
+    private final Set<String> syncActions;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final Thread writer;
+
+    // sequence numbers: handed out / appended to target / flushed to disk
+    private final Object progress = new Object();
+    private long submittedSeq, writtenSeq, flushedSeq;
+    private volatile boolean closing;
+    private volatile PersistenceException failure;   // first target error; the store is dead after it
+    private LocalDateTime lastTime;   // writer thread only: entry times never go backwards
+
+    // numbering and queuing happen together, so the queue is always in sequence order
+    private final Object submitLock = new Object();
+
+    // backpressure metrics
+    private long blockedSubmits, batches, maxDepth;
+
+    public AsyncAuditStore(AuditStore target) {
+        this(target, DEFAULT_CAPACITY, DEFAULT_BATCH, DEFAULT_FLUSH_MILLIS, DEFAULT_SYNC_ACTIONS);
+    }
+
+    public AsyncAuditStore(AuditStore target, int capacity, int batchSize, long flushMillis, Set<String> syncActions) {
+        // the writer thread appends concurrently with the app, so the target must not be the CareHome list
+        if (!target.isDurable()) throw new IllegalArgumentException("Async audit needs a durable store.");
+        this.target = target;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushMillis = Math.max(1, flushMillis);
+        this.syncActions = Set.copyOf(syncActions);
+        Iterator<AuditEntry> newest = target.newestFirst();
+        this.lastTime = newest.hasNext() ? newest.next().getTime() : null;
+
+        writer = new Thread(this::runWriter, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // queued by close(): the writer flushes what came before it and stops
+    private static final Event END = new Event(-1, 0, null, null, null, false, false);
+
+    // compact event; the AuditEntry (and its LocalDateTime) is built on the writer thread
+    private static final class Event {
+        final long seq, epochMillis;
+        final Staff actor;
+        final String action, details;
+        final boolean success, sync;
+
+        Event(long seq, long epochMillis, Staff actor, String action, String details, boolean success, boolean sync) {
+            this.seq = seq; this.epochMillis = epochMillis; this.actor = actor;
+            this.action = action; this.details = details; this.success = success; this.sync = sync;
+        }
+    }
+
+    // ---------- producer side ----------
+    public void submit(long epochMillis, Staff actor, String action, String details, boolean success) {
+        boolean sync = syncActions.contains(action);
+        Event e;
+        synchronized (submitLock) {
+            checkOpen();
+            synchronized (progress) {
+                e = new Event(++submittedSeq, epochMillis, actor, action, details, success, sync);
+            }
+            try {
+                if (!queue.offer(e)) {
+                    synchronized (progress) { blockedSubmits++; }
+                    queue.put(e); // queue full: the caller (and the ones behind it) wait for the writer
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while queuing audit entry.", ie);
+            }
+        }
+        synchronized (progress) { maxDepth = Math.max(maxDepth, queue.size()); }
+        if (failure != null) throw failure;   // the writer is only discarding now
+        if (sync) awaitFlushed(e.seq);
+    }
+
+    private void checkOpen() {
+        if (failure != null) throw failure;
+        if (closing) throw new IllegalStateException("Audit store is closed.");
+    }
+
+    @Override
+    public void append(AuditEntry entry) {
+        submit(entry.getTime().atZone(zone).toInstant().toEpochMilli(),
+                entry.getActor(), entry.getAction(), entry.getDetails(), entry.isSuccess());
+    }
+
+    // ---------- writer thread ----------
+    private void runWriter() {
+        List<Event> batch = new ArrayList<>(batchSize);
+        long lastFlush = System.currentTimeMillis();
+        boolean end = false;
+        while (!end) {
+            try {
+                Event first = queue.poll(flushMillis, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                fail(new PersistenceException("Audit writer interrupted.", ie));
+                return;
+            }
+            if (!batch.isEmpty() && batch.get(batch.size() - 1) == END) {
+                batch.remove(batch.size() - 1);   // nothing can be queued after END
+                end = true;
+            }
+            if (failure != null) {   // dead store: keep draining so blocked submitters get their error
+                batch.clear();
+                continue;
+            }
+
+            try {
+                boolean mustFlush = end;
+                if (!batch.isEmpty()) {
+                    for (Event e : batch) {
+                        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(e.epochMillis), zone);
+                        if (lastTime != null && time.isBefore(lastTime)) time = lastTime;   // clock step or DST fall-back
+                        lastTime = time;
+                        target.append(new AuditEntry(time, e.actor, e.action, e.details, e.success));
+                        mustFlush |= e.sync;
+                    }
+                    long last = batch.get(batch.size() - 1).seq;
+                    synchronized (progress) {
+                        writtenSeq = last;
+                        batches++;
+                        progress.notifyAll();
+                    }
+                    batch.clear();
+                }
+
+                long now = System.currentTimeMillis();
+                boolean pending;
+                synchronized (progress) { pending = flushedSeq < writtenSeq; }
+                if (pending && (mustFlush || now - lastFlush >= flushMillis || writtenSinceFlush() >= batchSize)) {
+                    target.flush();
+                    lastFlush = now;
+                    synchronized (progress) {
+                        flushedSeq = writtenSeq;
+                        progress.notifyAll();
+                    }
+                }
+            } catch (RuntimeException ex) {
+                batch.clear();
+                fail(ex instanceof PersistenceException pe ? pe
+                        : new PersistenceException("Audit write failed: " + ex.getMessage(), ex));
+            }
+        }
+    }
+
+    private void fail(PersistenceException e) {
+        synchronized (progress) {
+            if (failure == null) failure = e;
+            progress.notifyAll();
+        }
+    }
+
+    private long writtenSinceFlush() {
+        synchronized (progress) { return writtenSeq - flushedSeq; }
+    }
+
+    private void awaitWritten(long seq) {
+        synchronized (progress) {
+            while (writtenSeq < seq) {
+                if (failure != null) throw failure;
+                waitQuietly();
+            }
+        }
+    }
+
+    private void awaitFlushed(long seq) {
+        synchronized (progress) {
+            while (flushedSeq < seq) {
+                if (failure != null) throw failure;
+                waitQuietly();
+            }
+        }
+    }
+
+    private void waitQuietly() {
+        try {
+            progress.wait(50);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for audit writer.", ie);
+        }
+    }
+
+    private long submittedNow() {
+        synchronized (progress) { return submittedSeq; }
+    }
+
+    // ---------- reads see everything submitted before the call ----------
+    @Override
+    public long size() {
+        awaitWritten(submittedNow());
+        return target.size();
+    }
+
+    @Override
+    public long firstPosition() {
+        return target.firstPosition();
+    }
+
+    @Override
+    public Iterator<AuditEntry> newestFirst(long before) {
+        awaitWritten(submittedNow());
+        return target.newestFirst(before);
+    }
+
+    @Override
+    public AuditEntry get(long position) {
+        awaitWritten(submittedNow());
+        return target.get(position);
+    }
+
+    @Override
+    public boolean isDurable() { return true; }
+
+    @Override
+    public void flush() {
+        awaitFlushed(submittedNow());
+    }
+
+    // No interrupt here: an interrupted FileChannel write closes the channel and loses the tail.
+    // END goes in behind every queued event; the writer appends and flushes them, then stops.
+    @Override
+    public void close() {
+        synchronized (submitLock) {
+            if (closing) return;
+            closing = true;
+            try {
+                queue.put(END);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while closing audit store.", ie);
+            }
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+        target.close();
+    }
+
+    // ---------- metrics ----------
+    public String stats() {
+        synchronized (progress) {
+            return "submitted=" + submittedSeq + " written=" + writtenSeq + " flushed=" + flushedSeq
+                    + " queued=" + queue.size() + " maxQueued=" + maxDepth
+                    + " blockedSubmits=" + blockedSubmits + " batches=" + batches
+                    + (failure == null ? "" : " FAILED: " + failure.getMessage());
+        }
+    }
+
+    public long getBlockedSubmits() { synchronized (progress) { return blockedSubmits; } }
+    public long getMaxQueueDepth() { synchronized (progress) { return maxDepth; } }
+    public long getBatches() { synchronized (progress) { return batches; } }
+    public PersistenceException getFailure() { return failure; }
+}
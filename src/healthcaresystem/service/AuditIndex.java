@@ -0,0 +1,151 @@
+package healthcaresystem.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import healthcaresystem.model.audit.AuditEntry;
+
+// Secondary indexes over an AuditStore, addressed by store position (0 = oldest entry):
+//   time     : skip list from the running maximum timestamp to the first position reaching it
+//   postings : ascending positions per actor id, per action code, and for denied entries
+// AuditService clamps new entries so times never go backwards, which makes a time range a range
+// of positions and a filtered query an intersection of posting lists inside it. Older trails may
+// still step back (DST fall-back, clock changes): the lower bound stays safe because it follows
+// the running maximum, and once a step back is seen the upper bound is left open; callers
+// re-check each entry's time either way. Built from the store on first use,
+// then kept current as AuditService logs (or by reading the store's new tail before a query).
+// Methods are synchronized so several sessions can share one index.
+class AuditIndex {
+
+    private final ConcurrentSkipListMap<LocalDateTime, Long> firstAt = new ConcurrentSkipListMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private long indexed;          // positions [firstPosition, indexed) are in the index
+    private boolean built;
+    private LocalDateTime maxTime; // latest time indexed so far
+    private boolean disordered;    // some entry is older than one before it
+
+    static String actorKey(String staffId) { return "actor:" + staffId.toLowerCase(Locale.ROOT); }
+    static String actionKey(String action) { return "action:" + action.toUpperCase(Locale.ROOT); }
+    static final String DENIED = "denied";
+
+    // Indexes whatever the store holds beyond what is indexed already
+    synchronized void catchUp(AuditStore store) {
+        long size = store.size();
+        if (built && size == indexed) return;
+        if (size < indexed) clear();   // the store was replaced or truncated
+        indexed = Math.max(indexed, store.firstPosition());   // entries before it were archived
+        for (long p = indexed; p < size; p++) add(store.get(p));   // oldest first, one entry at a time
+        built = true;
+    }
+
+    // Called right after `e` was appended to `store`; skipped when the index is behind or not built
+    synchronized void appended(AuditStore store, AuditEntry e) {
+        if (built && store.size() == indexed + 1) add(e);
+    }
+
+    synchronized void clear() {
+        firstAt.clear();
+        postings.clear();
+        indexed = 0;
+        built = false;
+        maxTime = null;
+        disordered = false;
+    }
+
+    synchronized long indexed() { return indexed; }
+
+    // first position that can hold a time >= t (indexed() if none)
+    synchronized long firstAtOrAfter(LocalDateTime t) {
+        Map.Entry<LocalDateTime, Long> e = firstAt.ceilingEntry(t);
+        return e == null ? indexed : e.getValue();
+    }
+
+    // first position whose time is > t (indexed() if none, or if later entries might step back to t)
+    synchronized long firstAfter(LocalDateTime t) {
+        if (disordered) return indexed;
+        Map.Entry<LocalDateTime, Long> e = firstAt.higherEntry(t);
+        return e == null ? indexed : e.getValue();
+    }
+
+    // Positions in [lo, hi) present in every list named by `keys`, newest first, at most `max` of them.
+    // Walks the shortest list and probes the others, so the cost follows the smallest list in range.
+    synchronized long[] intersect(List<String> keys, long lo, long hi, int max) {
+        List<Postings> lists = new ArrayList<>(keys.size());
+        for (String k : keys) {
+            Postings p = postings.get(k);
+            if (p == null) return new long[0];
+            lists.add(p);
+        }
+        lists.sort((a, b) -> Integer.compare(a.countIn(lo, hi), b.countIn(lo, hi)));
+        Postings driver = lists.get(0);
+
+        long[] out = new long[Math.min(max, driver.countIn(lo, hi))];
+        int n = 0;
+        for (int i = driver.lowerBound(hi) - 1; i >= 0 && n < out.length; i--) {
+            long pos = driver.at(i);
+            if (pos < lo) break;
+            boolean inAll = true;
+            for (int j = 1; j < lists.size() && inAll; j++) inAll = lists.get(j).contains(pos);
+            if (inAll) out[n++] = pos;
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    // Whether any position in [lo, hi) is in every list (used to tell if another page exists)
+    synchronized boolean anyIn(List<String> keys, long lo, long hi) {
+        return intersect(keys, lo, hi, 1).length > 0;
+    }
+
+    private void add(AuditEntry e) {
+        long pos = indexed++;
+        if (maxTime == null || !e.getTime().isBefore(maxTime)) {
+            maxTime = e.getTime();
+            firstAt.putIfAbsent(maxTime, pos);
+        } else {
+            disordered = true;
+        }
+        if (e.getActor() != null) postings(actorKey(e.getActor().getId())).add(pos);
+        if (e.getAction() != null) postings(actionKey(e.getAction())).add(pos);
+        if (!e.isSuccess()) postings(DENIED).add(pos);
+    }
+
+    private Postings postings(String key) {
+        return postings.computeIfAbsent(key, k -> new Postings());
+    }
+
+    // ascending positions in a growable array
+    private static final class Postings {
+        private long[] items = new long[8];
+        private int size;
+
+        void add(long pos) {
+            if (size == items.length) items = Arrays.copyOf(items, size * 2);
+            items[size++] = pos;
+        }
+
+        long at(int i) { return items[i]; }
+
+        // index of the first item >= pos
+        int lowerBound(long pos) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (items[mid] < pos) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+
+        int countIn(long lo, long hi) { return Math.max(0, lowerBound(hi) - lowerBound(lo)); }
+
+        boolean contains(long pos) {
+            int i = lowerBound(pos);
+            return i < size && items[i] == pos;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package healthcaresystem.service;
+
+import java.util.Collections;
+import java.util.List;
+
+import healthcaresystem.model.audit.AuditEntry;
+
+// One page of audit entries, newest first
+public class AuditPage {
+
+    private final List<AuditEntry> entries;
+    private final long nextCursor;   // -1 when the walk reached the end
+
+    AuditPage(List<AuditEntry> entries, long nextCursor) {
+        this.entries = Collections.unmodifiableList(entries);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<AuditEntry> getEntries() { return entries; }
+    public long getNextCursor() { return nextCursor; }
+    public boolean hasMore() { return nextCursor >= 0; }
+}
@@ -0,0 +1,62 @@
+package healthcaresystem.service;
+
+import java.time.LocalDateTime;
+
+import healthcaresystem.model.audit.AuditEntry;
+
+// Filter and page request for the audit trail; every filter is optional.
+// Pass a page's getNextCursor() to cursor() to fetch the page after it.
+//   new AuditQuery().actor("admin").success(false).limit(50)
+public class AuditQuery {
+
+    public static final int DEFAULT_LIMIT = 100;
+
+    private LocalDateTime from, to;   // inclusive time range
+    private String actor;             // username or staff id
+    private String action;            // action code, e.g. LOGIN
+    private Boolean success;
+    private long cursor = -1;         // -1 = start at the newest entry
+    private int limit = DEFAULT_LIMIT;
+
+    public AuditQuery from(LocalDateTime from) { this.from = from; return this; }
+    public AuditQuery to(LocalDateTime to) { this.to = to; return this; }
+    public AuditQuery actor(String actor) { this.actor = blankToNull(actor); return this; }
+    public AuditQuery action(String action) { this.action = blankToNull(action); return this; }
+    public AuditQuery success(Boolean success) { this.success = success; return this; }
+
+    public AuditQuery cursor(long cursor) {
+        if (cursor < -1) throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        this.cursor = cursor;
+        return this;
+    }
+
+    public AuditQuery limit(int limit) {
+        if (limit < 1) throw new IllegalArgumentException("Limit must be at least 1.");
+        this.limit = limit;
+        return this;
+    }
+
+    public LocalDateTime getFrom() { return from; }
+    public LocalDateTime getTo() { return to; }
+    public String getActor() { return actor; }
+    public String getAction() { return action; }
+    public Boolean getSuccess() { return success; }
+    public long getCursor() { return cursor; }
+    public int getLimit() { return limit; }
+
+    // true if the entry passes every filter except the time range (checked while walking)
+    boolean matches(AuditEntry e) {
+        if (success != null && e.isSuccess() != success) return false;
+        if (action != null && !action.equalsIgnoreCase(e.getAction())) return false;
+        if (actor != null) {
+            if (e.getActor() == null) return false;
+            if (!actor.equalsIgnoreCase(e.getActor().getUsername()) && !actor.equalsIgnoreCase(e.getActor().getId()))
+                return false;
+        }
+        return true;
+    }
+
+    private static String blankToNull(String s) {
+        return (s == null || s.isBlank()) ? null : s.trim();
+    }
+}
@@ -1,6 +1,11 @@
 package healthcaresystem.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
 import healthcaresystem.model.audit.AuditEntry;
 import healthcaresystem.model.facility.CareHome;
 import healthcaresystem.model.people.Staff;
@@ -9,15 +14,134 @@ import healthcaresystem.model.people.Staff;
 public class AuditService {
 
     private final CareHome careHome;
+    private AuditStore store;
+    private ChangeLog changeLog = ChangeLog.NONE;
+    private final AuditIndex index = new AuditIndex();   // by time, actor, action and result
+    private LocalDateTime lastTime;                      // guarded by index; see log()
 
     public AuditService(CareHome careHome) {
         this.careHome = careHome;
+        this.store = new CareHomeAuditStore(careHome);
+    }
+
+    public void setChangeLog(ChangeLog changeLog) {
+        this.changeLog = (changeLog == null) ? ChangeLog.NONE : changeLog;
+    }
+
+    // Switches to another store; entries still held in the CareHome are moved over once
+    public void setStore(AuditStore newStore) {
+        List<AuditEntry> held = careHome.getAuditLog();
+        if (newStore.isDurable() && !held.isEmpty()) {
+            Iterator<AuditEntry> newest = newStore.newestFirst();
+            LocalDateTime last = newest.hasNext() ? newest.next().getTime() : null;
+            for (AuditEntry e : held)
+                if (last == null || e.getTime().isAfter(last)) newStore.append(e);
+            held.clear(); // snapshots stop carrying the trail
+        }
+        synchronized (index) {
+            this.store = newStore;
+            index.clear();
+            lastTime = null;
+        }
     }
 
+    public AuditStore getStore() { return store; }
+
     // Records a new audit entry (who, what, details, success)
     public void log(Staff actor, String action, String details, boolean success) {
-        careHome.getAuditLog().add(new AuditEntry(
-            LocalDateTime.now(), actor, action, details, success
-        ));
+        if (store instanceof AsyncAuditStore async) {
+            async.submit(System.currentTimeMillis(), actor, action, details, success);
+            return;
+        }
+        AuditEntry e;
+        synchronized (index) {   // so the index learns entries in store order
+            // times never go backwards along the trail (clock steps, DST fall-back), so the
+            // index can turn a time range into a range of positions
+            LocalDateTime now = LocalDateTime.now();
+            if (lastTime == null) {
+                Iterator<AuditEntry> newest = store.newestFirst();
+                lastTime = newest.hasNext() ? newest.next().getTime() : now;
+            }
+            if (now.isBefore(lastTime)) now = lastTime;
+            lastTime = now;
+            e = new AuditEntry(now, actor, action, details, success);
+            store.append(e);
+            index.appended(store, e);
+        }
+        if (!store.isDurable())
+            changeLog.record("AUDIT", e.getTime().toString(), actor == null ? null : actor.getId(),
+                    action, details, Boolean.toString(success));
+    }
+
+    // One page of matching entries, newest first. The cursor is a position in the trail, so
+    // entries appended while someone pages through older ones don't shift the pages.
+    // Unfiltered pages walk the store from the cursor. A time range becomes a range of positions
+    // through the index, and actor/action/denied filters intersect its posting lists, so a
+    // targeted query reads about as many entries as it returns.
+    public AuditPage query(AuditQuery q) {
+        List<String> keys = indexKeys(q);
+        long lo = store.firstPosition(), hi = (q.getCursor() < 0) ? Long.MAX_VALUE : q.getCursor();
+        if (keys.isEmpty() && q.getFrom() == null && q.getTo() == null) {
+            hi = Math.min(hi, store.size());
+        } else {
+            index.catchUp(store);
+            hi = Math.min(hi, index.indexed());
+            if (q.getFrom() != null) lo = index.firstAtOrAfter(q.getFrom());
+            if (q.getTo() != null) hi = Math.min(hi, index.firstAfter(q.getTo()));
+        }
+        List<AuditEntry> page = new ArrayList<>(Math.min(q.getLimit(), 1024));
+        if (lo >= hi) return new AuditPage(page, -1);
+
+        if (keys.isEmpty()) {
+            Iterator<AuditEntry> it = store.newestFirst(hi);
+            long position = hi;
+            while (page.size() < q.getLimit() && position > lo && it.hasNext()) {
+                AuditEntry e = it.next();
+                position--;
+                if (matches(q, e)) page.add(e);
+            }
+            return new AuditPage(page, position > lo ? position : -1);
+        }
+
+        // the success=true filter isn't indexed, so a batch of hits may come back short
+        long next = hi;
+        while (page.size() < q.getLimit() && next > lo) {
+            long[] hits = index.intersect(keys, lo, next, q.getLimit() - page.size());
+            if (hits.length == 0) { next = lo; break; }
+            for (long position : hits) {
+                AuditEntry e = store.get(position);
+                if (matches(q, e)) page.add(e);
+            }
+            next = hits[hits.length - 1];
+        }
+        return new AuditPage(page, next > lo && index.anyIn(keys, lo, next) ? next : -1);
+    }
+
+    // posting lists a query can use; an actor is looked up by username or id
+    private List<String> indexKeys(AuditQuery q) {
+        List<String> keys = new ArrayList<>(3);
+        if (q.getActor() != null) {
+            String id = q.getActor();
+            for (Staff s : careHome.getStaff())
+                if (q.getActor().equalsIgnoreCase(s.getId()) || q.getActor().equalsIgnoreCase(s.getUsername())) { id = s.getId(); break; }
+            keys.add(AuditIndex.actorKey(id));
+        }
+        if (q.getAction() != null) keys.add(AuditIndex.actionKey(q.getAction()));
+        if (Boolean.FALSE.equals(q.getSuccess())) keys.add(AuditIndex.DENIED);
+        return keys;
+    }
+
+    private static boolean matches(AuditQuery q, AuditEntry e) {
+        if (q.getFrom() != null && e.getTime().isBefore(q.getFrom())) return false;
+        if (q.getTo() != null && e.getTime().isAfter(q.getTo())) return false;
+        return q.matches(e);
+    }
+
+    // Whole trail in time order (oldest first)
+    public List<AuditEntry> entries() {
+        List<AuditEntry> all = new ArrayList<>();
+        store.newestFirst().forEachRemaining(all::add);
+        Collections.reverse(all);
+        return all;
     }
 }
@@ -0,0 +1,37 @@
+package healthcaresystem.service;
+
+import java.util.Iterator;
+
+import healthcaresystem.model.audit.AuditEntry;
+
+// Storage for the audit trail (kept inside the CareHome unless another store is plugged in)
+public interface AuditStore {
+
+    void append(AuditEntry entry);
+
+    long size();
+
+    // Oldest position still held (earlier entries may have been archived; positions never change)
+    default long firstPosition() { return 0; }
+
+    // Walks the trail from the most recent entry backwards
+    default Iterator<AuditEntry> newestFirst() { return newestFirst(Long.MAX_VALUE); }
+
+    // Same walk, starting just before position `before` (0 = oldest entry; positions never change)
+    Iterator<AuditEntry> newestFirst(long before);
+
+    // The entry at one position (used by indexed audit queries)
+    default AuditEntry get(long position) {
+        Iterator<AuditEntry> it = (position < 0) ? null : newestFirst(position + 1);
+        if (it == null || position >= size() || !it.hasNext())
+            throw new IllegalArgumentException("No audit entry at " + position);
+        return it.next();
+    }
+
+    // true if the store persists entries itself (they then need no journaling or snapshotting)
+    default boolean isDurable() { return true; }
+
+    default void flush() { }
+
+    default void close() { }
+}
@@ -1,26 +1,109 @@
 package healthcaresystem.service;
 
-import healthcaresystem.model.facility.CareHome;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import healthcaresystem.metrics.Metrics;
+import healthcaresystem.model.people.PasswordHasher;
 import healthcaresystem.model.people.Staff;
 
 // Handles user authentication
 public class AuthService {
 
-    private final CareHome careHome;
+    private static final int CACHE_SIZE = 32;                 // recently verified logins kept
+    private static final long CACHE_TTL_MILLIS = 15 * 60_000L;
+
+    // checked for unknown usernames so they take as long as a wrong password
+    private static final String DUMMY_HASH = PasswordHasher.hash(Long.toHexString(new SecureRandom().nextLong()));
+
+    private final CareHomeService service;
+    private final Metrics metrics = Metrics.global();
+
+    // username (lower case) -> staff; re-read when the staff list grows or anyone is renamed
+    private final Map<String, Staff> byUsername = new HashMap<>();
+    private int indexedStaff = -1;
+    private long indexedRenames = -1;
+
+    // A successful PBKDF2 check is remembered as a fast salted digest of the password, so a
+    // terminal logging the same person in again skips the slow hash. The entry is dropped
+    // when the stored hash changes (password change) or after the TTL.
+    private final byte[] cacheSalt = new byte[16];
+    private final LinkedHashMap<String, Verified> verified = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Verified> eldest) { return size() > CACHE_SIZE; }
+    };
+
+    private static final class Verified {
+        final Staff staff;
+        final String storedHash;
+        final byte[] digest;
+        final long at;
+        Verified(Staff staff, String storedHash, byte[] digest, long at) {
+            this.staff = staff; this.storedHash = storedHash; this.digest = digest; this.at = at;
+        }
+    }
 
-    public AuthService(CareHome careHome) {
-        this.careHome = careHome;
+    public AuthService(CareHomeService service) {
+        this.service = service;
+        new SecureRandom().nextBytes(cacheSalt);
     }
 
-    // Validates username and password
+    // Validates username and password. The slow hash runs outside any lock; only the
+    // username index and the cache are guarded, so logins on other terminals don't queue.
     public Staff login(String username, String password) {
-        return careHome.getStaff().stream()
-                .filter(s -> s.getUsername().equalsIgnoreCase(username))
-                .filter(s -> {
-                    String p = s.getPassword();
-                    return p != null && p.equals(password);
-                })
-                .findFirst()
-                .orElse(null);
+        return metrics.time("auth.login", () -> {
+            if (username == null || password == null) return null;
+            Staff s = findByUsername(username);
+            if (s == null) {
+                PasswordHasher.verify(password, DUMMY_HASH); // same cost as a known user
+                return null;
+            }
+
+            String key = s.getUsername().toLowerCase(Locale.ROOT);
+            byte[] digest = quickDigest(password);
+            long now = System.currentTimeMillis();
+            Verified v;
+            synchronized (verified) { v = verified.get(key); }
+            if (v != null && v.staff == s && v.storedHash.equals(s.getPasswordHash())
+                    && now - v.at < CACHE_TTL_MILLIS && MessageDigest.isEqual(v.digest, digest))
+                return s;
+
+            String stored = s.getPasswordHash();
+            if (!s.checkPassword(password)) return null;
+            // legacy plaintext (normally hashed at load): hash it here, store it through the service
+            if (s.needsRehash()) service.upgradePasswordHash(s, stored, PasswordHasher.hash(password));
+            synchronized (verified) { verified.put(key, new Verified(s, s.getPasswordHash(), digest, now)); }
+            return s;
+        });
+    }
+
+    private synchronized Staff findByUsername(String username) {
+        List<Staff> staff = service.getCareHome().getStaff();
+        long renames = Staff.usernameChanges();
+        if (indexedStaff != staff.size() || indexedRenames != renames) {
+            byUsername.clear();
+            // first registered wins, as the old list scan did
+            for (Staff s : staff) byUsername.putIfAbsent(s.getUsername().toLowerCase(Locale.ROOT), s);
+            indexedStaff = staff.size();
+            indexedRenames = renames;
+        }
+        return byUsername.get(username.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private byte[] quickDigest(String password) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(cacheSalt);
+            return md.digest(password.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
@@ -0,0 +1,52 @@
+package healthcaresystem.service;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import healthcaresystem.model.audit.AuditEntry;
+import healthcaresystem.model.facility.CareHome;
+
+// Default audit store: the list inside the CareHome (saved with every snapshot)
+class CareHomeAuditStore implements AuditStore {
+
+    private final CareHome careHome;
+
+    CareHomeAuditStore(CareHome careHome) {
+        this.careHome = careHome;
+    }
+
+    @Override
+    public synchronized void append(AuditEntry entry) { careHome.getAuditLog().add(entry); }
+
+    @Override
+    public synchronized long size() { return careHome.getAuditLog().size(); }
+
+    // walks the list by index, so a page costs its own entries rather than a copy of the trail
+    @Override
+    public Iterator<AuditEntry> newestFirst(long before) {
+        List<AuditEntry> log = careHome.getAuditLog();
+        int start;
+        synchronized (this) { start = (int) Math.min(before, log.size()); } // appends may continue meanwhile
+        return new Iterator<>() {
+            int next = start - 1;
+
+            public boolean hasNext() { return next >= 0; }
+
+            public AuditEntry next() {
+                if (next < 0) throw new NoSuchElementException();
+                synchronized (CareHomeAuditStore.this) { return log.get(next--); }
+            }
+        };
+    }
+
+    @Override
+    public synchronized AuditEntry get(long position) {
+        List<AuditEntry> log = careHome.getAuditLog();
+        if (position < 0 || position >= log.size()) throw new IllegalArgumentException("No audit entry at " + position);
+        return log.get((int) position);
+    }
+
+    @Override
+    public boolean isDurable() { return false; }
+}
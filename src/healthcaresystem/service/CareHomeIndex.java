@@ -0,0 +1,164 @@
+package healthcaresystem.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import healthcaresystem.model.facility.Bed;
+import healthcaresystem.model.facility.CareHome;
+import healthcaresystem.model.facility.Room;
+import healthcaresystem.model.facility.Ward;
+import healthcaresystem.model.meds.AdministrationRecord;
+import healthcaresystem.model.meds.Prescription;
+import healthcaresystem.model.people.Resident;
+import healthcaresystem.model.people.Staff;
+
+// In-memory lookup tables over a CareHome (case-folded keys, O(1) finds).
+// Built once from the loaded CareHome, then kept current by the service's add* calls;
+// entities must be added through the service to be found. Lookups don't lock.
+class CareHomeIndex {
+
+    private final CareHome careHome;
+
+    private final Map<String, Bed> bedsById = new ConcurrentHashMap<>();
+    private final Map<String, Staff> staffByKey = new ConcurrentHashMap<>();        // id and username
+    private final Map<String, Resident> residentsByKey = new ConcurrentHashMap<>(); // id and name
+    private final Map<String, Resident> residentsById = new ConcurrentHashMap<>();  // id only (names can't shadow it)
+    private final Map<String, Prescription> rxById = new ConcurrentHashMap<>();
+
+    // secondary indexes for per-resident views; built on first use so a lazily
+    // loaded snapshot doesn't have to read its history sections at startup.
+    // History appends go through append* below and take the same lock as the build,
+    // so the lists are never iterated while another session adds to them.
+    private final Object history = new Object();
+    private volatile boolean historyIndexed;   // set only once the build has finished
+    private final Map<String, List<Prescription>> rxByResident = new HashMap<>();
+    private final Map<String, List<AdministrationRecord>> adminsByRx = new HashMap<>(); // time-ordered
+
+    CareHomeIndex(CareHome careHome) {
+        this.careHome = careHome;
+        for (Ward w : careHome.getWards()) addWard(w);
+        for (Staff s : careHome.getStaff()) addStaff(s);
+        for (Resident r : careHome.getResidents()) addResident(r);
+    }
+
+    private void indexHistory() {
+        if (historyIndexed) return;
+        synchronized (history) {
+            if (historyIndexed) return;
+            for (Prescription p : careHome.getPrescriptions()) indexPrescription(p);
+            for (AdministrationRecord a : careHome.getAdministrations()) indexAdministration(a);
+
+            // the stored log is append-ordered already; sort once in case an old file isn't
+            for (List<AdministrationRecord> l : adminsByRx.values())
+                l.sort(Comparator.comparing(AdministrationRecord::getTime));
+            historyIndexed = true;
+        }
+    }
+
+    // ---------- Maintenance (called after each mutation) ----------
+    void addWard(Ward w) {
+        for (Room r : w.getRooms())
+            for (Bed b : r.getBeds())
+                bedsById.putIfAbsent(key(b.getId()), b);
+    }
+
+    void addStaff(Staff s) {
+        // first registered wins, matching the old findFirst() scan order
+        staffByKey.putIfAbsent(key(s.getUsername()), s);
+        staffByKey.putIfAbsent(key(s.getId()), s);
+    }
+
+    void addResident(Resident r) {
+        residentsById.putIfAbsent(key(r.getId()), r);
+        residentsByKey.putIfAbsent(key(r.getId()), r);
+        residentsByKey.putIfAbsent(key(r.getName()), r);
+    }
+
+    // Adds to the CareHome list and the index in one step (the service's history appends)
+    void appendPrescription(Prescription p) {
+        synchronized (history) {
+            careHome.getPrescriptions().add(p);
+            if (historyIndexed) indexPrescription(p);
+        }
+    }
+
+    void appendAdministration(AdministrationRecord a) {
+        synchronized (history) {
+            careHome.getAdministrations().add(a);
+            if (historyIndexed) indexAdministration(a);
+        }
+    }
+
+    // Indexes a record that is already in the CareHome list
+    void addPrescription(Prescription p) {
+        synchronized (history) {
+            if (historyIndexed) indexPrescription(p); // otherwise picked up when the history is indexed
+        }
+    }
+
+    void addAdministration(AdministrationRecord a) {
+        synchronized (history) {
+            if (historyIndexed) indexAdministration(a);
+        }
+    }
+
+    private void indexPrescription(Prescription p) {
+        rxById.putIfAbsent(p.getId(), p); // prescription ids are matched exactly
+        rxByResident.computeIfAbsent(key(p.getPatient().getId()), k -> new ArrayList<>()).add(p);
+    }
+
+    // new records are always "now", so appending keeps each list in time order
+    private void indexAdministration(AdministrationRecord a) {
+        adminsByRx.computeIfAbsent(a.getPrescriptionId(), k -> new ArrayList<>()).add(a);
+    }
+
+    // ---------- Lookups ----------
+    // A miss is a miss: the index is current, so there is nothing to re-scan
+    Optional<Bed> bed(String bedId) {
+        return Optional.ofNullable(bedsById.get(key(bedId)));
+    }
+
+    Optional<Staff> staff(String usernameOrId) {
+        return Optional.ofNullable(staffByKey.get(key(usernameOrId)));
+    }
+
+    Optional<Resident> resident(String idOrName) {
+        return Optional.ofNullable(residentsByKey.get(key(idOrName)));
+    }
+
+    Optional<Resident> residentById(String id) {
+        return Optional.ofNullable(residentsById.get(key(id)));
+    }
+
+    Optional<Prescription> prescription(String rxId) {
+        indexHistory();
+        return Optional.ofNullable(rxById.get(rxId));
+    }
+
+    // Prescriptions written for a resident (creation order; a copy, safe to use after the lock is released)
+    List<Prescription> prescriptionsFor(Resident r) {
+        indexHistory();
+        synchronized (history) {
+            return List.copyOf(rxByResident.getOrDefault(key(r.getId()), List.of()));
+        }
+    }
+
+    // Administrations recorded against one prescription (oldest first)
+    List<AdministrationRecord> administrationsFor(String rxId) {
+        indexHistory();
+        synchronized (history) {
+            return List.copyOf(adminsByRx.getOrDefault(rxId, List.of()));
+        }
+    }
+
+    // trims and case-folds the same way equalsIgnoreCase compared before
+    private static String key(String s) {
+        return s == null ? "" : s.trim().toLowerCase(Locale.ROOT);
+    }
+}
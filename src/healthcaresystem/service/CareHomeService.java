@@ -1,17 +1,22 @@
 package healthcaresystem.service;
 
+import java.time.Clock;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
+import healthcaresystem.event.CareHomeEvent.*;
+import healthcaresystem.event.EventBus;
 import healthcaresystem.exception.NotRosteredException;
+import healthcaresystem.metrics.Metrics;
 import healthcaresystem.exception.UnauthorizedActionException;
 import healthcaresystem.model.facility.*;
 import healthcaresystem.model.meds.AdministrationRecord;
 import healthcaresystem.model.meds.Prescription;
 import healthcaresystem.model.meds.PrescriptionItem;
 import healthcaresystem.model.people.*;
+import healthcaresystem.model.schedule.ComplianceReport;
 import healthcaresystem.model.schedule.Roster;
 import healthcaresystem.model.schedule.*;
 import healthcaresystem.model.schedule.ShiftType;
@@ -21,19 +26,51 @@ import healthcaresystem.model.audit.AuditEntry;
 public class CareHomeService {
     private final CareHome careHome;
     private final AuditService audit;
+    private final CareHomeIndex index;
+    private final AllocationService allocation = new AllocationService();
+    private final SessionManager sessions = new SessionManager();
+    private ChangeLog changeLog = ChangeLog.NONE;
+    private volatile Clock clock = Clock.systemDefaultZone();
+    private final Metrics metrics = Metrics.global();
+    private final EventBus events = new EventBus();
 
     public CareHomeService() {
-        this.careHome = new CareHome();
-        this.audit = new AuditService(this.careHome);
+        this(new CareHome());
     }
 
     public CareHomeService(CareHome ch) {
         this.careHome = (ch == null) ? new CareHome() : ch;
         this.audit = new AuditService(this.careHome);
+        this.index = new CareHomeIndex(this.careHome); // built from whatever was loaded
     }
 
     public CareHome getCareHome() { return careHome; }
 
+    // Logged-in sessions; actors with a live session are authorized from its cached role and shift window
+    public SessionManager getSessions() { return sessions; }
+
+    // Every committed mutation (and audit entry) is also handed to this log
+    public void setChangeLog(ChangeLog changeLog) {
+        this.changeLog = (changeLog == null) ? ChangeLog.NONE : changeLog;
+        audit.setChangeLog(this.changeLog);
+    }
+
+    // Moves the audit trail out of the CareHome into another store (e.g. a mapped file store)
+    public void setAuditStore(AuditStore store) {
+        audit.setStore(store);
+    }
+
+    // Per-use-case counts, failures and latency (shared registry, also on JMX)
+    public Metrics getMetrics() { return metrics; }
+
+    // Domain events, published after each committed mutation (views and caches subscribe here instead of polling)
+    public EventBus getEvents() { return events; }
+
+    // Clock for the "rostered now" check (fixed in benchmarks so they don't depend on the hour)
+    public void setClock(Clock clock) {
+        this.clock = (clock == null) ? Clock.systemDefaultZone() : clock;
+    }
+
     // ---------- Auth/rule helpers ----------
     private void requireLoggedIn(Staff actor) {
         if (actor == null) throw new UnauthorizedActionException("Login required.");
@@ -42,7 +79,12 @@ public class CareHomeService {
     @SafeVarargs
     private final void requireRole(Staff actor, Class<? extends Staff>... roles) {
         requireLoggedIn(actor);
-        for (Class<? extends Staff> c : roles) if (c.isInstance(actor)) return;
+        Session session = sessions.sessionOf(actor);
+        if (session != null) {
+            if (session.hasRole(roles)) return;   // the cached role is the answer; no second check
+        } else {
+            for (Class<? extends Staff> c : roles) if (c.isInstance(actor)) return;
+        }
         throw new UnauthorizedActionException("Not allowed for role: " +
                 (actor == null ? "none" : actor.getClass().getSimpleName()));
     }
@@ -50,37 +92,27 @@ public class CareHomeService {
     private void requireRosteredNow(Staff actor) {
         requireLoggedIn(actor);
         Roster r = careHome.getRoster();
-        LocalDateTime now = LocalDateTime.now();
-        if (!r.isRostered(actor, now)) throw new NotRosteredException("Not rostered at " + now);
+        LocalDateTime now = LocalDateTime.now(clock);
+        Session session = sessions.sessionOf(actor);
+        boolean rostered = (session != null) ? session.isRosteredAt(r, now) : r.isRostered(actor, now);
+        if (!rostered) throw new NotRosteredException("Not rostered at " + now);
     }
 
-    // ---------- Finders ----------
+    // ---------- Finders (hash lookups via CareHomeIndex) ----------
     private Optional<Staff> findStaff(String key) {
-        String k = key.trim();
-        return careHome.getStaff().stream()
-            .filter(s -> s.getUsername().equalsIgnoreCase(k) || s.getId().equalsIgnoreCase(k))
-            .findFirst();
+        return index.staff(key);
     }
 
     private Optional<Resident> findResidentByIdOrName(String key) {
-        String k = key.trim();
-        return careHome.getResidents().stream()
-            .filter(r -> r.getId().equalsIgnoreCase(k) || r.getName().equalsIgnoreCase(k))
-            .findFirst();
+        return index.resident(key);
     }
 
     private Optional<Bed> findBed(String bedId) {
-        String k = bedId.trim();
-        return careHome.getWards().stream()
-            .flatMap(w -> w.getRooms().stream())
-            .flatMap(r -> r.getBeds().stream())
-            .filter(b -> b.getId().equalsIgnoreCase(k))
-            .findFirst();
+        return index.bed(bedId);
     }
 
     private List<Prescription> prescriptionsForResident(Resident r) {
-        return careHome.getPrescriptions().stream()
-            .filter(p -> p.getPatient().getId().equalsIgnoreCase(r.getId()))
+        return index.prescriptionsFor(r).stream()
             .sorted((a,b) -> b.getCreatedAt().compareTo(a.getCreatedAt()))
             .collect(Collectors.toList());
     }
@@ -91,7 +123,7 @@ public class CareHomeService {
         Manager admin = new Manager("M0", "AdminManager", "admin");
         admin.setPassword("admin123");
         addStaff(admin);
-        audit.log(null, "SEED_MANAGER", "admin/admin123", true);
+        audit.log(null, "SEED_MANAGER", "user=admin", true);
     }
 
     public void ensureDefaultFacility() {
@@ -111,233 +143,421 @@ public class CareHomeService {
             ward.getRooms().add(room);
         }
         careHome.getWards().add(ward);
+        index.addWard(ward);
+        careHome.getVacancies().rebuild();
+
+        // ward id, then pairs of (room id, comma-separated bed ids)
+        List<String> args = new ArrayList<>(List.of(wardId));
+        for (Room room : ward.getRooms()) {
+            args.add(room.getId());
+            args.add(room.getBeds().stream().map(Bed::getId).collect(Collectors.joining(",")));
+        }
+        changeLog.record("WARD", args.toArray(new String[0]));
     }
 
     // ---------- Simple CRUD ----------
-    public void addResident(Resident r) { careHome.getResidents().add(r); }
-    public void addStaff(Staff s) { careHome.getStaff().add(s); }
+    public void addResident(Resident r) {
+        careHome.getResidents().add(r);
+        index.addResident(r);
+        changeLog.record("RESIDENT", r.getId(), r.getName(), String.valueOf(r.getGender()));
+    }
+
+    public void addStaff(Staff s) {
+        careHome.getStaff().add(s);
+        careHome.getStaffRegistry().intern(s);
+        index.addStaff(s);
+        changeLog.record("STAFF", s.getClass().getSimpleName(), s.getId(), s.getName(), s.getUsername(), s.getPasswordHash());
+    }
 
-    // Places resident in bed if vacant
+    // Places resident in bed if vacant (atomic claim, so two callers can't both win)
     public boolean admitResidentToBed(Resident resident, Bed bed) {
-        if (bed.getOccupiedBy() != null) return false;
-        bed.setOccupiedBy(resident);
+        if (!bed.tryOccupy(resident)) return false;
+        careHome.getVacancies().bedChanged(bed);
+        changeLog.record("OCCUPY", bed.getId(), resident.getId());
+        events.publish(new BedOccupied(bed, resident));
         return true;
     }
 
     // ---------- Use-cases ----------
     // Manager: create resident and place into a specific bed
     public void addResidentToBed(String resId, String name, char gender, String bedId, Staff actor) {
-        requireRole(actor, Manager.class);
-        Bed bed = findBed(bedId).orElseThrow(() -> new IllegalArgumentException("Bed not found: " + bedId));
-        if (bed.getOccupiedBy() != null) throw new IllegalStateException("Bed already occupied: " + bedId);
+        metrics.time("service.addResidentToBed", () -> {
+            requireRole(actor, Manager.class);
+            Bed bed = findBed(bedId).orElseThrow(() -> new IllegalArgumentException("Bed not found: " + bedId));
+            if (bed.getOccupiedBy() != null) throw new IllegalStateException("Bed already occupied: " + bedId);
+
+            // claim the bed before registering the resident, so losing a race leaves nothing behind
+            Resident r = new Resident(resId, name, gender);
+            if (!bed.tryOccupy(r)) throw new IllegalStateException("Placement failed (occupied).");
+            careHome.getVacancies().bedChanged(bed);
+            addResident(r);
+            changeLog.record("OCCUPY", bed.getId(), r.getId());
+            events.publish(new BedOccupied(bed, r));
+
+            audit.log(actor, "ADD_RESIDENT_TO_BED", "resident=" + r.getId() + " bed=" + bed.getId(), true);
+        });
+    }
 
-        Resident r = new Resident(resId, name, gender);
-        addResident(r);
-        boolean ok = admitResidentToBed(r, bed);
-        if (!ok) throw new IllegalStateException("Placement failed (occupied).");
+    // Manager: admit many residents at once; beds are chosen from the vacancy index and the
+    // whole batch is placed or none of it is. One summary audit entry per batch.
+    public Map<String, String> admitBatch(List<AdmissionRequest> requests, Staff actor) {
+        return metrics.time("service.admitBatch", () -> {
+            requireRole(actor, Manager.class);
+            Set<String> ids = new HashSet<>();
+            for (AdmissionRequest req : requests) {
+                String key = req.getResidentId().trim().toLowerCase(Locale.ROOT);
+                if (!ids.add(key) || index.residentById(key).isPresent())
+                    throw new IllegalArgumentException("Duplicate resident id: " + req.getResidentId());
+            }
+
+            // take beds one by one from the vacancy index; on the first miss give them all back
+            List<Resident> residents = new ArrayList<>(requests.size());
+            List<Bed> beds = new ArrayList<>(requests.size());
+            for (AdmissionRequest req : requests) {
+                Resident r = new Resident(req.getResidentId(), req.getName(), req.getGender());
+                Bed bed = allocation.allocate(careHome, r, req.getPreferredWard(), req.isGenderMatchedRoom());
+                if (bed == null) {
+                    for (int j = 0; j < beds.size(); j++) {
+                        beds.get(j).tryVacate(residents.get(j));
+                        careHome.getVacancies().bedChanged(beds.get(j));
+                    }
+                    audit.log(actor, "ADMIT_BATCH", "rejected size=" + requests.size() + " no bed for " + req.getResidentId(), false);
+                    throw new IllegalStateException("No suitable bed for resident " + req.getResidentId() + "; nothing admitted.");
+                }
+                residents.add(r);
+                beds.add(bed);
+            }
 
-        audit.log(actor, "ADD_RESIDENT_TO_BED", "resident=" + r.getId() + " bed=" + bed.getId(), true);
+            Map<String, String> placed = new LinkedHashMap<>();
+            for (int i = 0; i < residents.size(); i++) {
+                Resident r = residents.get(i);
+                addResident(r);
+                changeLog.record("OCCUPY", beds.get(i).getId(), r.getId());
+                placed.put(r.getId(), beds.get(i).getId());
+                events.publish(new BedOccupied(beds.get(i), r));
+            }
+            audit.log(actor, "ADMIT_BATCH", "size=" + placed.size() + " residents=" + String.join(",", placed.keySet()), true);
+            return placed;
+        });
     }
 
     // Manager: add staff with credentials (Doctor/Nurse)
     public void addStaffWithCredentials(String role, String id, String name, String username, String password, Staff actor) {
-        requireRole(actor, Manager.class);
-        Staff s;
-        if ("DOCTOR".equalsIgnoreCase(role))      s = new Doctor(id, name, username);
-        else if ("NURSE".equalsIgnoreCase(role))  s = new Nurse(id, name, username);
-        else throw new IllegalArgumentException("Role must be Doctor or Nurse.");
-        s.setPassword(password);
-        addStaff(s);
-        audit.log(actor, "ADD_STAFF", "role=" + role + " id=" + id, true);
+        metrics.time("service.addStaffWithCredentials", () -> {
+            requireRole(actor, Manager.class);
+            Staff s;
+            if ("DOCTOR".equalsIgnoreCase(role))      s = new Doctor(id, name, username);
+            else if ("NURSE".equalsIgnoreCase(role))  s = new Nurse(id, name, username);
+            else throw new IllegalArgumentException("Role must be Doctor or Nurse.");
+            s.setPassword(password);
+            addStaff(s);
+            audit.log(actor, "ADD_STAFF", "role=" + role + " id=" + id, true);
+        });
     }
 
     // Manager: modify a staff member’s password
     public void modifyStaffPassword(String key, String newPassword, Staff actor) {
-        requireRole(actor, Manager.class);
-        Staff target = findStaff(key).orElseThrow(() -> new IllegalArgumentException("No staff found: " + key));
-        target.setPassword(newPassword);
-        audit.log(actor, "MODIFY_STAFF_PASSWORD", "staff=" + target.getId(), true);
+        metrics.time("service.modifyStaffPassword", () -> {
+            requireRole(actor, Manager.class);
+            Staff target = findStaff(key).orElseThrow(() -> new IllegalArgumentException("No staff found: " + key));
+            target.setPassword(newPassword);
+            changeLog.record("PASSWORD", target.getId(), target.getPasswordHash()); // only the hash reaches disk
+            audit.log(actor, "MODIFY_STAFF_PASSWORD", "staff=" + target.getId(), true);
+        });
+    }
+
+    // Replaces a legacy plaintext password with a hash computed by the caller (AuthService, after a
+    // successful login), unless the password changed meanwhile; journaled like a password change
+    public void upgradePasswordHash(Staff s, String legacy, String hash) {
+        if (s == null || legacy == null || !legacy.equals(s.getPasswordHash())) return;
+        s.setPasswordHash(hash);
+        changeLog.record("PASSWORD", s.getId(), hash);
     }
 
     // Manager: assign (or replace) a shift, keeping nurses ≤ 8h/day
     public void assignOrReplaceShift(String staffKey, LocalDate day, ShiftType type, boolean replace, Staff actor) {
-        requireRole(actor, Manager.class);
-        Staff staff = findStaff(staffKey).orElseThrow(() -> new IllegalArgumentException("No staff: " + staffKey));
-        var roster = careHome.getRoster();
-
-        if (replace) {
-            roster.getShifts().removeIf(s -> s.getStaff().equals(staff) && s.getDay().equals(day));
-            roster.addShift(new healthcaresystem.model.schedule.Shift(staff, day, type));
-            audit.log(actor, "ASSIGN_SHIFT", "REPLACE " + staff.getId() + " " + day + " " + type, true);
-            return;
-        }
+        metrics.time("service.assignOrReplaceShift", () -> {
+            requireRole(actor, Manager.class);
+            Staff staff = findStaff(staffKey).orElseThrow(() -> new IllegalArgumentException("No staff: " + staffKey));
+            var roster = careHome.getRoster();
+
+            if (replace) {
+                roster.removeShiftsFor(staff, day);
+                roster.addShift(new healthcaresystem.model.schedule.Shift(staff, day, type));
+                changeLog.record("SHIFT", staff.getId(), day.toString(), type.name(), "REPLACE");
+                events.publish(new ShiftAssigned(staff.getId(), day, type, true));
+                audit.log(actor, "ASSIGN_SHIFT", "REPLACE " + staff.getId() + " " + day + " " + type, true);
+                return;
+            }
 
-        if (staff instanceof Nurse) {
-            boolean hasShiftToday = roster.getShifts().stream()
-                    .anyMatch(s -> s.getStaff().equals(staff) && s.getDay().equals(day));
-            if (hasShiftToday)
-                throw new IllegalStateException("Nurse already has a shift on " + day + " (max 8h/day). Use replace.");
-        }
+            if (staff instanceof Nurse) {
+                boolean hasShiftToday = roster.shiftsOn(staff, day).stream().anyMatch(s -> s.getStaff() == staff);
+                if (hasShiftToday)
+                    throw new IllegalStateException("Nurse already has a shift on " + day + " (max 8h/day). Use replace.");
+            }
 
-        roster.addShift(new healthcaresystem.model.schedule.Shift(staff, day, type));
-        audit.log(actor, "ASSIGN_SHIFT", staff.getId() + " " + day + " " + type, true);
+            roster.addShift(new healthcaresystem.model.schedule.Shift(staff, day, type));
+            changeLog.record("SHIFT", staff.getId(), day.toString(), type.name(), "ADD");
+            events.publish(new ShiftAssigned(staff.getId(), day, type, false));
+            audit.log(actor, "ASSIGN_SHIFT", staff.getId() + " " + day + " " + type, true);
+        });
     }
 
     // Nurse/Doctor: view the resident in a bed (requires rostered now)
     public Optional<Resident> viewResidentInBed(String bedId, Staff actor) {
-        requireRole(actor, Nurse.class, Doctor.class);
-        requireRosteredNow(actor);
-        Bed b = findBed(bedId).orElseThrow(() -> new IllegalArgumentException("Bed not found: " + bedId));
-        Resident r = b.getOccupiedBy();
-        audit.log(actor, "VIEW_RESIDENT_IN_BED", "bed=" + bedId + " " + (r == null ? "VACANT" : "resident=" + r.getId()), true);
-        return Optional.ofNullable(r);
+        return metrics.time("service.viewResidentInBed", () -> {
+            requireRole(actor, Nurse.class, Doctor.class);
+            requireRosteredNow(actor);
+            Bed b = findBed(bedId).orElseThrow(() -> new IllegalArgumentException("Bed not found: " + bedId));
+            Resident r = b.getOccupiedBy();
+            audit.log(actor, "VIEW_RESIDENT_IN_BED", "bed=" + bedId + " " + (r == null ? "VACANT" : "resident=" + r.getId()), true);
+            return Optional.ofNullable(r);
+        });
     }
 
     // Doctor: create a prescription for the patient in a bed
     public Prescription attachPrescriptionToBed(String bedId, List<PrescriptionItem> items, Staff actor) {
-        requireRole(actor, Doctor.class);
-        requireRosteredNow(actor);
-
-        Bed bed = findBed(bedId).orElseThrow(() -> new IllegalArgumentException("Bed not found: " + bedId));
-        Resident patient = Optional.ofNullable(bed.getOccupiedBy())
-                .orElseThrow(() -> new IllegalStateException("No resident in bed."));
-
-        String pid = "RX-" + System.currentTimeMillis();
-        Prescription p = new Prescription(pid, patient, (Doctor) actor);
-        if (items != null) items.forEach(p::addItem);
-
-        careHome.getPrescriptions().add(p);
-        audit.log(actor, "ATTACH_PRESCRIPTION", "rx=" + p.getId() + " patient=" + patient.getId() + " items=" + p.getItems().size(), true);
-        return p;
+        return metrics.time("service.attachPrescriptionToBed", () -> {
+            requireRole(actor, Doctor.class);
+            requireRosteredNow(actor);
+
+            Bed bed = findBed(bedId).orElseThrow(() -> new IllegalArgumentException("Bed not found: " + bedId));
+            Resident patient = Optional.ofNullable(bed.getOccupiedBy())
+                    .orElseThrow(() -> new IllegalStateException("No resident in bed."));
+
+            String pid = "RX-" + System.currentTimeMillis();
+            Prescription p = new Prescription(pid, patient, (Doctor) actor);
+            if (items != null) items.forEach(p::addItem);
+
+            appendPrescription(p);
+
+            // one record carries the header plus every item (medicine, dose, frequency, notes)
+            List<String> args = new ArrayList<>(List.of(p.getId(), patient.getId(), actor.getId(), p.getCreatedAt().toString()));
+            for (PrescriptionItem it : p.getItems()) args.addAll(itemArgs(it));
+            changeLog.record("RX", args.toArray(new String[0]));
+            events.publish(new PrescriptionChanged(p.getId(), patient.getId(), PrescriptionChanged.Change.CREATED));
+            audit.log(actor, "ATTACH_PRESCRIPTION", "rx=" + p.getId() + " patient=" + patient.getId() + " items=" + p.getItems().size(), true);
+            return p;
+        });
     }
 
     // Nurse: move a resident from one bed to another
     public void moveResident(String fromBedId, String toBedId, Staff actor) {
-        requireRole(actor, Nurse.class);
-        requireRosteredNow(actor);
-
-        Bed from = findBed(fromBedId).orElseThrow(() -> new IllegalArgumentException("From-bed not found."));
-        Bed to   = findBed(toBedId).orElseThrow(() -> new IllegalArgumentException("To-bed not found."));
-
-        Resident r = Optional.ofNullable(from.getOccupiedBy())
-                .orElseThrow(() -> new IllegalStateException("Source bed is empty."));
-        if (to.getOccupiedBy() != null) throw new IllegalStateException("Destination bed is occupied.");
-
-        from.setOccupiedBy(null);
-        to.setOccupiedBy(r);
-
-        audit.log(actor, "MOVE_RESIDENT_BED", "resident=" + r.getId() + " from=" + from.getId() + " to=" + to.getId(), true);
+        metrics.time("service.moveResident", () -> {
+            requireRole(actor, Nurse.class);
+            requireRosteredNow(actor);
+
+            Bed from = findBed(fromBedId).orElseThrow(() -> new IllegalArgumentException("From-bed not found."));
+            Bed to   = findBed(toBedId).orElseThrow(() -> new IllegalArgumentException("To-bed not found."));
+
+            Resident r = Optional.ofNullable(from.getOccupiedBy())
+                    .orElseThrow(() -> new IllegalStateException("Source bed is empty."));
+            if (from == to) throw new IllegalStateException("Destination bed is occupied.");
+
+            // always claim the destination first, then release the source; undo the claim if the source changed
+            if (!to.tryOccupy(r)) throw new IllegalStateException("Destination bed is occupied.");
+            if (!from.tryVacate(r)) {
+                to.tryVacate(r);
+                throw new IllegalStateException("Source bed changed during the move.");
+            }
+            careHome.getVacancies().bedChanged(from);
+            careHome.getVacancies().bedChanged(to);
+            changeLog.record("MOVE", from.getId(), to.getId());
+            events.publish(new BedVacated(from, r));
+            events.publish(new BedOccupied(to, r));
+            events.publish(new ResidentMoved(r, from, to));
+
+            audit.log(actor, "MOVE_RESIDENT_BED", "resident=" + r.getId() + " from=" + from.getId() + " to=" + to.getId(), true);
+        });
     }
 
     // Doctor: add/edit/remove prescription items
     public void addPrescriptionItem(String rxId, PrescriptionItem item, Staff actor) {
-        requireRole(actor, Doctor.class);
-        requireRosteredNow(actor);
-        Prescription p = findRx(rxId);
-        p.addItem(item);
-        audit.log(actor, "RX_ADD_ITEM", "rx=" + rxId + " med=" + item.getMedicine(), true);
+        metrics.time("service.addPrescriptionItem", () -> {
+            requireRole(actor, Doctor.class);
+            requireRosteredNow(actor);
+            Prescription p = findRx(rxId);
+            p.addItem(item);
+            List<String> args = new ArrayList<>(List.of(rxId));
+            args.addAll(itemArgs(item));
+            changeLog.record("RX_ITEM_ADD", args.toArray(new String[0]));
+            events.publish(new PrescriptionChanged(rxId, p.getPatient().getId(), PrescriptionChanged.Change.ITEM_ADDED));
+            audit.log(actor, "RX_ADD_ITEM", "rx=" + rxId + " med=" + item.getMedicine(), true);
+        });
     }
 
     public void editPrescriptionItem(String rxId, int index, PrescriptionItem newItem, Staff actor) {
-        requireRole(actor, Doctor.class);
-        requireRosteredNow(actor);
-        Prescription p = findRx(rxId);
-        if (index < 0 || index >= p.getItems().size()) throw new IllegalArgumentException("Invalid item index.");
-        p.getItems().set(index, newItem);
-        audit.log(actor, "RX_EDIT_ITEM", "rx=" + rxId + " idx=" + index, true);
+        metrics.time("service.editPrescriptionItem", () -> {
+            requireRole(actor, Doctor.class);
+            requireRosteredNow(actor);
+            Prescription p = findRx(rxId);
+            if (index < 0 || index >= p.getItems().size()) throw new IllegalArgumentException("Invalid item index.");
+            p.getItems().set(index, newItem);
+            List<String> args = new ArrayList<>(List.of(rxId, Integer.toString(index)));
+            args.addAll(itemArgs(newItem));
+            changeLog.record("RX_ITEM_SET", args.toArray(new String[0]));
+            events.publish(new PrescriptionChanged(rxId, p.getPatient().getId(), PrescriptionChanged.Change.ITEM_EDITED));
+            audit.log(actor, "RX_EDIT_ITEM", "rx=" + rxId + " idx=" + index, true);
+        });
     }
 
     public void removePrescriptionItem(String rxId, int index, Staff actor) {
-        requireRole(actor, Doctor.class);
-        requireRosteredNow(actor);
-        Prescription p = findRx(rxId);
-        if (index < 0 || index >= p.getItems().size()) throw new IllegalArgumentException("Invalid item index.");
-        PrescriptionItem removed = p.getItems().remove(index);
-        audit.log(actor, "RX_REMOVE_ITEM", "rx=" + rxId + " med=" + removed.getMedicine(), true);
+        metrics.time("service.removePrescriptionItem", () -> {
+            requireRole(actor, Doctor.class);
+            requireRosteredNow(actor);
+            Prescription p = findRx(rxId);
+            if (index < 0 || index >= p.getItems().size()) throw new IllegalArgumentException("Invalid item index.");
+            PrescriptionItem removed = p.getItems().remove(index);
+            changeLog.record("RX_ITEM_REMOVE", rxId, Integer.toString(index));
+            events.publish(new PrescriptionChanged(rxId, p.getPatient().getId(), PrescriptionChanged.Change.ITEM_REMOVED));
+            audit.log(actor, "RX_REMOVE_ITEM", "rx=" + rxId + " med=" + removed.getMedicine(), true);
+        });
     }
 
     // Nurse: record a medication administration
     public AdministrationRecord administerDose(String bedId, String rxId, int itemIndex, String doseOverride, Staff actor) {
-        requireRole(actor, Nurse.class);
-        requireRosteredNow(actor);
-
-        Bed bed = findBed(bedId).orElseThrow(() -> new IllegalArgumentException("Bed not found."));
-        Resident patient = Optional.ofNullable(bed.getOccupiedBy())
-                .orElseThrow(() -> new IllegalStateException("No patient in this bed."));
-
-        Prescription rx = findRx(rxId);
-        if (!rx.getPatient().getId().equalsIgnoreCase(patient.getId()))
-            throw new IllegalArgumentException("Prescription does not belong to the bed’s patient.");
-        if (itemIndex < 0 || itemIndex >= rx.getItems().size())
-            throw new IllegalArgumentException("Invalid item index.");
-
-        PrescriptionItem it = rx.getItems().get(itemIndex);
-        String dose = (doseOverride == null || doseOverride.isBlank()) ? it.getDose() : doseOverride;
-
-        AdministrationRecord rec = new AdministrationRecord(rx.getId(), it.getMedicine(), dose, actor);
-        careHome.getAdministrations().add(rec);
-
-        audit.log(actor, "ADMINISTER_MEDICATION", "rx=" + rxId + " med=" + it.getMedicine() + " dose=" + dose + " patient=" + patient.getId(), true);
-        return rec;
+        return metrics.time("service.administerDose", () -> {
+            requireRole(actor, Nurse.class);
+            requireRosteredNow(actor);
+
+            Bed bed = findBed(bedId).orElseThrow(() -> new IllegalArgumentException("Bed not found."));
+            Resident patient = Optional.ofNullable(bed.getOccupiedBy())
+                    .orElseThrow(() -> new IllegalStateException("No patient in this bed."));
+
+            Prescription rx = findRx(rxId);
+            if (!rx.getPatient().getId().equalsIgnoreCase(patient.getId()))
+                throw new IllegalArgumentException("Prescription does not belong to the bed’s patient.");
+            if (itemIndex < 0 || itemIndex >= rx.getItems().size())
+                throw new IllegalArgumentException("Invalid item index.");
+
+            PrescriptionItem it = rx.getItems().get(itemIndex);
+            String dose = (doseOverride == null || doseOverride.isBlank()) ? it.getDose() : doseOverride;
+
+            AdministrationRecord rec = new AdministrationRecord(rx.getId(), it.getMedicine(), dose, actor);
+            appendAdministration(rec);
+            changeLog.record("DOSE", rec.getPrescriptionId(), rec.getMedicine(), rec.getDose(),
+                    rec.getTime().toString(), actor.getId());
+            events.publish(new DoseAdministered(rec, bed.getId(), patient.getId()));
+
+            audit.log(actor, "ADMINISTER_MEDICATION", "rx=" + rxId + " med=" + it.getMedicine() + " dose=" + dose + " patient=" + patient.getId(), true);
+            return rec;
+        });
     }
 
     // Nurse/Doctor: get administration log for the patient in a bed
     public List<AdministrationRecord> administrationLogForBed(String bedId, Staff actor) {
-        requireRole(actor, Nurse.class, Doctor.class);
-        requireRosteredNow(actor);
-
-        Bed bed = findBed(bedId).orElseThrow(() -> new IllegalArgumentException("Bed not found."));
-        Resident patient = Optional.ofNullable(bed.getOccupiedBy())
-                .orElseThrow(() -> new IllegalStateException("No resident in this bed."));
-
-        Set<String> rxIds = careHome.getPrescriptions().stream()
-                .filter(p -> p.getPatient().getId().equalsIgnoreCase(patient.getId()))
-                .map(Prescription::getId)
-                .collect(Collectors.toSet());
-
-        return careHome.getAdministrations().stream()
-                .filter(a -> rxIds.contains(a.getPrescriptionId()))
-                .sorted(Comparator.comparing(AdministrationRecord::getTime))
-                .collect(Collectors.toList());
+        return metrics.time("service.administrationLogForBed", () -> {
+            requireRole(actor, Nurse.class, Doctor.class);
+            requireRosteredNow(actor);
+
+            Bed bed = findBed(bedId).orElseThrow(() -> new IllegalArgumentException("Bed not found."));
+            Resident patient = Optional.ofNullable(bed.getOccupiedBy())
+                    .orElseThrow(() -> new IllegalStateException("No resident in this bed."));
+
+            // each per-prescription list is already time-ordered; only the result gets merged
+            Set<String> rxIds = new LinkedHashSet<>();
+            for (Prescription p : index.prescriptionsFor(patient)) rxIds.add(p.getId());
+
+            List<AdministrationRecord> log = new ArrayList<>();
+            for (String rxId : rxIds) log.addAll(index.administrationsFor(rxId));
+            if (rxIds.size() > 1) log.sort(Comparator.comparing(AdministrationRecord::getTime));
+            return log;
+        });
     }
 
     // Manager: list roster filtered by role (sorted by day/type/name)
     public List<Shift> listRosterForRole(Staff actor, Class<? extends Staff> role) {
-        requireRole(actor, Manager.class);
-        return careHome.getRoster().getShifts().stream()
-                .filter(s -> role.isInstance(s.getStaff()))
-                .sorted(java.util.Comparator
-                        .comparing(healthcaresystem.model.schedule.Shift::getDay)
-                        .thenComparing(healthcaresystem.model.schedule.Shift::getType)
-                        .thenComparing(s -> s.getStaff().getName(), String.CASE_INSENSITIVE_ORDER))
-                .collect(java.util.stream.Collectors.toList());
+        return metrics.time("service.listRosterForRole", () -> {
+            requireRole(actor, Manager.class);
+            return careHome.getRoster().getShifts().stream()
+                    .filter(s -> role.isInstance(s.getStaff()))
+                    .sorted(java.util.Comparator
+                            .comparing(healthcaresystem.model.schedule.Shift::getDay)
+                            .thenComparing(healthcaresystem.model.schedule.Shift::getType)
+                            .thenComparing(s -> s.getStaff().getName(), String.CASE_INSENSITIVE_ORDER))
+                    .collect(java.util.stream.Collectors.toList());
+        });
     }
 
     // Manager: list staff filtered by role
     public List<Staff> listStaffByRole(Staff actor, Class<? extends Staff> role) {
-        requireRole(actor, Manager.class);
-        return careHome.getStaff().stream()
-                .filter(role::isInstance)
-                .sorted(java.util.Comparator.comparing(Staff::getName, String.CASE_INSENSITIVE_ORDER))
-                .collect(java.util.stream.Collectors.toList());
+        return metrics.time("service.listStaffByRole", () -> {
+            requireRole(actor, Manager.class);
+            return careHome.getStaff().stream()
+                    .filter(role::isInstance)
+                    .sorted(java.util.Comparator.comparing(Staff::getName, String.CASE_INSENSITIVE_ORDER))
+                    .collect(java.util.stream.Collectors.toList());
+        });
     }
 
     // Anyone: run weekly compliance checks
     public void checkCompliance() {
-        careHome.checkCompliance();
-        audit.log(null, "CHECK_COMPLIANCE", "run", true);
+        metrics.time("service.checkCompliance", () -> {
+            careHome.checkCompliance();
+            audit.log(null, "CHECK_COMPLIANCE", "run", true);
+        });
+    }
+
+    // Anyone: all current violations for the 7 days from the first scheduled day
+    public ComplianceReport weeklyComplianceReport() {
+        return metrics.time("service.weeklyComplianceReport", () -> {
+            ComplianceReport report = careHome.getRoster().weeklyReport();
+            audit.log(null, "CHECK_COMPLIANCE", "run violations=" + report.getViolations().size(), true);
+            return report;
+        });
+    }
+
+    // Anyone: every roster rule violation between two days (inclusive)
+    public ComplianceReport complianceReport(LocalDate from, LocalDate to) {
+        return metrics.time("service.complianceReport", () -> {
+            ComplianceReport report = careHome.getRoster().complianceReport(from, to);
+            audit.log(null, "COMPLIANCE_REPORT", from + ".." + to + " violations=" + report.getViolations().size(), true);
+            return report;
+        });
     }
 
     // Returns a copy of the audit log
     public List<AuditEntry> auditLog() {
-        return new ArrayList<>(careHome.getAuditLog());
+        return metrics.time("service.auditLog", () -> {
+            return audit.entries();
+        });
+    }
+
+    // One page of the audit log, newest first (see AuditQuery for filters and the cursor)
+    public AuditPage auditPage(AuditQuery query) {
+        return metrics.time("service.auditPage", () -> audit.query(query));
+    }
+
+    // Bed id -> current occupant (null when vacant), in ward/room/bed order
+    public Map<String, Resident> occupancySnapshot() {
+        Map<String, Resident> beds = new LinkedHashMap<>();
+        for (Ward w : careHome.getWards())
+            for (Room r : w.getRooms())
+                for (Bed b : r.getBeds()) beds.put(b.getId(), b.getOccupiedBy());
+        return Collections.unmodifiableMap(beds);
+    }
+
+    // Runs an action with no other service call in progress (e.g. writing a snapshot)
+    public void runExclusive(Runnable action) {
+        action.run();
     }
 
     // ---------- helpers ----------
+    // history appends: list and index are updated under the index's history lock
+    private void appendPrescription(Prescription p) {
+        index.appendPrescription(p);
+    }
+
+    private void appendAdministration(AdministrationRecord rec) {
+        index.appendAdministration(rec);
+    }
+
+    private static List<String> itemArgs(PrescriptionItem it) {
+        return Arrays.asList(it.getMedicine(), it.getDose(), it.getFrequency(), it.getNotes());
+    }
+
     private Prescription findRx(String rxId) {
-        return careHome.getPrescriptions().stream()
-                .filter(p -> p.getId().equals(rxId))
-                .findFirst()
+        return index.prescription(rxId)
                 .orElseThrow(() -> new IllegalArgumentException("Prescription not found: " + rxId));
     }
 }
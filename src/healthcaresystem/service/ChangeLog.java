@@ -0,0 +1,10 @@
+package healthcaresystem.service;
+
+// Receives one compact record per committed state change (e.g. for a write-ahead journal)
+public interface ChangeLog {
+
+    // default sink used when nothing is journaling
+    ChangeLog NONE = (op, args) -> {};
+
+    void record(String op, String... args);
+}
@@ -0,0 +1,305 @@
+package healthcaresystem.service;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import healthcaresystem.model.audit.AuditEntry;
+import healthcaresystem.model.facility.*;
+import healthcaresystem.model.meds.AdministrationRecord;
+import healthcaresystem.model.meds.Prescription;
+import healthcaresystem.model.meds.PrescriptionItem;
+import healthcaresystem.model.people.*;
+import healthcaresystem.model.schedule.ComplianceReport;
+import healthcaresystem.model.schedule.Shift;
+import healthcaresystem.model.schedule.ShiftType;
+
+// CareHomeService for many sessions sharing one in-memory CareHome.
+//   structure lock : read for day-to-day actions, write for staff/roster/ward/prescription-item changes
+//   ward locks     : one per ward; bed actions lock the ward(s) involved, two wards in id order
+//                    (admissions need none: Bed.tryOccupy claims a bed atomically)
+//   history lock   : short critical section for resident appends; prescription and administration
+//                    appends share CareHomeIndex's history lock with its lazy build
+// The audit trail is thread-safe on its own (see AsyncAuditStore for the queued variant).
+public class ConcurrentCareHomeService extends CareHomeService {
+
+    private final ReentrantReadWriteLock structure = new ReentrantReadWriteLock();
+    private final Object historyLock = new Object();
+
+    private final Map<String, ReentrantLock> wardLocks = new ConcurrentHashMap<>();   // ward id -> lock
+    private final Map<String, String> wardOfBed = new ConcurrentHashMap<>();          // bed key -> ward id
+
+    // read-mostly occupancy view, rebuilt only after a bed changed
+    private final AtomicLong bedVersion = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    private static final class Snapshot {
+        final long version;
+        final Map<String, Resident> beds;
+        Snapshot(long version, Map<String, Resident> beds) { this.version = version; this.beds = beds; }
+    }
+
+    // wards are mapped on first use (wardOf), not here, so the constructor calls nothing overridable
+    public ConcurrentCareHomeService(CareHome ch) {
+        super(ch);
+    }
+
+    // ---------- lock helpers ----------
+    // lock waits are timed too ("lock.*"), so contention shows up next to the use-case latencies
+    private <T> T read(Supplier<T> action) {
+        long waited = System.nanoTime();
+        structure.readLock().lock();
+        getMetrics().record("lock.structure.read", System.nanoTime() - waited, null);
+        try { return action.get(); } finally { structure.readLock().unlock(); }
+    }
+
+    private void read(Runnable action) {
+        read(() -> { action.run(); return null; });
+    }
+
+    private <T> T write(Supplier<T> action) {
+        long waited = System.nanoTime();
+        structure.writeLock().lock();
+        getMetrics().record("lock.structure.write", System.nanoTime() - waited, null);
+        try { return action.get(); } finally { structure.writeLock().unlock(); }
+    }
+
+    private void write(Runnable action) {
+        write(() -> { action.run(); return null; });
+    }
+
+    // Runs under the structure read lock plus the locks of every ward holding these beds
+    private <T> T withBeds(Supplier<T> action, String... bedIds) {
+        return read(() -> {
+            List<Lock> held = wardLocksFor(bedIds);
+            long waited = System.nanoTime();
+            held.forEach(Lock::lock);
+            getMetrics().record("lock.ward", System.nanoTime() - waited, null);
+            try {
+                return action.get();
+            } finally {
+                for (int i = held.size() - 1; i >= 0; i--) held.get(i).unlock();
+            }
+        });
+    }
+
+    private void withBeds(Runnable action, String... bedIds) {
+        withBeds(() -> { action.run(); return null; }, bedIds);
+    }
+
+    // distinct ward locks in ward id order, so two-bed actions can't deadlock;
+    // unknown beds take no lock (the action itself reports them)
+    private List<Lock> wardLocksFor(String... bedIds) {
+        SortedSet<String> wards = new TreeSet<>();
+        for (String bedId : bedIds) {
+            String ward = wardOf(bedId);
+            if (ward != null) wards.add(ward);
+        }
+        List<Lock> locks = new ArrayList<>(wards.size());
+        for (String w : wards) locks.add(wardLocks.get(w));
+        return locks;
+    }
+
+    private String wardOf(String bedId) {
+        String key = bedKey(bedId);
+        String ward = wardOfBed.get(key);
+        if (ward == null) {
+            mapWards(); // wards added straight to the CareHome
+            ward = wardOfBed.get(key);
+        }
+        return ward;
+    }
+
+    private synchronized void mapWards() {
+        for (Ward w : getCareHome().getWards()) {
+            wardLocks.computeIfAbsent(w.getId(), k -> new ReentrantLock());
+            for (Room r : w.getRooms())
+                for (Bed b : r.getBeds()) wardOfBed.putIfAbsent(bedKey(b.getId()), w.getId());
+        }
+    }
+
+    private static String bedKey(String bedId) {
+        return bedId == null ? "" : bedId.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // ---------- structural changes (exclusive) ----------
+    @Override
+    public void setChangeLog(ChangeLog changeLog) { write(() -> super.setChangeLog(changeLog)); }
+
+    @Override
+    public void setAuditStore(AuditStore store) { write(() -> super.setAuditStore(store)); }
+
+    @Override
+    public void ensureDefaultAdmin() { write(super::ensureDefaultAdmin); }
+
+    @Override
+    public void ensureDefaultFacility() {
+        write(() -> {
+            super.ensureDefaultFacility();
+            mapWards();
+        });
+    }
+
+    @Override
+    public void addStaff(Staff s) { write(() -> super.addStaff(s)); }
+
+    @Override
+    public void addStaffWithCredentials(String role, String id, String name, String username, String password, Staff actor) {
+        write(() -> super.addStaffWithCredentials(role, id, name, username, password, actor));
+    }
+
+    @Override
+    public void modifyStaffPassword(String key, String newPassword, Staff actor) {
+        write(() -> super.modifyStaffPassword(key, newPassword, actor));
+    }
+
+    @Override
+    public void upgradePasswordHash(Staff s, String legacy, String hash) {
+        write(() -> super.upgradePasswordHash(s, legacy, hash));
+    }
+
+    @Override
+    public void assignOrReplaceShift(String staffKey, LocalDate day, ShiftType type, boolean replace, Staff actor) {
+        write(() -> super.assignOrReplaceShift(staffKey, day, type, replace, actor));
+    }
+
+    // items are read by dosing, so editing them waits for in-flight actions
+    @Override
+    public void addPrescriptionItem(String rxId, PrescriptionItem item, Staff actor) {
+        write(() -> super.addPrescriptionItem(rxId, item, actor));
+    }
+
+    @Override
+    public void editPrescriptionItem(String rxId, int index, PrescriptionItem newItem, Staff actor) {
+        write(() -> super.editPrescriptionItem(rxId, index, newItem, actor));
+    }
+
+    @Override
+    public void removePrescriptionItem(String rxId, int index, Staff actor) {
+        write(() -> super.removePrescriptionItem(rxId, index, actor));
+    }
+
+    @Override
+    public void runExclusive(Runnable action) { write(action); }
+
+    // ---------- bed actions ----------
+    // moves still lock both wards so views never see the resident in two beds
+    @Override
+    public boolean admitResidentToBed(Resident resident, Bed bed) {
+        return read(() -> {
+            boolean ok = super.admitResidentToBed(resident, bed);
+            if (ok) bedVersion.incrementAndGet();
+            return ok;
+        });
+    }
+
+    @Override
+    public void addResidentToBed(String resId, String name, char gender, String bedId, Staff actor) {
+        read(() -> {
+            super.addResidentToBed(resId, name, gender, bedId, actor);
+            bedVersion.incrementAndGet();
+        });
+    }
+
+    // batches are rare and must see a stable set of beds, so they run alone
+    @Override
+    public Map<String, String> admitBatch(List<AdmissionRequest> requests, Staff actor) {
+        return write(() -> {
+            Map<String, String> placed = super.admitBatch(requests, actor);
+            bedVersion.incrementAndGet();
+            return placed;
+        });
+    }
+
+    @Override
+    public void moveResident(String fromBedId, String toBedId, Staff actor) {
+        withBeds(() -> {
+            super.moveResident(fromBedId, toBedId, actor);
+            bedVersion.incrementAndGet();
+        }, fromBedId, toBedId);
+    }
+
+    @Override
+    public Optional<Resident> viewResidentInBed(String bedId, Staff actor) {
+        return withBeds(() -> super.viewResidentInBed(bedId, actor), bedId);
+    }
+
+    @Override
+    public Prescription attachPrescriptionToBed(String bedId, List<PrescriptionItem> items, Staff actor) {
+        return withBeds(() -> super.attachPrescriptionToBed(bedId, items, actor), bedId);
+    }
+
+    @Override
+    public AdministrationRecord administerDose(String bedId, String rxId, int itemIndex, String doseOverride, Staff actor) {
+        return withBeds(() -> super.administerDose(bedId, rxId, itemIndex, doseOverride, actor), bedId);
+    }
+
+    @Override
+    public List<AdministrationRecord> administrationLogForBed(String bedId, Staff actor) {
+        return withBeds(() -> super.administrationLogForBed(bedId, actor), bedId);
+    }
+
+    // ---------- appends ----------
+    @Override
+    public void addResident(Resident r) {
+        synchronized (historyLock) { super.addResident(r); }
+    }
+
+    // ---------- reads ----------
+    @Override
+    public List<Shift> listRosterForRole(Staff actor, Class<? extends Staff> role) {
+        return read(() -> super.listRosterForRole(actor, role));
+    }
+
+    @Override
+    public List<Staff> listStaffByRole(Staff actor, Class<? extends Staff> role) {
+        return read(() -> super.listStaffByRole(actor, role));
+    }
+
+    @Override
+    public void checkCompliance() { read(super::checkCompliance); }
+
+    @Override
+    public ComplianceReport weeklyComplianceReport() { return read(super::weeklyComplianceReport); }
+
+    @Override
+    public ComplianceReport complianceReport(LocalDate from, LocalDate to) {
+        return read(() -> super.complianceReport(from, to));
+    }
+
+    @Override
+    public List<AuditEntry> auditLog() { return read(super::auditLog); }
+
+    @Override
+    public AuditPage auditPage(AuditQuery query) { return read(() -> super.auditPage(query)); }
+
+    // Shared immutable view; only rebuilt when a bed has changed since the last one
+    @Override
+    public Map<String, Resident> occupancySnapshot() {
+        Snapshot s = snapshot;
+        long version = bedVersion.get();
+        if (s != null && s.version == version) return s.beds;
+        Map<String, Resident> beds = read(() -> {
+            // each ward is copied under its own lock so no half-done move is visible
+            Map<String, Resident> all = new LinkedHashMap<>();
+            for (Ward w : getCareHome().getWards()) {
+                Lock lock = wardLocks.computeIfAbsent(w.getId(), k -> new ReentrantLock());
+                lock.lock();
+                try {
+                    for (Room r : w.getRooms())
+                        for (Bed b : r.getBeds()) all.put(b.getId(), b.getOccupiedBy());
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return Collections.unmodifiableMap(all);
+        });
+        snapshot = new Snapshot(version, beds);
+        return beds;
+    }
+}
@@ -0,0 +1,72 @@
+package healthcaresystem.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import healthcaresystem.model.people.Staff;
+import healthcaresystem.model.schedule.Roster;
+import healthcaresystem.model.schedule.Shift;
+import healthcaresystem.model.schedule.ShiftType;
+
+// A logged-in staff member, identified by an opaque token (see SessionManager).
+// Caches the resolved role and the actor's shift window for the day; the window is
+// re-read when the roster version or the date changes.
+public class Session {
+
+    private final String token;
+    private final Staff staff;
+    private final Class<? extends Staff> role;
+    private final long createdAt;
+    private volatile long lastSeen;
+    private volatile boolean closed;
+
+    private LocalDate windowDay;
+    private long windowVersion = -1;
+    private List<ShiftType> window = List.of();
+
+    Session(String token, Staff staff, long now) {
+        this.token = token;
+        this.staff = staff;
+        this.role = staff.getClass();
+        this.createdAt = now;
+        this.lastSeen = now;
+    }
+
+    // Getters
+    public String getToken() { return token; }
+    public Staff getStaff() { return staff; }
+    public Class<? extends Staff> getRole() { return role; }
+    public long getCreatedAt() { return createdAt; }
+    public long getLastSeen() { return lastSeen; }
+
+    @SafeVarargs
+    public final boolean hasRole(Class<? extends Staff>... roles) {
+        for (Class<? extends Staff> c : roles) if (c.isAssignableFrom(role)) return true;
+        return false;
+    }
+
+    // Same answer as Roster.isRostered, from the cached window
+    public synchronized boolean isRosteredAt(Roster roster, LocalDateTime at) {
+        LocalDate day = at.toLocalDate();
+        if (!day.equals(windowDay) || roster.getVersion() != windowVersion) {
+            windowVersion = roster.getVersion();
+            windowDay = day;
+            List<ShiftType> types = new ArrayList<>(2);
+            for (Shift s : roster.shiftsOn(staff, day)) types.add(s.getType());
+            window = types;
+        }
+        for (ShiftType t : window) if (t.covers(at.toLocalTime())) return true;
+        return false;
+    }
+
+    // ---------- used by SessionManager ----------
+    void touch(long now) { lastSeen = now; }
+    void close() { closed = true; }
+    boolean isClosed() { return closed; }
+
+    long deadline(long idleMillis, long absoluteMillis) {
+        return Math.min(lastSeen + idleMillis, createdAt + absoluteMillis);
+    }
+}
@@ -0,0 +1,161 @@
+package healthcaresystem.service;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import healthcaresystem.model.people.Staff;
+
+// Issues session tokens with an idle timeout and an absolute lifetime.
+// Lookups are lock-free map reads that check the session's deadline themselves, so the
+// per-request authorization checks never queue on a shared monitor.
+// Expiry is driven by a hashed timer wheel: each session sits in the slot of its deadline tick.
+// The wheel is advanced by one ticker at a time: a lookup that sees a new tick tries the wheel
+// lock and moves on if another thread already holds it. Activity does not move a session in
+// the wheel; when its slot comes round it is re-filed if still live.
+public class SessionManager {
+
+    public static final Duration DEFAULT_IDLE = Duration.ofMinutes(30);
+    public static final Duration DEFAULT_ABSOLUTE = Duration.ofHours(12);
+    private static final int SLOTS = 64;
+
+    private final Clock clock;
+    private final long idleMillis, absoluteMillis, tickMillis;
+    private final SecureRandom random = new SecureRandom();
+
+    private final Map<String, Session> byToken = new ConcurrentHashMap<>();
+    private final Map<Staff, Session> byStaff = new ConcurrentHashMap<>(); // latest session per person (Staff has identity equality)
+    private final ReentrantLock wheelLock = new ReentrantLock();          // guards wheel and currentTick writes
+    private final List<ArrayDeque<Session>> wheel = new ArrayList<>(SLOTS);
+    private volatile long currentTick;
+
+    public SessionManager() {
+        this(Clock.systemDefaultZone(), DEFAULT_IDLE, DEFAULT_ABSOLUTE);
+    }
+
+    public SessionManager(Clock clock, Duration idle, Duration absolute) {
+        this.clock = clock;
+        this.idleMillis = idle.toMillis();
+        this.absoluteMillis = absolute.toMillis();
+        // a rotation covers the idle timeout, so a live session is re-filed about once per timeout
+        this.tickMillis = Math.max(1, idleMillis / SLOTS);
+        for (int i = 0; i < SLOTS; i++) wheel.add(new ArrayDeque<>());
+        this.currentTick = clock.millis() / tickMillis;
+    }
+
+    // Starts a session for an authenticated staff member
+    public Session open(Staff staff) {
+        byte[] raw = new byte[18];
+        random.nextBytes(raw);
+        wheelLock.lock();
+        try {
+            long now = advance();
+            Session s = new Session(Base64.getUrlEncoder().withoutPadding().encodeToString(raw), staff, now);
+            byToken.put(s.getToken(), s);
+            byStaff.put(staff, s);
+            schedule(s);
+            return s;
+        } finally {
+            wheelLock.unlock();
+        }
+    }
+
+    // Live session for a token (and marks it active), or null if unknown or expired
+    public Session get(String token) {
+        long now = tick();
+        Session s = token == null ? null : byToken.get(token);
+        if (s == null) return null;
+        if (expired(s, now)) { evict(s); return null; }
+        s.touch(now);
+        return s;
+    }
+
+    // Staff member behind a token, or null
+    public Staff user(String token) {
+        Session s = get(token);
+        return s == null ? null : s.getStaff();
+    }
+
+    // Live session of this staff member, if they are logged in (used for cached authorization)
+    public Session sessionOf(Staff staff) {
+        long now = tick();
+        Session s = staff == null ? null : byStaff.get(staff);
+        if (s == null) return null;
+        if (expired(s, now)) { evict(s); return null; }
+        return s;
+    }
+
+    public void close(String token) {
+        Session s = token == null ? null : byToken.get(token);
+        if (s != null) evict(s);
+    }
+
+    public int size() {
+        wheelLock.lock();
+        try {
+            advance();
+        } finally {
+            wheelLock.unlock();
+        }
+        return byToken.size();
+    }
+
+    // ---------- timer wheel ----------
+    // Advances the wheel if a tick has passed and nobody else is already doing it
+    private long tick() {
+        long now = clock.millis();
+        if (now / tickMillis > currentTick && wheelLock.tryLock()) {
+            try {
+                advance();
+            } finally {
+                wheelLock.unlock();
+            }
+        }
+        return now;
+    }
+
+    // caller holds wheelLock
+    private long advance() {
+        long now = clock.millis();
+        long target = now / tickMillis;
+        if (target <= currentTick) return now;
+        // after a long pause every slot is due once; otherwise only the ticks that passed
+        long from = Math.max(currentTick + 1, target - SLOTS + 1);
+        currentTick = target;
+        for (long t = from; t <= target; t++) {
+            ArrayDeque<Session> slot = wheel.get((int) (t % SLOTS));
+            int n = slot.size();
+            for (int i = 0; i < n; i++) {
+                Session s = slot.poll();
+                if (s.isClosed()) continue;
+                if (expired(s, now)) evict(s);
+                else schedule(s);
+            }
+        }
+        return now;
+    }
+
+    private void schedule(Session s) {
+        long due = Math.max(currentTick + 1, s.deadline(idleMillis, absoluteMillis) / tickMillis);
+        // deadlines beyond one rotation land early and are simply re-filed
+        wheel.get((int) (Math.min(due, currentTick + SLOTS) % SLOTS)).add(s);
+    }
+
+    private boolean expired(Session s, long now) {
+        return s.isClosed() || now >= s.deadline(idleMillis, absoluteMillis);
+    }
+
+    // safe without the wheel lock: the wheel drops closed sessions when their slot comes round
+    private void evict(Session s) {
+        s.close();
+        byToken.remove(s.getToken(), s);
+        byStaff.remove(s.getStaff(), s);
+    }
+}
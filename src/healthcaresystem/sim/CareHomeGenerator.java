@@ -0,0 +1,250 @@
+package healthcaresystem.sim;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import healthcaresystem.model.audit.AuditEntry;
+import healthcaresystem.model.facility.Bed;
+import healthcaresystem.model.facility.CareHome;
+import healthcaresystem.model.facility.Room;
+import healthcaresystem.model.facility.Ward;
+import healthcaresystem.model.meds.AdministrationRecord;
+import healthcaresystem.model.meds.Prescription;
+import healthcaresystem.model.meds.PrescriptionItem;
+import healthcaresystem.model.people.Doctor;
+import healthcaresystem.model.people.Manager;
+import healthcaresystem.model.people.Nurse;
+import healthcaresystem.model.people.PasswordHasher;
+import healthcaresystem.model.people.Resident;
+import healthcaresystem.model.people.Staff;
+import healthcaresystem.model.schedule.Shift;
+import healthcaresystem.model.schedule.ShiftType;
+
+// Builds large, realistic CareHome graphs for load tests and benchmarks.
+// The same seed and settings always give the same CareHome (dates are relative to `today`).
+//   wards      : rooms laid out like the default facility (1, 2, 4, 4, 4, 4 beds, repeating)
+//   residents  : single-gender rooms, `occupancy` of the beds filled
+//   roster     : `rosterDays` days ending two weeks after today; every day has a doctor on DAY
+//                and nurses on DAY and EVE, and no nurse works more than one shift a day
+//   history    : prescriptions, administrations and audit entries over the last `historyDays`
+// Every account has the password PASSWORD (hashed once and shared, so big staff lists stay cheap).
+public class CareHomeGenerator {
+
+    public static final String PASSWORD = "password";
+
+    private static final int[] ROOM_BEDS = {1, 2, 4, 4, 4, 4};
+    private static final String[] MEDICINES = {
+            "Paracetamol", "Ibuprofen", "Amoxicillin", "Metformin", "Atorvastatin", "Amlodipine",
+            "Omeprazole", "Lisinopril", "Levothyroxine", "Sertraline", "Warfarin", "Furosemide"};
+    private static final String[] FREQUENCIES = {"OD", "BD", "TDS", "PRN"};
+
+    private long seed = 42;
+    private LocalDate today = LocalDate.now();
+    private int wards = 2, roomsPerWard = 6;
+    private double occupancy = 0.9;
+    private int nurses = 12, doctors = 3, managers = 1;
+    private int rosterDays = 28, historyDays = 365;
+    private int prescriptions = -1, administrations = -1, auditEntries = -1;   // -1 = derived
+
+    public CareHomeGenerator seed(long seed) { this.seed = seed; return this; }
+    public CareHomeGenerator today(LocalDate today) { this.today = today; return this; }
+    public CareHomeGenerator wards(int wards) { this.wards = wards; return this; }
+    public CareHomeGenerator roomsPerWard(int rooms) { this.roomsPerWard = rooms; return this; }
+    public CareHomeGenerator occupancy(double occupancy) { this.occupancy = occupancy; return this; }
+    public CareHomeGenerator nurses(int nurses) { this.nurses = nurses; return this; }
+    public CareHomeGenerator doctors(int doctors) { this.doctors = doctors; return this; }
+    public CareHomeGenerator managers(int managers) { this.managers = managers; return this; }
+    public CareHomeGenerator rosterDays(int days) { this.rosterDays = days; return this; }
+    public CareHomeGenerator historyDays(int days) { this.historyDays = days; return this; }
+    public CareHomeGenerator prescriptions(int n) { this.prescriptions = n; return this; }
+    public CareHomeGenerator administrations(int n) { this.administrations = n; return this; }
+    public CareHomeGenerator auditEntries(int n) { this.auditEntries = n; return this; }
+
+    // Enough wards for about this many beds
+    public CareHomeGenerator beds(int beds) {
+        int perWard = 0;
+        for (int r = 0; r < roomsPerWard; r++) perWard += ROOM_BEDS[r % ROOM_BEDS.length];
+        this.wards = Math.max(1, (beds + perWard - 1) / perWard);
+        return this;
+    }
+
+    // Staff in the usual proportions (about one nurse per three beds, one doctor per five nurses)
+    public CareHomeGenerator staffFor(int beds) {
+        this.nurses = Math.max(4, beds / 3);
+        this.doctors = Math.max(1, nurses / 5);
+        this.managers = Math.max(1, beds / 200);
+        return this;
+    }
+
+    public CareHome generate() {
+        if (nurses < 1 || doctors < 1) throw new IllegalArgumentException("Need at least one nurse and one doctor.");
+        Random rnd = new Random(seed);
+        CareHome ch = new CareHome();
+
+        List<Staff> staff = new ArrayList<>();
+        List<Nurse> nurseList = new ArrayList<>();
+        List<Doctor> doctorList = new ArrayList<>();
+        String hash = PasswordHasher.hash(PASSWORD);
+        for (int i = 0; i < managers; i++) staff.add(account(new Manager("M" + i, name(rnd, "Manager", i), "manager" + i), hash));
+        for (int i = 0; i < doctors; i++) doctorList.add(account(new Doctor("D" + i, name(rnd, "Dr", i), "doctor" + i), hash));
+        for (int i = 0; i < nurses; i++) nurseList.add(account(new Nurse("N" + i, name(rnd, "Nurse", i), "nurse" + i), hash));
+        staff.addAll(doctorList);
+        staff.addAll(nurseList);
+        ch.setStaff(staff);
+
+        List<Resident> residents = buildFacility(ch, rnd);
+        ch.getRoster().setShifts(buildRoster(nurseList, doctorList));
+        buildHistory(ch, rnd, residents, nurseList, doctorList, staff);
+        return ch;
+    }
+
+    // ---------- parts ----------
+    private List<Resident> buildFacility(CareHome ch, Random rnd) {
+        List<Ward> wardList = new ArrayList<>();
+        List<Resident> residents = new ArrayList<>();
+        int resNo = 0;
+        for (int w = 1; w <= wards; w++) {
+            Ward ward = new Ward("W" + w);
+            for (int r = 1; r <= roomsPerWard; r++) {
+                Room room = new Room("R" + r);
+                char gender = rnd.nextBoolean() ? 'F' : 'M';
+                int beds = ROOM_BEDS[(r - 1) % ROOM_BEDS.length];
+                for (int b = 1; b <= beds; b++) {
+                    Bed bed = new Bed(ward.getId() + "-R" + r + "-B" + b);
+                    if (rnd.nextDouble() < occupancy) {
+                        Resident res = new Resident("RES" + (resNo++), name(rnd, "Resident", resNo), gender);
+                        bed.setOccupiedBy(res);
+                        residents.add(res);
+                    }
+                    room.getBeds().add(bed);
+                }
+                ward.getRooms().add(room);
+            }
+            wardList.add(ward);
+        }
+        ch.setWards(wardList);
+        ch.setResidents(residents);
+        ch.getVacancies().rebuild();   // beds were filled directly, not through bedChanged()
+        return residents;
+    }
+
+    // Five days on, two off, alternating DAY/EVE weeks; staggered so every day is covered
+    private List<Shift> buildRoster(List<Nurse> nurseList, List<Doctor> doctorList) {
+        List<Shift> shifts = new ArrayList<>();
+        LocalDate first = today.plusDays(14 - rosterDays);
+        for (int d = 0; d < rosterDays; d++) {
+            LocalDate day = first.plusDays(d);
+            boolean doctorOn = false, dayOn = false, eveOn = false;
+            for (int i = 0; i < doctorList.size(); i++) {
+                if ((d + i) % 7 >= 5) continue;
+                shifts.add(new Shift(doctorList.get(i), day, ShiftType.DAY));
+                doctorOn = true;
+            }
+            if (!doctorOn) shifts.add(new Shift(doctorList.get(d % doctorList.size()), day, ShiftType.DAY));
+
+            List<Nurse> off = new ArrayList<>();
+            for (int i = 0; i < nurseList.size(); i++) {
+                Nurse n = nurseList.get(i);
+                if ((d + i) % 7 >= 5) { off.add(n); continue; }
+                ShiftType t = ((d / 7 + i) % 2 == 0) ? ShiftType.DAY : ShiftType.EVE;
+                shifts.add(new Shift(n, day, t));
+                if (t == ShiftType.DAY) dayOn = true; else eveOn = true;
+            }
+            // small teams: call in someone from their day off
+            if (!dayOn && !off.isEmpty()) shifts.add(new Shift(off.remove(0), day, ShiftType.DAY));
+            if (!eveOn && !off.isEmpty()) shifts.add(new Shift(off.remove(0), day, ShiftType.EVE));
+        }
+        return shifts;
+    }
+
+    private void buildHistory(CareHome ch, Random rnd, List<Resident> residents,
+                              List<Nurse> nurseList, List<Doctor> doctorList, List<Staff> staff) {
+        if (residents.isEmpty()) return;
+        LocalDateTime start = today.minusDays(historyDays).atStartOfDay();
+        long spanMinutes = Math.max(1, historyDays * 24L * 60);
+
+        // about one prescription per resident per quarter, 1-3 items each
+        int rxCount = prescriptions >= 0 ? prescriptions : Math.max(residents.size(), residents.size() * historyDays / 90);
+        List<Prescription> rxList = new ArrayList<>(rxCount);
+        for (int i = 0; i < rxCount; i++) {
+            // the first rxs go one per resident, so everyone has something to administer
+            Resident res = residents.get(i < residents.size() ? i : rnd.nextInt(residents.size()));
+            LocalDateTime created = start.plusMinutes((long) (rnd.nextDouble() * spanMinutes));
+            Prescription p = new Prescription("RX" + i, res, doctorList.get(rnd.nextInt(doctorList.size())), created);
+            int items = 1 + rnd.nextInt(3);
+            for (int k = 0; k < items; k++) {
+                String med = MEDICINES[rnd.nextInt(MEDICINES.length)];
+                p.addItem(new PrescriptionItem(med, (1 + rnd.nextInt(8)) * 5 + "mg",
+                        FREQUENCIES[rnd.nextInt(FREQUENCIES.length)], ""));
+            }
+            rxList.add(p);
+        }
+        rxList.sort(Comparator.comparing(Prescription::getCreatedAt));
+        ch.getPrescriptions().addAll(rxList);
+
+        // about two doses a day for a month per prescription, always after it was written
+        int doseCount = administrations >= 0 ? administrations : rxCount * 60;
+        List<AdministrationRecord> doses = new ArrayList<>(doseCount);
+        LocalDateTime end = today.atStartOfDay();
+        for (int i = 0; i < doseCount; i++) {
+            Prescription p = rxList.get(rnd.nextInt(rxList.size()));
+            PrescriptionItem it = p.getItems().get(rnd.nextInt(p.getItems().size()));
+            long room = Math.max(1, Duration.between(p.getCreatedAt(), end).toMinutes());
+            LocalDateTime at = p.getCreatedAt().plusMinutes(1 + (long) (rnd.nextDouble() * room));
+            doses.add(new AdministrationRecord(p.getId(), it.getMedicine(), it.getDose(),
+                    nurseList.get(rnd.nextInt(nurseList.size())), at));
+        }
+        doses.sort(Comparator.comparing(AdministrationRecord::getTime));
+        ch.getAdministrations().addAll(doses);
+
+        // one entry per dose and prescription, plus bed views and the odd refused action
+        int auditCount = auditEntries >= 0 ? auditEntries : doseCount + rxCount + doseCount / 2;
+        List<AuditEntry> audit = new ArrayList<>(auditCount);
+        for (int i = 0; i < auditCount; i++) {
+            LocalDateTime at = start.plusMinutes((long) (rnd.nextDouble() * spanMinutes));
+            int kind = rnd.nextInt(10);
+            Staff actor;
+            String action, details;
+            boolean ok = rnd.nextInt(50) != 0;
+            if (kind < 5) {
+                actor = nurseList.get(rnd.nextInt(nurseList.size()));
+                action = "ADMINISTER_MEDICATION";
+                details = "rx=RX" + rnd.nextInt(rxCount) + " patient=" + residents.get(rnd.nextInt(residents.size())).getId();
+            } else if (kind < 8) {
+                actor = rnd.nextBoolean() ? nurseList.get(rnd.nextInt(nurseList.size())) : doctorList.get(rnd.nextInt(doctorList.size()));
+                action = "VIEW_RESIDENT_IN_BED";
+                details = "resident=" + residents.get(rnd.nextInt(residents.size())).getId();
+            } else if (kind < 9) {
+                actor = doctorList.get(rnd.nextInt(doctorList.size()));
+                action = "ATTACH_PRESCRIPTION";
+                details = "rx=RX" + rnd.nextInt(rxCount);
+            } else {
+                actor = managers > 0 ? staff.get(rnd.nextInt(managers)) : doctorList.get(0);
+                action = rnd.nextBoolean() ? "ASSIGN_SHIFT" : "MOVE_RESIDENT_BED";
+                details = "resident=" + residents.get(rnd.nextInt(residents.size())).getId();
+            }
+            audit.add(new AuditEntry(at, actor, action, details, ok));
+        }
+        audit.sort(Comparator.comparing(AuditEntry::getTime));
+        ch.getAuditLog().addAll(audit);
+    }
+
+    // ---------- helpers ----------
+    private static <T extends Staff> T account(T s, String hash) {
+        s.setPasswordHash(hash);
+        return s;
+    }
+
+    private static final String[] SURNAMES = {
+            "Smith", "Jones", "Taylor", "Brown", "Williams", "Wilson", "Johnson", "Davies", "Patel", "Wright",
+            "Nguyen", "Walker", "Roberts", "Thompson", "White", "Hughes", "Edwards", "Green", "Hall", "Wood"};
+
+    private static String name(Random rnd, String prefix, int n) {
+        return prefix + " " + SURNAMES[rnd.nextInt(SURNAMES.length)] + " " + n;
+    }
+}
@@ -0,0 +1,234 @@
+package healthcaresystem.sim;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import healthcaresystem.model.facility.Bed;
+import healthcaresystem.model.facility.CareHome;
+import healthcaresystem.model.facility.Room;
+import healthcaresystem.model.facility.Ward;
+import healthcaresystem.model.meds.Prescription;
+import healthcaresystem.model.people.Doctor;
+import healthcaresystem.model.people.Manager;
+import healthcaresystem.model.people.Nurse;
+import healthcaresystem.model.people.Resident;
+import healthcaresystem.model.people.Staff;
+import healthcaresystem.model.schedule.ShiftType;
+import healthcaresystem.service.CareHomeService;
+import healthcaresystem.service.ConcurrentCareHomeService;
+
+// Replays a ward's day against a CareHomeService from many threads and reports throughput and
+// latency percentiles per use case. Mix: 35% view administration log, 35% administer a dose,
+// 10% each admit, move and assign shift. The service clock is pinned to `at`, and only staff
+// rostered then are used, so roster checks pass the way they would on the ward.
+//   java healthcaresystem.sim.LoadDriver [beds] [threads] [opsPerThread] [seed]
+public class LoadDriver {
+
+    public enum Op {
+        VIEW_LOG(35), ADMINISTER(35), ADMIT(10), MOVE(10), ASSIGN_SHIFT(10);
+
+        final int weight;
+        Op(int weight) { this.weight = weight; }
+    }
+
+    private final CareHomeService service;
+    private final CareHome careHome;
+    private final LocalDate today;
+    private final List<Staff> nurses = new ArrayList<>(), clinicians = new ArrayList<>(), managers = new ArrayList<>();
+    private final List<Prescription> prescriptions;
+    private final List<Nurse> allNurses = new ArrayList<>();
+
+    // where the driver last saw each resident (its own moves keep this current)
+    private final Map<String, String> bedOf = new ConcurrentHashMap<>();
+    private final List<Resident> residents = new ArrayList<>();
+    private final Map<String, AtomicInteger> errors = new ConcurrentHashMap<>();
+    private final AtomicInteger admitted = new AtomicInteger();
+    private final int reserve;   // free beds kept back from admissions so moves keep working
+
+    public LoadDriver(CareHomeService service, LocalDateTime at) {
+        this.service = service;
+        this.careHome = service.getCareHome();
+        this.today = at.toLocalDate();
+        ZoneId zone = ZoneId.systemDefault();
+        service.setClock(Clock.fixed(at.atZone(zone).toInstant(), zone));
+
+        for (Staff s : careHome.getStaff()) {
+            if (s instanceof Manager) managers.add(s);
+            if (s instanceof Nurse) allNurses.add((Nurse) s);
+            if (!careHome.getRoster().isRostered(s, at)) continue;
+            if (s instanceof Nurse) { nurses.add(s); clinicians.add(s); }
+            if (s instanceof Doctor) clinicians.add(s);
+        }
+        if (nurses.isEmpty() || managers.isEmpty())
+            throw new IllegalStateException("Need a manager and a nurse rostered at " + at);
+
+        for (Ward w : careHome.getWards())
+            for (Room r : w.getRooms())
+                for (Bed b : r.getBeds())
+                    if (b.getOccupiedBy() != null) {
+                        bedOf.put(b.getOccupiedBy().getId(), b.getId());
+                        residents.add(b.getOccupiedBy());
+                    }
+        prescriptions = new ArrayList<>(careHome.getPrescriptions());
+        reserve = careHome.getVacancies().freeBeds() / 2;
+    }
+
+    public static void main(String[] args) {
+        int beds = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors() * 4;
+        int ops = args.length > 2 ? Integer.parseInt(args[2]) : 5000;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+
+        long t = System.nanoTime();
+        CareHome ch = new CareHomeGenerator().seed(seed).beds(beds).staffFor(beds).generate();
+        System.out.printf("generated %d beds, %d staff, %d shifts, %d prescriptions, %d administrations, %d audit entries in %.1fs%n",
+                careHomeBeds(ch), ch.getStaff().size(), ch.getRoster().getShifts().size(), ch.getPrescriptions().size(),
+                ch.getAdministrations().size(), ch.getAuditLog().size(), (System.nanoTime() - t) / 1e9);
+
+        LoadDriver driver = new LoadDriver(new ConcurrentCareHomeService(ch), LocalDate.now().atTime(10, 0));
+        System.out.println(driver.run(threads, ops, seed));
+    }
+
+    // Runs `threads` workers of `opsPerThread` operations each; returns the report
+    public String run(int threads, int opsPerThread, long seed) {
+        List<EnumMap<Op, long[]>> perThread = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < threads; i++) {
+            EnumMap<Op, long[]> latencies = new EnumMap<>(Op.class);
+            perThread.add(latencies);
+            Random rnd = new Random(seed + i);
+            Thread w = new Thread(() -> {
+                try { start.await(); } catch (InterruptedException e) { return; }
+                work(rnd, opsPerThread, latencies);
+            }, "load-" + i);
+            workers.add(w);
+            w.start();
+        }
+        long t0 = System.nanoTime();
+        start.countDown();
+        for (Thread w : workers) {
+            try { w.join(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        }
+        double seconds = (System.nanoTime() - t0) / 1e9;
+        return report(perThread, threads, seconds);
+    }
+
+    private void work(Random rnd, int ops, EnumMap<Op, long[]> latencies) {
+        int[] counts = new int[Op.values().length];
+        for (Op op : Op.values()) latencies.put(op, new long[Math.max(16, ops / 4)]);
+        for (int i = 0; i < ops; i++) {
+            Op op = pick(rnd);
+            long t = System.nanoTime();
+            try {
+                perform(op, rnd);
+            } catch (RuntimeException e) {
+                errors.computeIfAbsent(op + " " + e.getClass().getSimpleName(), k -> new AtomicInteger()).incrementAndGet();
+            }
+            long elapsed = System.nanoTime() - t;
+            long[] arr = latencies.get(op);
+            int n = counts[op.ordinal()];
+            if (n == arr.length) latencies.put(op, arr = Arrays.copyOf(arr, n * 2));
+            arr[n] = elapsed;
+            counts[op.ordinal()]++;
+        }
+        for (Op op : Op.values()) latencies.put(op, Arrays.copyOf(latencies.get(op), counts[op.ordinal()]));
+    }
+
+    private static Op pick(Random rnd) {
+        int roll = rnd.nextInt(100);
+        for (Op op : Op.values()) {
+            if (roll < op.weight) return op;
+            roll -= op.weight;
+        }
+        return Op.VIEW_LOG;
+    }
+
+    private void perform(Op op, Random rnd) {
+        switch (op) {
+            case VIEW_LOG: {
+                String bed = bedOf.get(residents.get(rnd.nextInt(residents.size())).getId());
+                service.administrationLogForBed(bed, any(clinicians, rnd));
+                break;
+            }
+            case ADMINISTER: {
+                Prescription p = prescriptions.get(rnd.nextInt(prescriptions.size()));
+                String bed = bedOf.get(p.getPatient().getId());
+                service.administerDose(bed, p.getId(), rnd.nextInt(p.getItems().size()), null, any(nurses, rnd));
+                break;
+            }
+            case ADMIT: {
+                // there is no discharge use case, so admissions stop at the reserve
+                if (careHome.getVacancies().freeBeds() <= reserve) throw new IllegalStateException("Home full.");
+                char gender = rnd.nextBoolean() ? 'F' : 'M';
+                Bed bed = careHome.getVacancies().bestFreeBed(gender, null, true);
+                if (bed == null) throw new IllegalStateException("No free bed.");
+                String id = "LOAD" + admitted.incrementAndGet();
+                service.addResidentToBed(id, "Load " + id, gender, bed.getId(), any(managers, rnd));
+                bedOf.put(id, bed.getId());
+                break;
+            }
+            case MOVE: {
+                // two workers may pick the same resident; the loser gets "Source bed is empty"
+                Resident r = residents.get(rnd.nextInt(residents.size()));
+                String from = bedOf.get(r.getId());
+                Bed to = careHome.getVacancies().bestFreeBed(r.getGender(), from.substring(0, from.indexOf('-')), true);
+                if (to == null) throw new IllegalStateException("No free bed.");
+                service.moveResident(from, to.getId(), any(nurses, rnd));
+                bedOf.put(r.getId(), to.getId());
+                break;
+            }
+            case ASSIGN_SHIFT: {
+                // future days only, so the rostered staff the driver relies on stay on shift
+                Nurse n = allNurses.get(rnd.nextInt(allNurses.size()));
+                LocalDate day = today.plusDays(1 + rnd.nextInt(13));
+                service.assignOrReplaceShift(n.getId(), day, rnd.nextBoolean() ? ShiftType.DAY : ShiftType.EVE,
+                        true, any(managers, rnd));
+                break;
+            }
+        }
+    }
+
+    private String report(List<EnumMap<Op, long[]>> perThread, int threads, double seconds) {
+        StringBuilder sb = new StringBuilder();
+        long total = 0;
+        for (Op op : Op.values()) {
+            long[] all = perThread.stream().map(m -> m.get(op)).flatMapToLong(Arrays::stream).sorted().toArray();
+            total += all.length;
+            sb.append(String.format("  %-13s n=%-8d p50=%8.3fms p90=%8.3fms p99=%8.3fms max=%8.3fms%n", op, all.length,
+                    percentile(all, 50), percentile(all, 90), percentile(all, 99),
+                    all.length == 0 ? 0 : all[all.length - 1] / 1e6));
+        }
+        String head = String.format("%d operations on %d threads in %.2fs = %.0f ops/s%n", total, threads, seconds, total / seconds);
+        return head + sb + "  errors: " + new TreeMap<>(errors);
+    }
+
+    private static Staff any(List<Staff> staff, Random rnd) {
+        return staff.get(rnd.nextInt(staff.size()));
+    }
+
+    private static double percentile(long[] sorted, int p) {
+        if (sorted.length == 0) return 0;
+        int i = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, i)] / 1e6;
+    }
+
+    private static int careHomeBeds(CareHome ch) {
+        int n = 0;
+        for (Ward w : ch.getWards())
+            for (Room r : w.getRooms()) n += r.getBeds().size();
+        return n;
+    }
+}
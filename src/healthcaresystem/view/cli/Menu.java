@@ -36,6 +36,7 @@ public class Menu {
             System.out.println("10) View Medicine Administration Log by BedID");
             System.out.println("C) Check compliance");
             System.out.println("A) Show logs");
+            System.out.println("M) Show metrics");
             System.out.println("0) Exit");
             System.out.print("Choice: ");
 
@@ -59,6 +60,7 @@ public class Menu {
 
                 case "C": case "c": controller.checkCompliance(); break;          // run weekly compliance check
                 case "A": case "a": controller.showAuditLogFlow(); break;         // print audit log
+                case "M": case "m": controller.showMetrics(); break;              // print call counts and latencies
 
                 case "0": return;                                                 // exit
                 default: System.out.println("Invalid choice.");
@@ -1,21 +1,55 @@
 package healthcaresystem.view.fx;
 
-import javafx.geometry.Insets;
-import javafx.geometry.Pos;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javafx.application.Platform;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.scene.Node;
 import javafx.scene.control.Button;
-import javafx.scene.layout.*;
+import javafx.scene.control.ListView;
 import javafx.stage.Stage;
 
-import healthcaresystem.model.facility.Ward;
-import healthcaresystem.model.facility.Room;
 import healthcaresystem.model.facility.Bed;
-
-// Builds the full visual layout of all wards, rooms, and beds
+import healthcaresystem.model.facility.Room;
+import healthcaresystem.model.facility.Ward;
+import healthcaresystem.model.people.Resident;
+import healthcaresystem.event.CareHomeEvent.BedEvent;
+import healthcaresystem.event.EventBus;
+
+// Bed board as a virtualized list with one row per room (the ward title sits on its first room).
+// Only rows on screen get a cell, and cells are reused while scrolling (see BedCells).
+// Each bed is a slot whose occupant is updated from the service's bed events, so an admission
+// or move restyles the one or two buttons involved instead of rebuilding the board. Events are
+// coalesced per bed and drained on the FX thread, so a burst costs one repaint per bed.
 public class BedBoardView {
 
+    // one bed on the board; cells watch `occupant`
+    static final class BedSlot {
+        final Bed bed;
+        final ObjectProperty<Resident> occupant;
+        BedSlot(Bed bed) { this.bed = bed; this.occupant = new SimpleObjectProperty<>(bed.getOccupiedBy()); }
+    }
+
+    static final class RoomRow {
+        final String wardId, roomId;
+        final boolean firstInWard;
+        final List<BedSlot> beds;
+        RoomRow(String wardId, String roomId, boolean firstInWard, List<BedSlot> beds) {
+            this.wardId = wardId; this.roomId = roomId; this.firstInWard = firstInWard; this.beds = beds;
+        }
+    }
+
     private final FxContext ctx;
     private final Runnable onRefresh;
+    private final Map<String, BedSlot> slots = new HashMap<>();   // lower-case bed id -> slot
+    private EventBus.Subscription subscription;
 
     public BedBoardView(FxContext ctx) {
         this(ctx, null);
@@ -26,43 +60,53 @@ public class BedBoardView {
         this.onRefresh = onRefresh;
     }
 
-    // Builds a horizontally scrollable set of wards, each containing its rooms and beds
+    // Builds the list once and starts listening for bed changes (call dispose() when done)
     public Node build() {
-
-        HBox wards = new HBox(24);
-        wards.setPadding(new Insets(10));
-        wards.setAlignment(Pos.TOP_LEFT);
-
-        // Loop through all wards in the care home
+        ObservableList<RoomRow> rows = FXCollections.observableArrayList();
         for (Ward w : ctx.service().getCareHome().getWards()) {
-
-            VBox wardBox = new VBox(10);
-            wardBox.getChildren().add(FxBits.h2("Ward " + w.getId()));
-
-            // Each ward contains multiple rooms
+            boolean first = true;
             for (Room r : w.getRooms()) {
+                List<BedSlot> beds = new ArrayList<>(r.getBeds().size());
+                for (Bed b : r.getBeds()) {
+                    BedSlot slot = new BedSlot(b);
+                    slots.put(key(b.getId()), slot);
+                    beds.add(slot);
+                }
+                rows.add(new RoomRow(w.getId(), r.getId(), first, beds));
+                first = false;
+            }
+        }
 
-                FlowPane roomPane = FxBits.roomPane("Room " + r.getId());
+        ListView<RoomRow> list = new ListView<>(rows);
+        list.setCellFactory(v -> new BedCells.RoomCell(this::openBed));
+        list.setPrefWidth(820);
+        list.setFocusTraversable(false);
 
-                // Each room contains multiple beds
-                for (Bed b : r.getBeds()) {
-                    Button bedBtn = FxBits.bedButton(b, ctx);
+        subscription = ctx.service().getEvents().subscribe(BedEvent.class, Platform::runLater, true,
+                e -> update(e.getBed().getId(), e.getOccupant()));
+        return list;
+    }
 
-                    // Opens details dialog for selected bed
-                    bedBtn.setOnAction(e -> 
-                        new BedDetailsDialog(ctx, b.getId(), onRefresh)
-                            .show((Stage) bedBtn.getScene().getWindow())
-                    );
+    // Re-reads every bed and updates only the ones that differ (safety net after dialogs)
+    public void resync() {
+        for (BedSlot slot : slots.values()) slot.occupant.set(slot.bed.getOccupiedBy());
+    }
 
-                    roomPane.getChildren().add(bedBtn);
-                }
+    public void dispose() {
+        if (subscription != null) subscription.cancel();
+    }
 
-                wardBox.getChildren().add(roomPane);
-            }
+    private void update(String bedId, Resident occupant) {
+        BedSlot slot = slots.get(key(bedId));
+        if (slot != null) slot.occupant.set(occupant);
+    }
 
-            wards.getChildren().add(wardBox);
-        }
+    // Opens details dialog for selected bed
+    private void openBed(BedSlot slot, Button source) {
+        new BedDetailsDialog(ctx, slot.bed.getId(), onRefresh).show((Stage) source.getScene().getWindow());
+    }
 
-        return wards;
+    private static String key(String bedId) {
+        return bedId.toLowerCase(Locale.ROOT);
     }
 }
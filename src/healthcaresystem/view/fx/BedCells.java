@@ -1,53 +1,112 @@
 package healthcaresystem.view.fx;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import javafx.beans.value.ChangeListener;
+import javafx.geometry.Insets;
 import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
 import javafx.scene.control.Tooltip;
-import javafx.scene.layout.Region;
-import healthcaresystem.model.facility.Bed;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+
 import healthcaresystem.model.people.Resident;
+import healthcaresystem.view.fx.BedBoardView.BedSlot;
+import healthcaresystem.view.fx.BedBoardView.RoomRow;
 
-// Utility class for creating styled bed buttons in the bed board
+// Reusable cells for the bed board
 final class BedCells {
     private BedCells() {}
 
-    // Creates a styled button representing a bed (color-coded by occupant)
-    static Button bedButton(Bed bed) {
-        Resident r = bed.getOccupiedBy();
+    // Styles are built once; a bed change only swaps which string a button uses
+    private static final String BASE = "-fx-background-radius: 8; -fx-border-radius: 8; "
+            + "-fx-border-color: #c8cfd9; -fx-border-width: 1;";
+    private static final String VACANT = BASE + " -fx-background-color: #eeeeee;";
+    private static final String MALE   = BASE + " -fx-background-color: #b9ddff;"; // blue
+    private static final String FEMALE = BASE + " -fx-background-color: #ffb9c7;"; // pink
+    private static final String OTHER  = BASE + " -fx-background-color: #ddd;";
 
-        String label = bed.getId();
-        String bg; // background color
-        String fg = "#ffffff"; // text color
+    // One room: optional ward title, room title and its bed buttons.
+    // Buttons, tooltips and listeners are created once per cell and rebound as the cell is reused.
+    static final class RoomCell extends ListCell<RoomRow> {
+        private final BiConsumer<BedSlot, Button> onOpen;
+        private final Label wardTitle = FxBits.h2("");
+        private final Label roomTitle = new Label();
+        private final HBox bedBox = new HBox(8);
+        private final VBox root = new VBox(6);
+        private final List<Button> buttons = new ArrayList<>();
+        private final List<ChangeListener<Resident>> listeners = new ArrayList<>();
+        private RoomRow bound;
 
-        // Color logic: gray for vacant, red for female, blue for male
-        if (r == null) {
-            bg = "#8a8a8a"; // vacant
-        } else if (Character.toUpperCase(r.getGender()) == 'F') {
-            bg = "#d64545"; // female
-        } else {
-            bg = "#2f6fd6"; // male
+        RoomCell(BiConsumer<BedSlot, Button> onOpen) {
+            this.onOpen = onOpen;
+            roomTitle.setMinWidth(70);
+            HBox row = new HBox(10, roomTitle, bedBox);
+            row.setPadding(new Insets(4, 6, 4, 6));
+            root.getChildren().add(row);
+        }
+
+        @Override
+        protected void updateItem(RoomRow item, boolean empty) {
+            super.updateItem(item, empty);
+            unbind();
+            if (empty || item == null) {
+                setGraphic(null);
+                return;
+            }
+            bound = item;
+
+            if (item.firstInWard) {
+                wardTitle.setText("Ward " + item.wardId);
+                if (root.getChildren().get(0) != wardTitle) root.getChildren().add(0, wardTitle);
+            } else {
+                root.getChildren().remove(wardTitle);
+            }
+            roomTitle.setText("Room " + item.roomId);
+
+            while (buttons.size() < item.beds.size()) addButton();
+            bedBox.getChildren().setAll(buttons.subList(0, item.beds.size()));
+            for (int i = 0; i < item.beds.size(); i++) {
+                BedSlot slot = item.beds.get(i);
+                Button b = buttons.get(i);
+                b.setText(slot.bed.getId());
+                paint(b, slot.occupant.get());
+                slot.occupant.addListener(listeners.get(i));
+            }
+            setGraphic(root);
         }
 
-        // Button styling
-        Button b = new Button(label);
-        b.setMinSize(88, 32);
-        b.setPrefSize(100, 34);
-        b.setMaxWidth(Region.USE_PREF_SIZE);
-        b.setStyle(
-            "-fx-background-color:" + bg + ";" +
-            "-fx-text-fill:" + fg + ";" +
-            "-fx-font-weight:bold;" +
-            "-fx-background-radius:6;" +
-            "-fx-border-radius:6;" +
-            "-fx-border-color: rgba(0,0,0,0.15);" +
-            "-fx-border-width:1;"
-        );
-
-        // Tooltip showing resident details or VACANT
-        String tip = (r == null)
-                ? "VACANT"
-                : r.getName() + " (" + r.getId() + ", " + r.getGender() + ")";
-        b.setTooltip(new Tooltip(tip));
-
-        return b;
+        private void unbind() {
+            if (bound == null) return;
+            for (int i = 0; i < bound.beds.size(); i++) bound.beds.get(i).occupant.removeListener(listeners.get(i));
+            bound = null;
+        }
+
+        private void addButton() {
+            int i = buttons.size();
+            Button b = new Button();
+            b.setMinSize(96, 48);
+            b.setMaxSize(120, 60);
+            b.setWrapText(true);
+            b.setTooltip(new Tooltip());
+            b.setOnAction(e -> { if (bound != null) onOpen.accept(bound.beds.get(i), b); });
+            buttons.add(b);
+            listeners.add((obs, was, now) -> paint(b, now));
+        }
+    }
+
+    // Colour by occupant (blue/pink, grey when vacant) and tooltip with resident details or VACANT
+    static void paint(Button b, Resident r) {
+        if (r == null) {
+            b.setStyle(VACANT);
+            b.getTooltip().setText("VACANT");
+            return;
+        }
+        char g = Character.toUpperCase(r.getGender());
+        b.setStyle(g == 'M' ? MALE : g == 'F' ? FEMALE : OTHER);
+        b.getTooltip().setText(r.getName() + " (" + r.getId() + ", " + r.getGender() + ")");
     }
 }
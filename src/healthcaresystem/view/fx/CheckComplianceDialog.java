@@ -24,6 +24,7 @@ public class CheckComplianceDialog {
         dialog.setTitle("Check Compliance");
 
         Label status = new Label("Press 'Check' to validate scheduling rules for the next 7 days.");
+        status.setWrapText(true);
 
         Button checkBtn = new Button("Check");
         Button closeBtn = new Button("Close");
@@ -31,9 +32,16 @@ public class CheckComplianceDialog {
         // Run the check and show a simple OK/FAIL message
         checkBtn.setOnAction(e -> {
             try {
-                ctx.service().checkCompliance();
-                status.setText("Compliance OK for the next 7 days from first scheduled day.");
-                status.setStyle("-fx-text-fill: green;");
+                var report = ctx.service().weeklyComplianceReport();
+                if (report.isCompliant()) {
+                    status.setText("Compliance OK for the next 7 days from first scheduled day.");
+                    status.setStyle("-fx-text-fill: green;");
+                } else {
+                    StringBuilder sb = new StringBuilder("❌ Compliance FAILED:");
+                    report.getViolations().forEach(v -> sb.append("\n• ").append(v.getMessage()));
+                    status.setText(sb.toString());
+                    status.setStyle("-fx-text-fill: red;");
+                }
             } catch (Exception ex) {
                 status.setText("❌ Compliance FAILED: " + ex.getMessage());
                 status.setStyle("-fx-text-fill: red;");
@@ -50,7 +58,9 @@ public class CheckComplianceDialog {
         root.setAlignment(Pos.CENTER);
         root.setPadding(new Insets(25));
 
-        dialog.setScene(new Scene(root, 500, 180));
+        ScrollPane scroll = new ScrollPane(root);
+        scroll.setFitToWidth(true);
+        dialog.setScene(new Scene(scroll, 500, 260));
         dialog.showAndWait();
     }
 }
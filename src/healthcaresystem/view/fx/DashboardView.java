@@ -16,8 +16,8 @@ public class DashboardView {
     private final FxContext ctx;
     private final Stage stage;
 
-    // holds the right-side bed board so we can refresh it after changes
-    private VBox boardHolder;
+    // right-side bed board; it follows bed changes from the service by itself
+    private BedBoardView board;
 
     public DashboardView(FxContext ctx, Stage stage) {
         this.ctx = ctx;
@@ -42,6 +42,7 @@ public class DashboardView {
 
         Button logout = new Button("Logout");
         logout.setOnAction(e -> {
+            if (board != null) board.dispose();
             ctx.setCurrentUser(null);
             new LoginView(ctx).show(stage);
         });
@@ -67,6 +68,7 @@ public class DashboardView {
         Button assignShift     = new Button("Allocate/Modify Shift");
         Button checkCompliance = new Button("Check Compliance");
         Button showLogs        = new Button("Show Audit Logs");
+        Button showMetrics     = new Button("Show Metrics");
 
         // wire manager actions to dialogs
         viewStaff.setOnAction(e -> new ViewStaffDialog(ctx).show(stage));
@@ -76,6 +78,7 @@ public class DashboardView {
         assignShift.setOnAction(e -> new AssignShiftDialog(ctx, null).show(stage));
         checkCompliance.setOnAction(e -> new CheckComplianceDialog(ctx).show(stage));
         showLogs.setOnAction(e -> new ShowAuditLogDialog(ctx).show(stage));
+        showMetrics.setOnAction(e -> new MetricsDialog(ctx).show(stage));
 
         VBox actions = new VBox(10);
         actions.setPrefWidth(300);
@@ -84,22 +87,25 @@ public class DashboardView {
 
         if (isManager) {
             actions.getChildren().addAll(
-                    viewStaff, viewRoster, addStaff, modifyPass, assignShift, checkCompliance, showLogs
+                    viewStaff, viewRoster, addStaff, modifyPass, assignShift, checkCompliance, showLogs, showMetrics
             );
         } else {
             // nurses/doctors act from bed tiles and no global buttons needed
             actions.getChildren().add(new Label("Select a bed to act."));
         }
 
-        // ----- right: two ward bed board (clickable beds) -----
-        boardHolder = new VBox();
-        boardHolder.getChildren().setAll(new BedBoardView(ctx, this::refreshBoard).build());
+        // ----- right: virtualized bed board (clickable beds) -----
+        board = new BedBoardView(ctx, this::refreshBoard);
+        VBox boardHolder = new VBox(board.build());
+        VBox.setVgrow(boardHolder.getChildren().get(0), Priority.ALWAYS);
+        HBox.setHgrow(boardHolder, Priority.ALWAYS);
         boardHolder.setPadding(new Insets(10));
 
         HBox content = new HBox(24, actions, boardHolder);
         content.setPadding(new Insets(15));
         content.setAlignment(Pos.TOP_LEFT);
 
+        VBox.setVgrow(content, Priority.ALWAYS);
         VBox root = new VBox(header, content);
         return new Scene(root, 1250, 740);
     }
@@ -111,10 +117,8 @@ public class DashboardView {
         stage.show();
     }
 
-    // rebuild the bed board after occupancy changes
+    // after a dialog: re-check the beds; only ones that changed are repainted
     public void refreshBoard() {
-        if (boardHolder != null) {
-            boardHolder.getChildren().setAll(new BedBoardView(ctx, this::refreshBoard).build());
-        }
+        if (board != null) board.resync();
     }
 }
@@ -2,25 +2,35 @@ package healthcaresystem.view.fx;
 
 import healthcaresystem.model.facility.CareHome;
 import healthcaresystem.model.people.Staff;
-import healthcaresystem.repo.SerializationRepository;
+import healthcaresystem.repo.JournalRepository;
+import healthcaresystem.repo.MappedAuditStore;
+import healthcaresystem.service.AsyncAuditStore;
 import healthcaresystem.service.AuthService;
 import healthcaresystem.service.CareHomeService;
 
 public class FxContext {
     private static final String FILE = "carehome.dat";
+    private static final String AUDIT_DIR = "carehome-audit";
 
-    private final SerializationRepository repo = new SerializationRepository();
+    private final JournalRepository repo = new JournalRepository(FILE);
     private final CareHomeService service;
+    private final AsyncAuditStore auditStore;
     private final AuthService auth;
-    private Staff currentUser;
+    private String sessionToken; // issued at login by the service's SessionManager
 
     public FxContext() {
-        // load saved state from file (creates new CareHome if file missing)
-        CareHome ch = repo.loadState(FILE);
+        // load saved state from file (creates new CareHome if file missing) and replay the journal
+        CareHome ch = repo.load();
 
-        // use same CareHome instance for both services
+        // use same CareHome instance for both services; changes are journaled as they happen
         service = new CareHomeService(ch);
-        auth = new AuthService(service.getCareHome());
+        service.setChangeLog(repo);
+
+        // audit trail lives in its own append-only files rather than in the snapshot,
+        // written in batches by a background thread
+        auditStore = new AsyncAuditStore(new MappedAuditStore(AUDIT_DIR, ch));
+        service.setAuditStore(auditStore);
+        auth = new AuthService(service);
 
         // seed default admin and facility on first launch
         service.ensureDefaultAdmin();
@@ -34,12 +44,17 @@ public class FxContext {
     public CareHomeService service() { return service; }
     public AuthService auth() { return auth; }
 
-    // track currently logged-in staff
-    public Staff getCurrentUser() { return currentUser; }
-    public void setCurrentUser(Staff s) { this.currentUser = s; }
+    // track currently logged-in staff through a session token (null once it expires)
+    public Staff getCurrentUser() { return service.getSessions().user(sessionToken); }
+
+    public void setCurrentUser(Staff s) {
+        service.getSessions().close(sessionToken);
+        sessionToken = (s == null) ? null : service.getSessions().open(s).getToken();
+    }
 
-    // persist current CareHome state to disk
+    // persist current CareHome state to disk (full snapshot, empties the journal)
     public void save() {
-        repo.saveState(service.getCareHome(), FILE);
+        repo.checkpoint();
+        auditStore.flush();
     }
 }
@@ -0,0 +1,47 @@
+package healthcaresystem.view.fx;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.*;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+
+public class MetricsDialog {
+
+    private final FxContext ctx;
+
+    public MetricsDialog(FxContext ctx) {
+        this.ctx = ctx;
+    }
+
+    // Show call counts, failures and latency percentiles per use case (refreshable)
+    public void show(Stage owner) {
+        Stage dialog = new Stage();
+        dialog.initOwner(owner);
+        dialog.initModality(Modality.APPLICATION_MODAL);
+        dialog.setTitle("Metrics");
+
+        TextArea text = new TextArea();
+        text.setEditable(false);
+        text.setStyle("-fx-font-family: monospace;");
+        VBox.setVgrow(text, Priority.ALWAYS);
+
+        Runnable refresh = () -> text.setText(ctx.service().getMetrics().getReport());
+        refresh.run();
+
+        Button refreshBtn = new Button("Refresh");
+        Button closeBtn = new Button("Close");
+        refreshBtn.setOnAction(e -> refresh.run());
+        closeBtn.setOnAction(e -> dialog.close());
+
+        HBox buttons = new HBox(10, refreshBtn, closeBtn);
+        buttons.setAlignment(Pos.CENTER);
+
+        VBox root = new VBox(12, text, buttons);
+        root.setPadding(new Insets(15));
+        dialog.setScene(new Scene(root, 900, 480));
+        dialog.showAndWait();
+    }
+}
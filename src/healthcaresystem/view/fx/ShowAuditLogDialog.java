@@ -1,21 +1,38 @@
 package healthcaresystem.view.fx;
 
 import javafx.geometry.Insets;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import healthcaresystem.model.audit.AuditEntry;
+import healthcaresystem.service.AuditPage;
+import healthcaresystem.service.AuditQuery;
 
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Comparator;
-import java.util.List;
 
+// Audit log viewer: filters run in the service and entries arrive a page at a time,
+// the next page being fetched when the table is scrolled near its end.
 public class ShowAuditLogDialog {
 
+    private static final int PAGE_SIZE = 200;
+
     private final FxContext ctx;
 
+    private final TableView<AuditEntry> table = new TableView<>();
+    private final Label status = new Label();
+    private final Button loadMore = new Button("Load More");
+    private final TextField actorField = new TextField();
+    private final TextField actionField = new TextField();
+    private final ComboBox<String> resultBox = new ComboBox<>();
+    private final DatePicker fromPicker = new DatePicker();
+    private final DatePicker toPicker = new DatePicker();
+    private long nextCursor = -1;   // where the next page starts; -1 once everything is loaded
+
     public ShowAuditLogDialog(FxContext ctx) {
         this.ctx = ctx;
     }
@@ -32,7 +49,6 @@ public class ShowAuditLogDialog {
         header.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
 
         // main table setup
-        TableView<AuditEntry> table = new TableView<>();
         table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_ALL_COLUMNS);
         table.setPlaceholder(new Label("No audit log entries."));
 
@@ -76,26 +92,68 @@ public class ShowAuditLogDialog {
 
         table.getColumns().addAll(timeCol, userCol, actionCol, detailsCol, resultCol);
 
-        // load and sort audit entries by time (newest first)
-        List<AuditEntry> entries = ctx.service()
-                .getCareHome()
-                .getAuditLog()
-                .stream()
-                .sorted(Comparator.comparing(AuditEntry::getTime).reversed())
-                .toList();
-        table.getItems().addAll(entries);
-
-        // make table scrollable
-        ScrollPane scrollPane = new ScrollPane(table);
-        scrollPane.setFitToWidth(true);
-        scrollPane.setFitToHeight(true);
-
-        // root layout
-        VBox root = new VBox(15, header, scrollPane);
+        // filter bar (applied by the service, not the table)
+        actorField.setPromptText("User or staff id");
+        actionField.setPromptText("Action, e.g. LOGIN");
+        resultBox.getItems().addAll("All", "OK", "Denied");
+        resultBox.setValue("All");
+        fromPicker.setPromptText("From");
+        toPicker.setPromptText("To");
+        Button apply = new Button("Apply");
+        apply.setDefaultButton(true);
+        apply.setOnAction(e -> reload());
+        HBox filters = new HBox(8, actorField, actionField, resultBox, fromPicker, toPicker, apply);
+
+        loadMore.setOnAction(e -> loadNextPage());
+        HBox footer = new HBox(10, status, loadMore);
+
+        // root layout (the table scrolls itself and only builds rows on screen)
+        VBox root = new VBox(10, header, filters, table, footer);
+        VBox.setVgrow(table, Priority.ALWAYS);
         root.setPadding(new Insets(15));
-        root.setPrefSize(900, 500);
-
+        root.setPrefSize(1000, 560);
+
+        // fetch the next page when the vertical scroll bar nears the bottom
+        dialog.setOnShown(e -> {
+            for (Node n : table.lookupAll(".scroll-bar"))
+                if (n instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL)
+                    bar.valueProperty().addListener((obs, was, now) -> {
+                        if (now.doubleValue() >= bar.getMax() * 0.9) loadNextPage();
+                    });
+        });
+
+        reload();
         dialog.setScene(new Scene(root));
         dialog.showAndWait();
     }
+
+    // start over from the newest entry with the current filters
+    private void reload() {
+        table.getItems().clear();
+        nextCursor = -1;
+        fetch(query());
+    }
+
+    private void loadNextPage() {
+        if (nextCursor >= 0) fetch(query().cursor(nextCursor));
+    }
+
+    private void fetch(AuditQuery q) {
+        AuditPage page = ctx.service().auditPage(q);
+        table.getItems().addAll(page.getEntries());
+        nextCursor = page.getNextCursor();
+        loadMore.setDisable(!page.hasMore());
+        status.setText(table.getItems().size() + " entries shown" + (page.hasMore() ? " (scroll for more)" : ""));
+    }
+
+    private AuditQuery query() {
+        String result = resultBox.getValue();
+        return new AuditQuery()
+                .limit(PAGE_SIZE)
+                .actor(actorField.getText())
+                .action(actionField.getText())
+                .success("OK".equals(result) ? Boolean.TRUE : "Denied".equals(result) ? Boolean.FALSE : null)
+                .from(fromPicker.getValue() == null ? null : fromPicker.getValue().atStartOfDay())
+                .to(toPicker.getValue() == null ? null : toPicker.getValue().atTime(LocalTime.MAX));
+    }
 }
@@ -0,0 +1,45 @@
+package healthcaresystem.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import healthcaresystem.model.people.Staff;
+import healthcaresystem.service.AuthService;
+import healthcaresystem.service.CareHomeService;
+
+// Login cost: a repeat login (username map + verified-login cache) against a fresh password check
+// (PBKDF2 at the configured iteration count).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthBenchmarks {
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+
+    private SyntheticCareHome data;
+    private AuthService auth;
+    private Staff user;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = SyntheticCareHome.of(size);
+        auth = new AuthService(new CareHomeService(data.careHome));
+        user = data.staff.get(data.staff.size() / 2);
+        auth.login(user.getUsername(), SyntheticCareHome.PASSWORD);
+    }
+
+    @Benchmark
+    public Staff loginCached() {
+        return auth.login(user.getUsername(), SyntheticCareHome.PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verifyPassword() {
+        return user.checkPassword(SyntheticCareHome.PASSWORD);
+    }
+}
@@ -0,0 +1,57 @@
+package healthcaresystem.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import healthcaresystem.model.facility.CareHome;
+import healthcaresystem.repo.SerializationRepository;
+
+// Full snapshot write and read of a synthetic CareHome. Each call is a whole save or load,
+// so this runs in single-shot mode rather than as a throughput loop.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class PersistenceBenchmarks {
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+
+    private final SerializationRepository repo = new SerializationRepository(0);
+    private CareHome careHome;
+    private Path dir;
+    private String saved, scratch;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        careHome = SyntheticCareHome.of(size).careHome;
+        dir = Files.createTempDirectory("carehome-bench");
+        saved = dir.resolve("saved.dat").toString();
+        scratch = dir.resolve("scratch.dat").toString();
+        repo.saveState(careHome, saved);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var files = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) files::iterator) Files.deleteIfExists(p);
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public void saveState() {
+        repo.saveState(careHome, scratch);
+    }
+
+    @Benchmark
+    public CareHome loadState() {
+        return repo.loadState(saved);
+    }
+}
@@ -0,0 +1,90 @@
+package healthcaresystem.bench;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import healthcaresystem.exception.ComplianceException;
+import healthcaresystem.model.audit.AuditEntry;
+import healthcaresystem.model.meds.AdministrationRecord;
+import healthcaresystem.model.people.Resident;
+import healthcaresystem.model.schedule.ComplianceReport;
+import healthcaresystem.service.AuditStore;
+import healthcaresystem.service.CareHomeService;
+
+// Read paths of CareHomeService against a synthetic CareHome of each size.
+// The bed lookups and the administration log go through the service's role and roster checks,
+// with the service clock fixed inside the probe nurse's shift. Audit entries are still built
+// but dropped, so the trail doesn't grow (and slow GC) over millions of invocations.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class ServiceBenchmarks {
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+
+    private SyntheticCareHome data;
+    private CareHomeService service;
+    private LocalDateTime now;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = SyntheticCareHome.of(size);
+        service = new CareHomeService(data.careHome);
+        service.setAuditStore(new DiscardingAuditStore());
+        service.setClock(SyntheticCareHome.clock());
+        now = LocalDateTime.now(SyntheticCareHome.clock());
+    }
+
+    // bed id -> Bed through the service (findBed), plus its audit entry
+    @Benchmark
+    public Optional<Resident> findBed() {
+        String bed = data.bedIds.get(ThreadLocalRandom.current().nextInt(data.bedIds.size()));
+        return service.viewResidentInBed(bed, data.probeNurse);
+    }
+
+    @Benchmark
+    public boolean isRostered() {
+        return data.careHome.getRoster().isRostered(data.probeNurse, now);
+    }
+
+    @Benchmark
+    public List<AdministrationRecord> administrationLogForBed() {
+        return service.administrationLogForBed(data.busiestBed, data.probeNurse);
+    }
+
+    @Benchmark
+    public ComplianceReport weeklyComplianceReport() {
+        return service.weeklyComplianceReport();
+    }
+
+    // generated rosters are compliant, so this is a full pass over the week
+    @Benchmark
+    public Object checkCompliance() {
+        try {
+            service.checkCompliance();
+            return null;
+        } catch (ComplianceException e) {
+            return e;
+        }
+    }
+
+    // counts entries and keeps none
+    static final class DiscardingAuditStore implements AuditStore {
+        private long size;
+
+        @Override public synchronized void append(AuditEntry entry) { size++; }
+        @Override public synchronized long size() { return size; }
+        @Override public Iterator<AuditEntry> newestFirst(long before) { return Collections.emptyIterator(); }
+    }
+}
@@ -0,0 +1,76 @@
+package healthcaresystem.bench;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import healthcaresystem.model.facility.Bed;
+import healthcaresystem.model.facility.CareHome;
+import healthcaresystem.model.facility.Room;
+import healthcaresystem.model.facility.Ward;
+import healthcaresystem.model.meds.AdministrationRecord;
+import healthcaresystem.model.meds.Prescription;
+import healthcaresystem.model.people.Nurse;
+import healthcaresystem.model.people.Resident;
+import healthcaresystem.model.people.Staff;
+import healthcaresystem.sim.CareHomeGenerator;
+
+// A CareHomeGenerator home sized for the benchmarks: about `size` beds, and exactly `size`
+// prescriptions, administrations and audit entries, plus the handles the benchmarks probe.
+// The probe nurse is on the DAY shift today; give the service clock() so its roster gate
+// lets them through whatever the time of the run.
+public class SyntheticCareHome {
+
+    public static final String PASSWORD = CareHomeGenerator.PASSWORD;
+
+    public final CareHome careHome;
+    public final List<String> bedIds = new ArrayList<>();
+    public final List<Staff> staff;
+    public final Nurse probeNurse;
+    public final String busiestBed;    // bed whose resident has the most administrations
+
+    // 10:00 today, inside the DAY shift
+    public static Clock clock() {
+        ZoneId zone = ZoneId.systemDefault();
+        return Clock.fixed(LocalDate.now().atTime(10, 0).atZone(zone).toInstant(), zone);
+    }
+
+    public static SyntheticCareHome of(int size) {
+        return new SyntheticCareHome(new CareHomeGenerator()
+                .seed(42).beds(size).staffFor(size)
+                .prescriptions(size).administrations(size).auditEntries(size)
+                .generate());
+    }
+
+    private SyntheticCareHome(CareHome careHome) {
+        this.careHome = careHome;
+        this.staff = careHome.getStaff();
+
+        LocalDateTime at = LocalDateTime.now(clock());
+        Nurse nurse = null;
+        for (Staff s : staff)
+            if (s instanceof Nurse && careHome.getRoster().isRostered(s, at)) { nurse = (Nurse) s; break; }
+        this.probeNurse = nurse;
+
+        Map<String, Resident> patientOf = new HashMap<>();
+        for (Prescription p : careHome.getPrescriptions()) patientOf.put(p.getId(), p.getPatient());
+        Map<Resident, Integer> doses = new HashMap<>();
+        for (AdministrationRecord a : careHome.getAdministrations()) doses.merge(patientOf.get(a.getPrescriptionId()), 1, Integer::sum);
+
+        String busiest = null;
+        int most = -1;
+        for (Ward w : careHome.getWards())
+            for (Room r : w.getRooms())
+                for (Bed b : r.getBeds()) {
+                    bedIds.add(b.getId());
+                    int n = b.getOccupiedBy() == null ? -1 : doses.getOrDefault(b.getOccupiedBy(), 0);
+                    if (n > most) { most = n; busiest = b.getId(); }
+                }
+        this.busiestBed = busiest;
+    }
+}
@@ -0,0 +1,82 @@
+package healthcaresystem.event;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import healthcaresystem.event.CareHomeEvent.*;
+import healthcaresystem.model.facility.Bed;
+import healthcaresystem.model.people.Resident;
+import healthcaresystem.model.schedule.ShiftType;
+
+public class EventBusTests {
+
+    private final EventBus bus = new EventBus();
+    private final Queue<Runnable> tasks = new ArrayDeque<>();   // executor we run by hand
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) tasks.poll().run();
+    }
+
+    @Test
+    public void coalescing_keepsNewestPerKey_andEveryUnkeyedEvent() {
+        Bed b1 = new Bed("W1-R1-B1"), b2 = new Bed("W1-R1-B2");
+        Resident ann = new Resident("R1", "Ann", 'F'), bea = new Resident("R2", "Bea", 'F');
+        List<String> seen = new ArrayList<>();
+        EventBus.Subscription sub = bus.subscribe(CareHomeEvent.class, tasks::add, true, e -> seen.add(e.toString()));
+
+        bus.publish(new BedOccupied(b1, ann));
+        bus.publish(new BedOccupied(b2, bea));
+        bus.publish(new BedVacated(b1, ann));
+        bus.publish(new ResidentMoved(ann, b1, b2));
+        bus.publish(new ResidentMoved(ann, b2, b1));
+        assertEquals(1, tasks.size());              // one drain per burst
+        runTasks();
+
+        // b1's newest event takes its first event's place, ahead of b2
+        assertEquals(List.of("BedVacated W1-R1-B1 R1", "BedOccupied W1-R1-B2 R2",
+                "ResidentMoved R1 W1-R1-B1->W1-R1-B2", "ResidentMoved R1 W1-R1-B2->W1-R1-B1"), seen);
+        assertEquals(1, sub.getCoalesced());
+    }
+
+    @Test
+    public void typedSubscriber_onlySeesItsType_andSurvivesFailingHandler() {
+        List<ShiftAssigned> shifts = new ArrayList<>();
+        EventBus.Subscription sub = bus.subscribe(ShiftAssigned.class, tasks::add, false, e -> {
+            if (e.isReplaced()) throw new IllegalStateException("boom");
+            shifts.add(e);
+        });
+        LocalDate day = LocalDate.of(2025, 1, 6);
+        bus.publish(new ShiftAssigned("N1", day, ShiftType.DAY, true));
+        bus.publish(new PrescriptionChanged("RX-1", "R1", PrescriptionChanged.Change.CREATED));
+        bus.publish(new ShiftAssigned("N1", day, ShiftType.EVE, false));
+        runTasks();
+
+        assertEquals(1, shifts.size());
+        assertEquals(ShiftType.EVE, shifts.get(0).getType());
+        assertEquals(1, sub.getFailed());
+
+        sub.cancel();
+        bus.publish(new ShiftAssigned("N2", day, ShiftType.DAY, false));
+        assertTrue(tasks.isEmpty());
+        assertFalse(bus.hasSubscribers());
+    }
+
+    @Test
+    public void defaultSubscriber_isDeliveredOffThePublishingThread() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        Thread[] on = new Thread[1];
+        bus.subscribe(BedEvent.class, e -> { on[0] = Thread.currentThread(); done.countDown(); });
+        bus.publish(new BedOccupied(new Bed("W1-R1-B1"), new Resident("R1", "Ann", 'F')));
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertNotSame(Thread.currentThread(), on[0]);
+    }
+}
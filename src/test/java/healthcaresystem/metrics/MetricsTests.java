@@ -0,0 +1,60 @@
+package healthcaresystem.metrics;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import healthcaresystem.exception.NotRosteredException;
+import healthcaresystem.model.facility.CareHome;
+import healthcaresystem.model.people.Nurse;
+import healthcaresystem.service.CareHomeService;
+
+public class MetricsTests {
+
+    @Test
+    public void histogram_percentilesAreWithinBucketError() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++) h.record(v * 1000);   // 1us .. 100ms, uniform
+
+        assertEquals(100_000, h.getCount());
+        assertEquals(50_000_000, h.percentile(50), 50_000_000 * 0.04);
+        assertEquals(99_000_000, h.percentile(99), 99_000_000 * 0.04);
+        assertEquals(100_000_000, h.percentile(100));
+        assertEquals(100_000_000, h.getMax());
+
+        h.reset();
+        assertEquals(0, h.percentile(99));
+    }
+
+    @Test
+    public void time_countsFailuresByType_andRethrows() {
+        Metrics m = new Metrics();
+        assertEquals("ok", m.time("op", () -> "ok"));
+        try {
+            m.time("op", () -> { throw new IllegalStateException("boom"); });
+            fail();
+        } catch (IllegalStateException expected) { }
+
+        Metrics.Operation op = m.operation("op");
+        assertEquals(2, op.getCount());
+        assertEquals(1, op.getErrors());
+        assertEquals(Long.valueOf(1), op.getErrorsByType().get("IllegalStateException"));
+        assertTrue(m.getReport().contains("op"));
+    }
+
+    @Test
+    public void service_recordsRosterRejections() {
+        CareHomeService service = new CareHomeService(new CareHome());
+        Nurse n = new Nurse("N1", "Nina", "nina");
+        service.addStaff(n);
+        Metrics.Operation op = service.getMetrics().operation("service.viewResidentInBed");
+        long before = op.getErrorsByType().getOrDefault("NotRosteredException", 0L);
+
+        try {
+            service.viewResidentInBed("W1-R1-B1", n);   // no shifts at all
+            fail();
+        } catch (NotRosteredException expected) { }
+
+        assertEquals(before + 1, (long) op.getErrorsByType().get("NotRosteredException"));
+    }
+}
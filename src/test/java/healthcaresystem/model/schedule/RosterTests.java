@@ -1,5 +1,8 @@
 package healthcaresystem.model.schedule;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -100,4 +103,90 @@ public class RosterTests {
         }
         assertTrue("Expected ComplianceException for nurse over 8h/day", threw);
     }
+
+    @Test
+    public void isRostered_followsAddsAndReplacements() {
+        Roster roster = new Roster();
+        Nurse n1 = new Nurse("N1", "Nurse One", "n1");
+        LocalDate day = LocalDate.of(2025, 1, 6);
+        roster.addShift(new Shift(n1, day.minusDays(1), ShiftType.EVE));
+        roster.addShift(new Shift(n1, day, ShiftType.DAY));
+
+        assertTrue(roster.isRostered(new Nurse("n1", "same id, other case", "x"), day.atTime(9, 0)));
+        assertFalse(roster.isRostered(n1, day.atTime(20, 0)));
+
+        assertEquals(1, roster.removeShiftsFor(n1, day));
+        roster.addShift(new Shift(n1, day, ShiftType.EVE));
+        assertFalse(roster.isRostered(n1, day.atTime(9, 0)));
+        assertTrue(roster.isRostered(n1, day.atTime(20, 0)));
+        assertEquals(2, roster.getShifts().size());
+    }
+
+    @Test
+    public void liveComplianceReport_tracksAddsAndRemovals() {
+        Roster roster = new Roster();
+        Nurse n1 = new Nurse("N1", "Nurse One", "n1");
+        Nurse n2 = new Nurse("N2", "Nurse Two", "n2");
+        Doctor d1 = new Doctor("D1", "Doc One", "d1");
+        LocalDate start = LocalDate.of(2025, 1, 6);
+        for (int i = 0; i < 7; i++) {
+            LocalDate day = start.plusDays(i);
+            roster.addShift(new Shift(n1, day, ShiftType.DAY));
+            roster.addShift(new Shift(n2, day, ShiftType.EVE));
+            roster.addShift(new Shift(d1, day, ShiftType.DAY));
+        }
+        assertTrue(roster.weeklyReport().isCompliant());
+
+        roster.removeShiftsFor(d1, start.plusDays(2));
+        roster.addShift(new Shift(n1, start.plusDays(4), ShiftType.EVE));
+        ComplianceReport report = roster.weeklyReport();
+        assertEquals(2, report.getViolations().size());
+        assertEquals(ComplianceViolation.Rule.NO_DOCTOR, report.getViolations().get(0).getRule());
+        assertEquals(ComplianceViolation.Rule.NURSE_OVER_HOURS, report.getViolations().get(1).getRule());
+
+        roster.addShift(new Shift(d1, start.plusDays(2), ShiftType.EVE));
+        roster.removeShiftsFor(n1, start.plusDays(4));
+        roster.addShift(new Shift(n1, start.plusDays(4), ShiftType.DAY));
+        assertTrue(roster.weeklyReport().isCompliant());
+        assertTrue(roster.complianceReport(start, start.plusDays(6)).isCompliant());
+    }
+
+    @Test
+    public void quarterWindow_reportsEveryViolation() {
+        Roster roster = new Roster();
+        Nurse n1 = new Nurse("N1", "Nurse One", "n1");
+        Nurse n2 = new Nurse("N2", "Nurse Two", "n2");
+        Doctor d1 = new Doctor("D1", "Doc One", "d1");
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        LocalDate end = start.plusDays(89);
+
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            roster.addShift(new Shift(n1, day, ShiftType.DAY));
+            roster.addShift(new Shift(n2, day, ShiftType.EVE));
+            if (!day.equals(start.plusDays(10)) && !day.equals(start.plusDays(50)))
+                roster.addShift(new Shift(d1, day, ShiftType.DAY));
+        }
+        roster.addShift(new Shift(n1, start.plusDays(30), ShiftType.EVE));  // 16h for n1
+        roster.addShift(new Shift(d1, end.plusDays(1), ShiftType.DAY));     // outside the window
+
+        ComplianceReport report = roster.complianceReport(start, end);
+
+        assertEquals(3, report.getViolations().size());
+        ComplianceViolation first = report.getViolations().get(0);
+        assertEquals(ComplianceViolation.Rule.NO_DOCTOR, first.getRule());
+        assertEquals(start.plusDays(10), first.getDay());
+        assertEquals(ComplianceViolation.Rule.NURSE_OVER_HOURS, report.getViolations().get(1).getRule());
+        assertSame(n1, report.getViolations().get(1).getStaff());
+        assertEquals(start.plusDays(50), report.getViolations().get(2).getDay());
+    }
+
+    @Test
+    public void emptyDays_areReportedAsUncovered() {
+        LocalDate day = LocalDate.of(2025, 1, 1);
+        ComplianceReport report = new Roster().complianceReport(day, day.plusDays(1));
+        assertFalse(report.isCompliant());
+        assertEquals(4, report.getViolations().size());
+        assertEquals("Nurse coverage missing on 2025-01-01 (needs DAY and EVE).",
+                report.getViolations().get(1).getMessage());
+    }
 }
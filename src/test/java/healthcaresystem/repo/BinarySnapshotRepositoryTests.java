@@ -0,0 +1,105 @@
+package healthcaresystem.repo;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.time.LocalDate;
+
+import org.junit.After;
+import org.junit.Test;
+
+import healthcaresystem.model.facility.CareHome;
+import healthcaresystem.model.meds.AdministrationRecord;
+import healthcaresystem.model.meds.Prescription;
+import healthcaresystem.model.meds.PrescriptionItem;
+import healthcaresystem.model.people.*;
+import healthcaresystem.model.schedule.ShiftType;
+import healthcaresystem.service.CareHomeService;
+
+public class BinarySnapshotRepositoryTests {
+
+    private static final String PATH = "test-carehome.bin";
+
+    @After
+    public void cleanup() {
+        for (String suffix : new String[] {"", ".1", ".2", ".3", ".tmp"}) new File(PATH + suffix).delete();
+    }
+
+    private CareHome sample() {
+        CareHomeService service = new CareHomeService(new CareHome());
+        service.ensureDefaultAdmin();
+        service.ensureDefaultFacility();
+        CareHome ch = service.getCareHome();
+        Manager admin = (Manager) ch.getStaff().get(0);
+
+        service.addStaffWithCredentials("DOCTOR", "D1", "Doc", "doc", "pw", admin);
+        service.addStaffWithCredentials("NURSE", "N1", "Nur", "nur", "pw", admin);
+        service.addResidentToBed("R1", "Alice", 'F', "W1-R2-B1", admin);
+        service.assignOrReplaceShift("doc", LocalDate.of(2025, 1, 6), ShiftType.DAY, false, admin);
+
+        Doctor doc = (Doctor) ch.getStaff().get(1);
+        Prescription rx = new Prescription("RX-1", ch.getResidents().get(0), doc);
+        rx.addItem(new PrescriptionItem("Amox", "500mg", "8-hourly", ""));
+        ch.getPrescriptions().add(rx);
+        ch.getAdministrations().add(new AdministrationRecord("RX-1", "Amox", "500mg", ch.getStaff().get(2)));
+        return ch;
+    }
+
+    @Test
+    public void saveThenLoad_restoresCoreSections_andSharesStaffObjects() {
+        CareHome original = sample();
+        BinarySnapshotRepository repo = new BinarySnapshotRepository();
+        repo.saveState(original, PATH);
+
+        CareHome loaded = repo.loadState(PATH);
+        assertEquals(3, loaded.getStaff().size());
+        assertEquals("R1", loaded.getWards().get(0).getRooms().get(1).getBeds().get(0).getOccupiedBy().getId());
+        assertSame(loaded.getStaff().get(1), loaded.getRoster().getShifts().get(0).getStaff());
+        assertSame(loaded.getResidents().get(0),
+                loaded.getWards().get(0).getRooms().get(1).getBeds().get(0).getOccupiedBy());
+    }
+
+    @Test
+    public void historySections_areReadOnFirstAccess() {
+        CareHome original = sample();
+        BinarySnapshotRepository repo = new BinarySnapshotRepository();
+        repo.saveState(original, PATH);
+
+        CareHome loaded = repo.loadState(PATH);
+        assertFalse(loaded.isLoaded(CareHome.SECTION_PRESCRIPTIONS));
+        assertFalse(loaded.isLoaded(CareHome.SECTION_AUDIT));
+
+        Prescription rx = loaded.getPrescriptions().get(0);
+        assertTrue(loaded.isLoaded(CareHome.SECTION_PRESCRIPTIONS));
+        assertEquals("Amox", rx.getItems().get(0).getMedicine());
+        assertSame(loaded.getStaff().get(1), rx.getDoctor());
+        assertEquals(original.getPrescriptions().get(0).getCreatedAt(), rx.getCreatedAt());
+
+        assertSame(loaded.getStaff().get(2), loaded.getAdministrations().get(0).getAdministeredBy());
+        assertEquals(original.getAuditLog().size(), loaded.getAuditLog().size());
+        assertNull(loaded.getAuditLog().get(0).getActor()); // seeding is logged as (system)
+    }
+
+    @Test
+    public void damagedHistorySection_fallsBackToPreviousGeneration() throws Exception {
+        BinarySnapshotRepository repo = new BinarySnapshotRepository();
+        CareHome first = sample();
+        repo.saveState(first, PATH);
+        CareHome second = sample();
+        second.getStaff().add(new Nurse("N2", "Late", "late"));
+        repo.saveState(second, PATH);
+        assertTrue(new File(PATH + ".1").exists());
+
+        try (RandomAccessFile f = new RandomAccessFile(PATH, "rw")) {   // flip a byte near the end (audit section)
+            f.seek(f.length() - 2);
+            int b = f.read();
+            f.seek(f.length() - 2);
+            f.write(b ^ 0xFF);
+        }
+
+        CareHome loaded = repo.loadState(PATH);
+        assertEquals(first.getStaff().size(), loaded.getStaff().size());
+        assertEquals(first.getAuditLog().size(), loaded.getAuditLog().size());
+    }
+}
@@ -0,0 +1,146 @@
+package healthcaresystem.repo;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.time.LocalDate;
+
+import org.junit.After;
+import org.junit.Test;
+
+import healthcaresystem.model.facility.CareHome;
+import healthcaresystem.model.people.Manager;
+import healthcaresystem.model.people.Staff;
+import healthcaresystem.model.schedule.ShiftType;
+import healthcaresystem.service.CareHomeService;
+
+public class JournalRepositoryTests {
+
+    private static final String PATH = "test-journal-carehome.dat";
+
+    @After
+    public void cleanup() {
+        for (String suffix : new String[] {"", ".1", ".2", ".3", ".tmp", ".journal"}) new File(PATH + suffix).delete();
+    }
+
+    // opens the repo the same way Main does and runs a few manager actions
+    private CareHome runSession(JournalRepository repo) {
+        CareHome ch = repo.load();
+        CareHomeService service = new CareHomeService(ch);
+        service.setChangeLog(repo);
+
+        service.ensureDefaultAdmin();
+        service.ensureDefaultFacility();
+        Manager admin = (Manager) ch.getStaff().get(0);
+        service.addStaffWithCredentials("NURSE", "N1", "Nur", "nur", "pw", admin);
+        service.addResidentToBed("R1", "Alice", 'F', "W1-R1-B1", admin);
+        service.assignOrReplaceShift("nur", LocalDate.of(2025, 1, 6), ShiftType.DAY, false, admin);
+        return ch;
+    }
+
+    @Test
+    public void changesWithoutCheckpoint_areReplayedOnLoad() {
+        JournalRepository repo = new JournalRepository(PATH);
+        CareHome before = runSession(repo);
+        repo.close(); // simulate a crash: no snapshot was written
+
+        assertFalse(new File(PATH).exists());
+
+        CareHome after = new JournalRepository(PATH).load();
+        assertEquals(2, after.getStaff().size());
+        assertEquals(2, after.getWards().size());
+        assertEquals("R1", after.getWards().get(0).getRooms().get(0).getBeds().get(0).getOccupiedBy().getId());
+        assertEquals(1, after.getRoster().getShifts().size());
+        assertEquals(before.getAuditLog().size(), after.getAuditLog().size());
+    }
+
+    @Test
+    public void checkpoint_writesSnapshot_andEmptiesJournal() {
+        JournalRepository repo = new JournalRepository(PATH);
+        runSession(repo);
+        repo.checkpoint();
+        repo.close();
+
+        assertEquals(0, new File(PATH + ".journal").length());
+        assertTrue(BinarySnapshotRepository.isBinarySnapshot(PATH));
+        CareHome after = new JournalRepository(PATH).load();
+        assertEquals(2, after.getStaff().size());
+        assertEquals(1, after.getRoster().getShifts().size());
+        assertSame(after.getStaff().get(1), after.getRoster().getShifts().get(0).getStaff());
+    }
+
+    @Test
+    public void load_leavesHistoryUnread_unlessTheJournalTouchesIt() {
+        JournalRepository repo = new JournalRepository(PATH);
+        runSession(repo);
+        repo.checkpoint();
+        repo.close();
+
+        JournalRepository second = new JournalRepository(PATH);
+        CareHome ch = second.load();   // empty journal
+        assertFalse(ch.isLoaded(CareHome.SECTION_PRESCRIPTIONS));
+        CareHomeService service = new CareHomeService(ch);
+        service.setChangeLog(second);
+        service.addResidentToBed("R2", "Bea", 'F', "W1-R2-B1", ch.getStaff().get(0));
+        second.close();
+
+        CareHome after = new JournalRepository(PATH).load();   // journal without prescription records
+        assertFalse(after.isLoaded(CareHome.SECTION_PRESCRIPTIONS));
+        assertEquals(2, after.getResidents().size());
+    }
+
+    @Test
+    public void legacySerializedSnapshot_isLoaded_andRewrittenAsBinary() {
+        CareHome legacy = new CareHome();
+        CareHomeService service = new CareHomeService(legacy);
+        service.ensureDefaultAdmin();
+        service.ensureDefaultFacility();
+        new SerializationRepository().saveState(legacy, PATH);
+
+        JournalRepository repo = new JournalRepository(PATH);
+        CareHome loaded = repo.load();
+        assertEquals(1, loaded.getStaff().size());
+        assertEquals(2, loaded.getWards().size());
+        repo.checkpoint();
+        repo.close();
+
+        assertTrue(BinarySnapshotRepository.isBinarySnapshot(PATH));
+        CareHome after = new JournalRepository(PATH).load();
+        assertEquals("admin", after.getStaff().get(0).getUsername());
+        assertEquals(legacy.getAuditLog().size(), after.getAuditLog().size());
+    }
+
+    @Test
+    public void legacyPlaintextPasswords_areHashedOnceAtLoad_andJournaled() {
+        CareHome legacy = new CareHome();
+        new CareHomeService(legacy).ensureDefaultAdmin();
+        legacy.getStaff().get(0).setPasswordHash("admin123");   // as in files from older versions
+        new SerializationRepository().saveState(legacy, PATH);
+
+        JournalRepository repo = new JournalRepository(PATH);
+        Staff admin = repo.load().getStaff().get(0);
+        assertFalse(admin.needsRehash());
+        assertTrue(admin.checkPassword("admin123"));
+        repo.close();   // no checkpoint: the hash comes back from the journal
+
+        Staff reloaded = new JournalRepository(PATH).load().getStaff().get(0);
+        assertEquals(admin.getPasswordHash(), reloaded.getPasswordHash());
+    }
+
+    @Test
+    public void tornTailRecord_isDroppedOnLoad() throws Exception {
+        JournalRepository repo = new JournalRepository(PATH);
+        runSession(repo);
+        repo.close();
+
+        File journal = new File(PATH + ".journal");
+        try (RandomAccessFile raf = new RandomAccessFile(journal, "rw")) {
+            raf.setLength(journal.length() - 3); // cut into the last record
+        }
+
+        CareHome after = new JournalRepository(PATH).load();
+        assertEquals(2, after.getStaff().size());
+        assertEquals(1, after.getRoster().getShifts().size()); // only the final audit entry was lost
+    }
+}
@@ -0,0 +1,134 @@
+package healthcaresystem.repo;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import healthcaresystem.model.audit.AuditEntry;
+import healthcaresystem.model.facility.CareHome;
+import healthcaresystem.model.people.Manager;
+
+public class MappedAuditStoreTests {
+
+    private static final String DIR = "test-audit-store";
+
+    @After
+    public void cleanup() {
+        File[] files = new File(DIR).listFiles();
+        if (files != null) for (File f : files) f.delete();
+        new File(DIR).delete();
+    }
+
+    @Test
+    public void entriesSurviveReopen_andRollAcrossSegments() {
+        CareHome ch = new CareHome();
+        Manager m = new Manager("M1", "Mgr", "mgr");
+        ch.getStaff().add(m);
+
+        LocalDateTime t0 = LocalDateTime.of(2025, 3, 1, 9, 0);
+        MappedAuditStore store = new MappedAuditStore(DIR, ch, 3);
+        for (int i = 0; i < 7; i++)
+            store.append(new AuditEntry(t0.plusMinutes(i), i == 0 ? null : m, "ACTION_" + (i % 2), "n=" + i, i != 4));
+        store.close();
+
+        assertEquals(3, new File(DIR).list((d, n) -> n.endsWith(".seg")).length);
+        assertEquals(3, new File(DIR).list((d, n) -> n.endsWith(".details")).length);   // one per segment
+
+        MappedAuditStore reopened = new MappedAuditStore(DIR, ch, 3);
+        assertEquals(7, reopened.size());
+
+        List<AuditEntry> newest = new ArrayList<>();
+        Iterator<AuditEntry> it = reopened.newestFirst();
+        while (it.hasNext()) newest.add(it.next());
+
+        assertEquals(7, newest.size());
+        assertEquals("n=6", newest.get(0).getDetails());
+        assertEquals(t0.plusMinutes(6), newest.get(0).getTime());
+        assertSame(m, newest.get(0).getActor());
+        assertFalse(newest.get(2).isSuccess());           // entry 4
+        assertNull(newest.get(6).getActor());             // entry 0 was (system)
+        assertEquals("ACTION_0", newest.get(6).getAction());
+
+        reopened.append(new AuditEntry(t0.plusMinutes(7), m, "ACTION_1", null, true));
+        assertNull(reopened.newestFirst().next().getDetails());
+        reopened.close();
+    }
+
+    @Test
+    public void newestFirstFromPosition_startsInTheRightSegment() {
+        CareHome ch = new CareHome();
+        LocalDateTime t0 = LocalDateTime.of(2025, 3, 1, 9, 0);
+        MappedAuditStore store = new MappedAuditStore(DIR, ch, 3);
+        for (int i = 0; i < 8; i++) store.append(new AuditEntry(t0.plusMinutes(i), null, "A", "n=" + i, true));
+
+        List<String> seen = new ArrayList<>();
+        store.newestFirst(5).forEachRemaining(e -> seen.add(e.getDetails()));
+        assertEquals(List.of("n=4", "n=3", "n=2", "n=1", "n=0"), seen);
+        assertEquals("n=2", store.newestFirst(3).next().getDetails());
+        assertEquals("n=7", store.newestFirst(100).next().getDetails());
+        assertFalse(store.newestFirst(0).hasNext());
+        store.close();
+    }
+
+    @Test
+    public void segmentsWithSharedDetailsFile_areStillRead() throws Exception {
+        CareHome ch = new CareHome();
+        LocalDateTime t0 = LocalDateTime.of(2025, 3, 1, 9, 0);
+        MappedAuditStore store = new MappedAuditStore(DIR, ch, 3);
+        for (int i = 0; i < 2; i++) store.append(new AuditEntry(t0.plusMinutes(i), null, "A", "n=" + i, true));
+        store.close();
+
+        // turn it into the older layout: one shared audit.details, layout 0 in the segment header
+        assertTrue(new File(DIR, "audit-000001.details").renameTo(new File(DIR, "audit.details")));
+        try (RandomAccessFile seg = new RandomAccessFile(new File(DIR, "audit-000001.seg"), "rw")) {
+            seg.seek(4);
+            seg.writeInt(0);
+        }
+
+        MappedAuditStore reopened = new MappedAuditStore(DIR, ch, 3);
+        for (int i = 2; i < 5; i++) reopened.append(new AuditEntry(t0.plusMinutes(i), null, "A", "n=" + i, true));
+        List<String> seen = new ArrayList<>();
+        reopened.newestFirst().forEachRemaining(e -> seen.add(e.getDetails()));
+        assertEquals(List.of("n=4", "n=3", "n=2", "n=1", "n=0"), seen);
+        assertEquals("n=1", reopened.get(1).getDetails());
+        reopened.close();
+        assertTrue(new File(DIR, "audit-000002.details").exists());
+    }
+
+    @Test
+    public void archivedSegments_keepPositions_andReadsStopAtTheOldestLeft() {
+        CareHome ch = new CareHome();
+        LocalDateTime t0 = LocalDateTime.of(2025, 3, 1, 9, 0);
+        MappedAuditStore store = new MappedAuditStore(DIR, ch, 3);
+        for (int i = 0; i < 8; i++) store.append(new AuditEntry(t0.plusMinutes(i), null, "A", "n=" + i, true));
+        store.close();
+
+        assertTrue(new File(DIR, "audit-000001.seg").delete());
+        assertTrue(new File(DIR, "audit-000001.details").delete());
+
+        MappedAuditStore reopened = new MappedAuditStore(DIR, ch, 3);
+        assertEquals(8, reopened.size());
+        assertEquals(3, reopened.firstPosition());
+        assertEquals("n=3", reopened.get(3).getDetails());
+        List<String> seen = new ArrayList<>();
+        reopened.newestFirst().forEachRemaining(e -> seen.add(e.getDetails()));
+        assertEquals(List.of("n=7", "n=6", "n=5", "n=4", "n=3"), seen);
+        assertFalse(reopened.newestFirst(3).hasNext());
+        try {
+            reopened.get(2);
+            fail("archived position read");
+        } catch (IllegalArgumentException expected) { }
+
+        reopened.append(new AuditEntry(t0.plusMinutes(8), null, "A", "n=8", true));
+        assertEquals("n=8", reopened.get(8).getDetails());
+        reopened.close();
+    }
+}
@@ -2,12 +2,28 @@ package healthcaresystem.repo;
 
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 import org.junit.Test;
 
 import healthcaresystem.model.facility.CareHome;
+import healthcaresystem.model.audit.AuditEntry;
+import healthcaresystem.model.meds.AdministrationRecord;
+import healthcaresystem.model.meds.Prescription;
+import healthcaresystem.model.people.Doctor;
 import healthcaresystem.model.people.Manager;
+import healthcaresystem.model.people.Nurse;
+import healthcaresystem.model.people.Resident;
+import healthcaresystem.model.people.Staff;
+import healthcaresystem.model.schedule.Shift;
+import healthcaresystem.model.schedule.ShiftType;
 
 public class SerializationRepositoryTests {
 
@@ -28,4 +44,79 @@ public class SerializationRepositoryTests {
 
         new File(path).delete();
     }
+
+    @Test
+    public void corruptedSnapshot_fallsBackToPreviousGeneration() throws Exception {
+        SerializationRepository repo = new SerializationRepository();
+        String path = "test-carehome-gen.dat";
+
+        CareHome first = new CareHome();
+        first.getStaff().add(new Manager("M1","Mgr","mgr"));
+        repo.saveState(first, path);
+
+        CareHome second = new CareHome();
+        second.getStaff().add(new Manager("M2","Mgr2","mgr2"));
+        repo.saveState(second, path);
+
+        assertFalse(new File(path + ".tmp").exists());
+        assertTrue(new File(path + ".1").exists());
+
+        // flip a byte in the middle of the newest snapshot
+        try (RandomAccessFile raf = new RandomAccessFile(path, "rw")) {
+            long mid = raf.length() / 2;
+            raf.seek(mid);
+            int b = raf.read();
+            raf.seek(mid);
+            raf.write(b ^ 0xFF);
+        }
+
+        CareHome loaded = repo.loadState(path);
+        assertEquals("M1", loaded.getStaff().get(0).getId());
+
+        for (String suffix : new String[] {"", ".1", ".2", ".3"}) new File(path + suffix).delete();
+    }
+
+    @Test
+    public void records_referenceOneStaffObjectPerId_afterReload() {
+        SerializationRepository repo = new SerializationRepository(0);
+        CareHome ch = new CareHome();
+        Nurse nurse = new Nurse("N1", "Nurse", "nurse");
+        Doctor doc = new Doctor("D1", "Doc", "doc");
+        ch.getStaff().add(nurse);
+        ch.getStaff().add(doc);
+        Nurse copy = new Nurse("N1", "Nurse", "nurse");   // e.g. from an older reload
+
+        LocalDate day = LocalDate.of(2025, 1, 6);
+        ch.getRoster().addShift(new Shift(nurse, day, ShiftType.DAY));
+        ch.getRoster().addShift(new Shift(copy, day.plusDays(1), ShiftType.DAY));
+        ch.getPrescriptions().add(new Prescription("RX-1", new Resident("R1", "Ann", 'F'), doc));
+        ch.getAdministrations().add(new AdministrationRecord("RX-1", "Med", "1", copy));
+        ch.getAuditLog().add(new AuditEntry(LocalDateTime.now(), copy, "LOGIN", "", true));
+        ch.getAuditLog().add(new AuditEntry(LocalDateTime.now(), null, "SEED", "", true));
+
+        String path = "test-carehome-refs.dat";
+        repo.saveState(ch, path);
+        CareHome loaded = repo.loadState(path);
+        new File(path).delete();
+
+        Staff n = loaded.getStaff().get(0);
+        assertSame(n, loaded.getRoster().getShifts().get(0).getStaff());
+        assertSame(n, loaded.getRoster().getShifts().get(1).getStaff());
+        assertSame(n, loaded.getAdministrations().get(0).getAdministeredBy());
+        assertSame(n, loaded.getAuditLog().get(0).getActor());
+        assertNull(loaded.getAuditLog().get(1).getActor());
+        assertSame(loaded.getStaff().get(1), loaded.getPrescriptions().get(0).getDoctor());
+        assertEquals(2, loaded.getStaffRegistry().size());
+        assertEquals(2, loaded.getRoster().shiftsOn(n, day).size() + loaded.getRoster().shiftsOn(n, day.plusDays(1)).size());
+    }
+
+    @Test
+    public void unboundRecord_stillCarriesItsStaff() throws Exception {
+        AuditEntry e = new AuditEntry(LocalDateTime.now(), new Manager("M1", "Mgr", "mgr"), "LOGIN", "", true);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) { out.writeObject(e); }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals("mgr", ((AuditEntry) in.readObject()).getActor().getUsername());
+        }
+    }
 }
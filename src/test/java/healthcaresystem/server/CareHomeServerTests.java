@@ -0,0 +1,71 @@
+package healthcaresystem.server;
+
+import static org.junit.Assert.*;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import healthcaresystem.model.facility.CareHome;
+import healthcaresystem.service.ConcurrentCareHomeService;
+
+public class CareHomeServerTests {
+
+    private ConcurrentCareHomeService service;
+    private CareHomeServer server;
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Before
+    public void start() throws Exception {
+        service = new ConcurrentCareHomeService(new CareHome());
+        service.ensureDefaultAdmin();
+        service.ensureDefaultFacility();
+        server = new CareHomeServer(service, new InetSocketAddress("127.0.0.1", 0));
+        server.start();
+    }
+
+    @After
+    public void stop() {
+        server.stop();
+    }
+
+    private HttpResponse<String> call(String method, String path, String form, String token) throws Exception {
+        HttpRequest.Builder b = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + path))
+                .method(method, HttpRequest.BodyPublishers.ofString(form))
+                .header("Content-Type", "application/x-www-form-urlencoded");
+        if (token != null) b.header("X-Session", token);
+        return http.send(b.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void managerSession_admitsAndSeesTheBed() throws Exception {
+        assertEquals(401, call("GET", "/beds", "", null).statusCode());
+        assertEquals(401, call("POST", "/login", "username=admin&password=wrong", null).statusCode());
+
+        String token = call("POST", "/login", "username=admin&password=admin123", null).body();
+        assertEquals(200, call("POST", "/residents", "id=R1&name=Ann&gender=F&bed=W1-R1-B1", token).statusCode());
+        assertEquals(409, call("POST", "/residents", "id=R2&name=Bea&gender=F&bed=W1-R1-B1", token).statusCode());
+        assertEquals(400, call("POST", "/residents", "id=R3&name=Cat&gender=F&bed=NOPE", token).statusCode());
+
+        assertTrue(call("GET", "/beds", "", token).body().contains("W1-R1-B1\tR1\n"));
+        assertEquals(400, call("POST", "/shifts", "staff=admin&day=06-01-2025&type=DAY", token).statusCode());
+        assertEquals(403, call("GET", "/bed?bed=W1-R1-B1", "", token).statusCode()); // nurses/doctors only
+
+        assertEquals(200, call("POST", "/logout", "", token).statusCode());
+        assertEquals(401, call("GET", "/beds", "", token).statusCode());
+    }
+
+    @Test
+    public void loadGenerator_reportsEveryRequest() throws Exception {
+        LoadGenerator gen = new LoadGenerator("http://127.0.0.1:" + server.getPort());
+        String report = gen.run(20, 10, "admin", "admin123");
+        gen.close();
+        assertTrue(report, report.startsWith("200 requests from 20 clients"));
+    }
+}
@@ -2,9 +2,14 @@ package healthcaresystem.service;
 
 import static org.junit.Assert.*;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Test;
 
 import healthcaresystem.model.facility.Bed;
+import healthcaresystem.model.facility.CareHome;
+import healthcaresystem.model.facility.Room;
+import healthcaresystem.model.facility.Ward;
 import healthcaresystem.model.people.Resident;
 
 public class AllocationServiceTests {
@@ -34,4 +39,70 @@ public class AllocationServiceTests {
         assertFalse(placedAgain);
         assertEquals(r1, bed.getOccupiedBy());      // unchanged first allocation
     }
+
+    @Test
+    public void racingPlacements_onlyOneWins() throws Exception {
+        AllocationService svc = new AllocationService();
+        Bed bed = new Bed("B1");
+        AtomicInteger wins = new AtomicInteger();
+
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            Resident r = new Resident("RES-" + i, "R" + i, 'F');
+            threads[i] = new Thread(() -> { if (svc.placeResident(r, bed)) wins.incrementAndGet(); });
+        }
+        for (Thread t : threads) t.start();
+        for (Thread t : threads) t.join();
+
+        assertEquals(1, wins.get());
+        assertNotNull(bed.getOccupiedBy());
+        assertFalse(bed.tryVacate(new Resident("X", "Other", 'F'))); // only the occupant can be vacated
+        assertTrue(bed.tryVacate(bed.getOccupiedBy()));
+        assertNull(bed.getOccupiedBy());
+    }
+
+    @Test
+    public void allocate_prefersSameGenderRoom_thenLeastOccupied_thenNearestWard() {
+        CareHome ch = new CareHome();
+        for (String w : new String[] {"W1", "W2", "W3"}) {
+            Ward ward = new Ward(w);
+            for (int r = 1; r <= 2; r++) {
+                Room room = new Room("R" + r);
+                for (int b = 1; b <= 3; b++) room.getBeds().add(new Bed(w + "-R" + r + "-B" + b));
+                ward.getRooms().add(room);
+            }
+            ch.getWards().add(ward);
+        }
+        AllocationService svc = new AllocationService();
+
+        Bed first = svc.allocate(ch, new Resident("F1", "Ann", 'F'), "W2", true);
+        assertEquals("W2-R1-B1", first.getId());                 // empty room in the preferred ward
+        assertEquals("W2-R1-B2", svc.allocate(ch, new Resident("F2", "Bea", 'F'), "W3", true).getId()); // same gender beats ward
+        assertEquals("W2-R2-B1", svc.allocate(ch, new Resident("M1", "Cal", 'M'), "W2", true).getId()); // no mixing
+        assertEquals("W3-R1-B1", svc.allocate(ch, new Resident("M2", "Dov", 'M'), "W3", false).getId());
+
+        ch.getWards().get(1).getRooms().get(0).getBeds().get(2).setOccupiedBy(new Resident("X", "Bypass", 'F'));
+        assertEquals("W1-R1-B1", svc.allocate(ch, new Resident("F3", "Eve", 'F'), "W1", true).getId());
+        assertEquals(18 - 6, ch.getVacancies().freeBeds());
+    }
+
+    @Test
+    public void allocate_neverMixesGenders_whenTheIndexMissedAnOccupant() {
+        CareHome ch = new CareHome();
+        Ward ward = new Ward("W1");
+        for (int r = 1; r <= 2; r++) {
+            Room room = new Room("R" + r);
+            for (int b = 1; b <= 2; b++) room.getBeds().add(new Bed("W1-R" + r + "-B" + b));
+            ward.getRooms().add(room);
+        }
+        ch.getWards().add(ward);
+        AllocationService svc = new AllocationService();
+        assertEquals(4, ch.getVacancies().freeBeds());
+
+        ward.getRooms().get(0).getBeds().get(0).setOccupiedBy(new Resident("M1", "Cal", 'M'));   // index not told
+        assertEquals("W1-R2-B1", svc.allocate(ch, new Resident("F1", "Ann", 'F'), "W1", true).getId());
+
+        assertTrue(svc.placeResident(ch, new Resident("F2", "Bea", 'F'), ward.getRooms().get(1).getBeds().get(1)));
+        assertEquals(1, ch.getVacancies().freeBeds());
+    }
 }
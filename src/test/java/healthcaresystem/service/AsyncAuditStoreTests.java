@@ -0,0 +1,125 @@
+package healthcaresystem.service;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import healthcaresystem.exception.PersistenceException;
+import healthcaresystem.model.audit.AuditEntry;
+import healthcaresystem.model.facility.CareHome;
+import healthcaresystem.model.people.Manager;
+
+public class AsyncAuditStoreTests {
+
+    // durable stand-in that remembers what was flushed
+    private static class ListStore implements AuditStore {
+        final List<AuditEntry> entries = new ArrayList<>();
+        volatile int flushed;
+
+        public synchronized void append(AuditEntry e) { entries.add(e); }
+        public synchronized long size() { return entries.size(); }
+        public synchronized Iterator<AuditEntry> newestFirst(long before) {
+            List<AuditEntry> copy = new ArrayList<>(entries.subList(0, (int) Math.min(before, entries.size())));
+            java.util.Collections.reverse(copy);
+            return copy.iterator();
+        }
+        public synchronized void flush() { flushed = entries.size(); }
+    }
+
+    @Test
+    public void syncAction_isFlushedBeforeLogReturns() {
+        ListStore target = new ListStore();
+        // long interval and big batch: only the sync action can force a flush
+        AsyncAuditStore async = new AsyncAuditStore(target, 16, 1000, 60_000, Set.of("MODIFY_STAFF_PASSWORD"));
+        AuditService audit = new AuditService(new CareHome());
+        audit.setStore(async);
+        Manager m = new Manager("M1", "Mgr", "mgr");
+
+        audit.log(m, "VIEW_RESIDENT_IN_BED", "bed=B1", true);
+        audit.log(m, "MODIFY_STAFF_PASSWORD", "staff=N1", true);
+
+        assertEquals(2, target.flushed);
+        async.close();
+    }
+
+    @Test
+    public void reads_seeEverythingLoggedBefore_evenUnderBackpressure() {
+        ListStore target = new ListStore();
+        AsyncAuditStore async = new AsyncAuditStore(target, 2, 4, 10, Set.of());
+        AuditService audit = new AuditService(new CareHome());
+        audit.setStore(async);
+
+        for (int i = 0; i < 200; i++) audit.log(null, "VIEW_RESIDENT_IN_BED", "n=" + i, true);
+
+        List<AuditEntry> all = audit.entries();
+        assertEquals(200, all.size());
+        assertEquals("n=0", all.get(0).getDetails());
+        assertEquals("n=199", all.get(199).getDetails());
+        assertTrue(async.getMaxQueueDepth() <= 2);
+
+        async.close();
+        assertEquals(200, target.flushed);
+    }
+
+    @Test
+    public void concurrentLogs_keepSequenceOrder_andCloseDrainsWithoutLoss() throws Exception {
+        ListStore target = new ListStore();
+        // long interval: only close() can flush the tail
+        AsyncAuditStore async = new AsyncAuditStore(target, 8, 16, 60_000, Set.of());
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int id = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 500; i++) async.submit(i, null, "VIEW_RESIDENT_IN_BED", id + ":" + i, true);
+            });
+            threads[t].start();
+        }
+        for (Thread t : threads) t.join();
+        async.close();
+
+        assertEquals(2000, target.entries.size());
+        assertEquals(2000, target.flushed);
+        int[] next = new int[threads.length];
+        for (AuditEntry e : target.entries) {   // each thread's entries arrive in the order it logged them
+            String[] parts = e.getDetails().split(":");
+            int id = Integer.parseInt(parts[0]);
+            assertEquals(next[id]++, Integer.parseInt(parts[1]));
+        }
+    }
+
+    @Test
+    public void targetFailure_isReportedInsteadOfHanging() {
+        ListStore target = new ListStore() {
+            @Override public synchronized void append(AuditEntry e) {
+                if (entries.size() == 3) throw new PersistenceException("disk full");
+                super.append(e);
+            }
+        };
+        AsyncAuditStore async = new AsyncAuditStore(target, 2, 4, 10, Set.of());
+        try {
+            for (int i = 0; i < 50; i++) async.submit(i, null, "VIEW_RESIDENT_IN_BED", "n=" + i, true);
+            async.flush();
+            fail("expected the writer failure");
+        } catch (PersistenceException expected) {
+            assertEquals("disk full", expected.getMessage());
+        }
+        assertNotNull(async.getFailure());
+        assertTrue(async.stats().contains("FAILED"));
+        try {
+            async.submit(0, null, "VIEW_RESIDENT_IN_BED", "late", true);
+            fail("submits after a failure must not be accepted");
+        } catch (PersistenceException expected) {
+        }
+        async.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonDurableTarget_isRejected() {
+        new AsyncAuditStore(new CareHomeAuditStore(new CareHome()));
+    }
+}
@@ -0,0 +1,116 @@
+package healthcaresystem.service;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import healthcaresystem.model.audit.AuditEntry;
+import healthcaresystem.model.facility.CareHome;
+import healthcaresystem.model.people.Manager;
+import healthcaresystem.model.people.Nurse;
+
+public class AuditQueryTests {
+
+    private final LocalDateTime t0 = LocalDateTime.of(2025, 1, 6, 8, 0);
+    private CareHomeService service;
+
+    @Before
+    public void init() {
+        CareHome ch = new CareHome();
+        Manager m = new Manager("M1", "Mgr", "mgr");
+        Nurse n = new Nurse("N1", "Nurse", "nurse");
+        ch.getStaff().add(m);
+        ch.getStaff().add(n);
+        // 10 entries an hour apart; the nurse's odd ones were denied
+        for (int i = 0; i < 10; i++)
+            ch.getAuditLog().add(new AuditEntry(t0.plusHours(i), i % 2 == 0 ? m : n,
+                    i % 2 == 0 ? "ASSIGN_SHIFT" : "LOGIN", "n=" + i, i % 4 != 1));
+        service = new CareHomeService(ch);
+    }
+
+    private static List<String> details(AuditPage page) {
+        List<String> out = new ArrayList<>();
+        for (AuditEntry e : page.getEntries()) out.add(e.getDetails());
+        return out;
+    }
+
+    @Test
+    public void pages_walkNewestFirst_andAppendsDontShiftThem() {
+        AuditPage first = service.auditPage(new AuditQuery().limit(4));
+        assertEquals(List.of("n=9", "n=8", "n=7", "n=6"), details(first));
+        assertTrue(first.hasMore());
+
+        service.getCareHome().getAuditLog().add(new AuditEntry(t0.plusHours(10), null, "LOGIN", "n=10", true));
+
+        AuditPage second = service.auditPage(new AuditQuery().limit(4).cursor(first.getNextCursor()));
+        assertEquals(List.of("n=5", "n=4", "n=3", "n=2"), details(second));
+        AuditPage last = service.auditPage(new AuditQuery().limit(4).cursor(second.getNextCursor()));
+        assertEquals(List.of("n=1", "n=0"), details(last));
+        assertFalse(last.hasMore());
+    }
+
+    @Test
+    public void filters_combine() {
+        AuditQuery q = new AuditQuery().actor("nurse").action("login").success(false);
+        assertEquals(List.of("n=9", "n=5", "n=1"), details(service.auditPage(q)));
+
+        q = new AuditQuery().actor("M1").from(t0.plusHours(3)).to(t0.plusHours(7));
+        AuditPage page = service.auditPage(q);
+        assertEquals(List.of("n=6", "n=4"), details(page));
+        assertFalse(page.hasMore());   // stopped at the first entry before `from`
+    }
+
+    @Test
+    public void indexedQuery_followsNewEntries_andPagesByCursor() {
+        Manager m = (Manager) service.getCareHome().getStaff().get(0);
+        AuditQuery denied = new AuditQuery().success(false).limit(2);
+        assertEquals(List.of("n=9", "n=5"), details(service.auditPage(denied)));
+
+        // logged through the service after the index was built: picked up incrementally
+        service.getCareHome().getAuditLog().add(new AuditEntry(t0.plusHours(10), m, "LOGIN", "n=10", false));
+        AuditPage first = service.auditPage(new AuditQuery().action("LOGIN").success(false).limit(2));
+        assertEquals(List.of("n=10", "n=9"), details(first));
+        AuditPage second = service.auditPage(new AuditQuery().action("LOGIN").success(false).limit(2).cursor(first.getNextCursor()));
+        assertEquals(List.of("n=5", "n=1"), details(second));
+        assertFalse(second.hasMore());
+
+        assertTrue(service.auditPage(new AuditQuery().actor("nobody")).getEntries().isEmpty());
+
+        service.complianceReport(t0.toLocalDate(), t0.toLocalDate());   // audited through AuditService.log
+        assertEquals(1, service.auditPage(new AuditQuery().action("COMPLIANCE_REPORT")).getEntries().size());
+    }
+
+    @Test
+    public void timeRange_findsEntriesLoggedAfterAClockStepBack() {
+        // an older trail written across a DST fall-back: the 01:xx hour repeats
+        CareHome ch = new CareHome();
+        LocalDateTime t = LocalDateTime.of(2025, 10, 26, 0, 30);
+        for (String at : new String[] {"00:30", "01:10", "01:50", "01:05", "01:40", "02:10"})
+            ch.getAuditLog().add(new AuditEntry(LocalDateTime.of(t.toLocalDate(), LocalTime.parse(at)),
+                    null, "LOGIN", at, true));
+        CareHomeService svc = new CareHomeService(ch);
+
+        AuditQuery q = new AuditQuery().from(t.withHour(1).withMinute(0)).to(t.withHour(1).withMinute(20));
+        assertEquals(List.of("01:05", "01:10"), details(svc.auditPage(q)));
+        assertEquals(List.of("01:40", "01:50"), details(svc.auditPage(new AuditQuery().action("LOGIN")
+                .from(t.withHour(1).withMinute(30)).to(t.withHour(1).withMinute(59)))));
+    }
+
+    @Test
+    public void loggedTimes_neverGoBackwards() {
+        AuditService audit = new AuditService(new CareHome());
+        audit.log(null, "LOGIN", "first", true);
+        audit.getStore().append(new AuditEntry(LocalDateTime.now().plusHours(1), null, "LOGIN", "ahead", true));
+        audit.setStore(audit.getStore());   // re-reads the newest time on the next log
+        audit.log(null, "LOGIN", "after", true);
+
+        List<AuditEntry> all = audit.entries();
+        assertFalse(all.get(2).getTime().isBefore(all.get(1).getTime()));
+    }
+}
@@ -2,6 +2,9 @@ package healthcaresystem.service;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -19,7 +22,7 @@ public class AuthServiceTests {
         Manager m = new Manager("M1", "Mgr", "mgr");
         m.setPassword("pw");
         service.addStaff(m);
-        auth = new AuthService(service.getCareHome());
+        auth = new AuthService(service);
     }
 
     @Test
@@ -31,4 +34,45 @@ public class AuthServiceTests {
     public void login_wrongPassword_returnsNull() {
         assertNull(auth.login("mgr", "x"));
     }
+
+    @Test
+    public void legacyPlaintextPassword_isUpgradedOnLogin() {
+        Manager old = new Manager("M2", "Old", "old");
+        old.setPasswordHash("secret"); // as loaded from an older carehome.dat
+        service.getCareHome().getStaff().add(old);
+
+        assertSame(old, auth.login("OLD", "secret"));
+        assertFalse(old.needsRehash());
+        assertTrue(old.checkPassword("secret"));
+        assertNull(auth.login("old", "Secret"));
+    }
+
+    @Test
+    public void legacyUpgrade_goesThroughTheChangeLog() {
+        List<String> records = new ArrayList<>();
+        service.setChangeLog((op, args) -> records.add(op + " " + args[0] + " " + args[1]));
+        Manager old = new Manager("M2", "Old", "old");
+        old.setPasswordHash("secret");
+        service.getCareHome().getStaff().add(old);
+
+        assertSame(old, auth.login("old", "secret"));
+        assertEquals(List.of("PASSWORD M2 " + old.getPasswordHash()), records);
+    }
+
+    @Test
+    public void renamedStaff_areFoundUnderTheirNewUsername() {
+        assertNotNull(auth.login("mgr", "pw"));
+        service.getCareHome().getStaff().get(0).setUsername("boss");
+        assertNull(auth.login("mgr", "pw"));
+        assertNotNull(auth.login("boss", "pw"));
+    }
+
+    @Test
+    public void cachedLogin_isDroppedAfterPasswordChange() {
+        assertNotNull(auth.login("mgr", "pw"));
+        assertNotNull(auth.login("mgr", "pw"));   // served from the cache
+        service.getCareHome().getStaff().get(0).setPassword("pw2");
+        assertNull(auth.login("mgr", "pw"));
+        assertNotNull(auth.login("mgr", "pw2"));
+    }
 }
@@ -0,0 +1,89 @@
+package healthcaresystem.service;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import healthcaresystem.model.facility.CareHome;
+import healthcaresystem.model.meds.AdministrationRecord;
+import healthcaresystem.model.meds.Prescription;
+import healthcaresystem.model.people.Doctor;
+import healthcaresystem.model.people.Nurse;
+import healthcaresystem.model.people.Resident;
+
+public class CareHomeIndexTests {
+
+    private CareHomeService service;
+    private CareHomeIndex index;
+
+    @Before
+    public void setup() {
+        service = new CareHomeService(new CareHome());
+        service.ensureDefaultFacility();
+        index = new CareHomeIndex(service.getCareHome());
+    }
+
+    @Test
+    public void bedLookup_isCaseInsensitive_andTrimmed() {
+        assertTrue(index.bed(" w1-r1-b1 ").isPresent());
+        assertFalse(index.bed("W9-R1-B1").isPresent());
+    }
+
+    @Test
+    public void staffAddedAfterBuild_isFoundByUsernameAndId() {
+        index.addStaff(new Nurse("N7", "Late", "late"));
+        assertEquals("N7", index.staff("LATE").get().getId());
+        assertEquals("late", index.staff("n7").get().getUsername());
+    }
+
+    @Test
+    public void miss_doesNotRescanTheCareHome() {
+        service.getCareHome().getStaff().add(new Nurse("N8", "Bypass", "bypass"));
+        assertFalse(index.staff("bypass").isPresent());   // only service adds are indexed
+    }
+
+    @Test
+    public void administrations_areGroupedPerPrescription_inTimeOrder() {
+        Resident alice = new Resident("R1", "Alice", 'F');
+        Resident bob = new Resident("R2", "Bob", 'M');
+        Doctor doc = new Doctor("D1", "Doc", "doc");
+        Nurse nur = new Nurse("N1", "Nur", "nur");
+
+        Prescription rxA = new Prescription("RX-A", alice, doc);
+        Prescription rxB = new Prescription("RX-B", bob, doc);
+        CareHome ch = service.getCareHome();
+        ch.getPrescriptions().add(rxA); index.addPrescription(rxA);
+        ch.getPrescriptions().add(rxB); index.addPrescription(rxB);
+
+        AdministrationRecord first = new AdministrationRecord("RX-A", "Amox", "500mg", nur);
+        AdministrationRecord other = new AdministrationRecord("RX-B", "Ibu", "200mg", nur);
+        AdministrationRecord second = new AdministrationRecord("RX-A", "Amox", "250mg", nur);
+        for (AdministrationRecord a : List.of(first, other, second)) {
+            ch.getAdministrations().add(a);
+            index.addAdministration(a);
+        }
+
+        assertEquals(1, index.prescriptionsFor(alice).size());
+        assertEquals(List.of(first, second), index.administrationsFor("RX-A"));
+        assertTrue(index.administrationsFor("RX-NONE").isEmpty());
+    }
+
+    @Test
+    public void historyBuild_racingAppends_missesNothing() throws Exception {
+        Nurse nur = new Nurse("N1", "Nur", "nur");
+        CareHome ch = service.getCareHome();
+        for (int i = 0; i < 20_000; i++) ch.getAdministrations().add(new AdministrationRecord("RX-A", "Amox", "1", nur));
+
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 5_000; i++) index.appendAdministration(new AdministrationRecord("RX-A", "Amox", "2", nur));
+        });
+        writer.start();
+        index.administrationsFor("RX-A");   // first use builds the history index while the writer appends
+        writer.join();
+
+        assertEquals(25_000, index.administrationsFor("RX-A").size());
+    }
+}
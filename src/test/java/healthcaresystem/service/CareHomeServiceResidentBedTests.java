@@ -2,11 +2,22 @@ package healthcaresystem.service;
 
 import static org.junit.Assert.*;
 
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 import org.junit.Before;
 import org.junit.Test;
 
 import healthcaresystem.model.facility.*;
 import healthcaresystem.model.people.*;
+import healthcaresystem.model.schedule.Shift;
+import healthcaresystem.model.schedule.ShiftType;
+import healthcaresystem.event.CareHomeEvent;
+import healthcaresystem.event.EventBus;
 import healthcaresystem.exception.UnauthorizedActionException;
 
 public class CareHomeServiceResidentBedTests {
@@ -54,6 +65,69 @@ public class CareHomeServiceResidentBedTests {
         service.addResidentToBed("R3", "Cara", 'F', anyBed(), nurse);
     }
 
+    @Test
+    public void admitBatch_placesEveryone_inGenderMatchedRooms() {
+        service.addResidentToBed("R1", "Alice", 'F', "W1-R2-B1", manager);
+        List<AdmissionRequest> batch = List.of(
+                new AdmissionRequest("R2", "Bob", 'M', "W1", true),
+                new AdmissionRequest("R3", "Cara", 'F', "W1", true),
+                new AdmissionRequest("R4", "Dan", 'M', "W2", true));
+
+        Map<String, String> placed = service.admitBatch(batch, manager);
+
+        assertEquals(3, placed.size());
+        assertEquals("W1-R1-B1", placed.get("R2"));   // single room, empty
+        assertEquals("W1-R2-B2", placed.get("R3"));   // joins Alice
+        assertTrue(placed.get("R4").startsWith("W2-"));
+        assertEquals("R3", findBed("W1-R2-B2").getOccupiedBy().getId());
+        long batchEntries = service.auditLog().stream().filter(e -> e.getAction().equals("ADMIT_BATCH")).count();
+        assertEquals(1, batchEntries);
+    }
+
+    @Test
+    public void admitBatch_thatCannotFit_admitsNoOne() {
+        List<AdmissionRequest> batch = new ArrayList<>();
+        for (int i = 0; i < 39; i++) batch.add(new AdmissionRequest("R" + i, "Res " + i, 'F'));
+        try {
+            service.admitBatch(batch, manager);
+            fail("38 beds cannot hold 39 residents");
+        } catch (IllegalStateException expected) { }
+
+        assertTrue(service.getCareHome().getResidents().isEmpty());
+        for (Ward w : service.getCareHome().getWards())
+            for (Room r : w.getRooms())
+                for (Bed b : r.getBeds()) assertNull(b.getOccupiedBy());
+    }
+
+    @Test
+    public void admitBatch_checksDuplicatesByIdOnly() {
+        service.addResidentToBed("R1", "R2", 'F', "W1-R1-B1", manager);   // a name that looks like an id
+        Map<String, String> placed = service.admitBatch(List.of(new AdmissionRequest("R2", "Bob", 'M')), manager);
+        assertEquals(1, placed.size());
+        try {
+            service.admitBatch(List.of(new AdmissionRequest(" r1 ", "Again", 'F')), manager);
+            fail("R1 is already a resident");
+        } catch (IllegalArgumentException expected) { }
+    }
+
+    @Test
+    public void events_reportAdmitAndMove() {
+        List<String> events = new ArrayList<>();
+        EventBus.Subscription sub = service.getEvents().subscribe(
+                CareHomeEvent.class, Runnable::run, false, e -> events.add(e.toString()));
+
+        service.addResidentToBed("R1", "Alice", 'F', "W1-R1-B1", manager);
+        service.getCareHome().getRoster().addShift(new Shift(nurse, LocalDate.now(), ShiftType.DAY));
+        ZoneId zone = ZoneId.systemDefault();
+        service.setClock(Clock.fixed(LocalDate.now().atTime(10, 0).atZone(zone).toInstant(), zone));
+        service.moveResident("W1-R1-B1", "W1-R2-B1", nurse);
+        sub.cancel();
+        service.moveResident("W1-R2-B1", "W1-R1-B1", nurse);
+
+        assertEquals(List.of("BedOccupied W1-R1-B1 R1", "BedVacated W1-R1-B1 R1",
+                "BedOccupied W1-R2-B1 R1", "ResidentMoved R1 W1-R1-B1->W1-R2-B1"), events);
+    }
+
     private Bed findBed(String id) {
         for (Ward w : service.getCareHome().getWards())
             for (Room r : w.getRooms())
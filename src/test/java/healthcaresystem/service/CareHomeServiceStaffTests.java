@@ -45,7 +45,8 @@ public class CareHomeServiceStaffTests {
         service.modifyStaffPassword("nurse", "new", manager);
         Staff s = service.getCareHome().getStaff().stream()
                 .filter(x -> x.getUsername().equals("nurse")).findFirst().get();
-        assertEquals("new", s.getPassword());
+        assertTrue(s.checkPassword("new"));
+        assertNotEquals("new", s.getPasswordHash());
     }
 
     @Test(expected = UnauthorizedActionException.class)
@@ -0,0 +1,62 @@
+package healthcaresystem.service;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import healthcaresystem.model.facility.CareHome;
+import healthcaresystem.model.people.Manager;
+import healthcaresystem.model.people.Resident;
+
+public class ConcurrentCareHomeServiceTests {
+
+    @Test
+    public void concurrentAdmissions_neverDoubleBookABed() throws Exception {
+        CareHome ch = new CareHome();
+        ConcurrentCareHomeService service = new ConcurrentCareHomeService(ch);
+        service.ensureDefaultAdmin();
+        service.ensureDefaultFacility();
+        Manager admin = (Manager) ch.getStaff().get(0);
+
+        List<String> bedIds = new ArrayList<>(service.occupancySnapshot().keySet());
+        int threads = 8;
+        Map<String, String> winners = new ConcurrentHashMap<>();
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            Thread w = new Thread(() -> {
+                try { start.await(); } catch (InterruptedException e) { return; }
+                // every thread goes for every bed
+                for (String bed : bedIds) {
+                    String resId = "R" + id + "-" + bed;
+                    try {
+                        service.addResidentToBed(resId, "Res " + resId, 'F', bed, admin);
+                        assertNull(winners.put(bed, resId));
+                    } catch (IllegalStateException occupied) {
+                        failures.incrementAndGet();
+                    }
+                }
+            });
+            workers.add(w);
+            w.start();
+        }
+        start.countDown();
+        for (Thread w : workers) w.join();
+
+        assertEquals(bedIds.size(), winners.size());
+        assertEquals(bedIds.size() * (threads - 1), failures.get());
+        Map<String, Resident> beds = service.occupancySnapshot();
+        for (String bed : bedIds) assertEquals(winners.get(bed), beds.get(bed).getId());
+        assertSame(beds, service.occupancySnapshot()); // unchanged beds reuse the snapshot
+    }
+}
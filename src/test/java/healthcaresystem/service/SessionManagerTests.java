@@ -0,0 +1,78 @@
+package healthcaresystem.service;
+
+import static org.junit.Assert.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.Test;
+
+import healthcaresystem.model.people.Nurse;
+import healthcaresystem.model.schedule.Roster;
+import healthcaresystem.model.schedule.Shift;
+import healthcaresystem.model.schedule.ShiftType;
+
+public class SessionManagerTests {
+
+    // clock the test moves by hand
+    private static class ManualClock extends Clock {
+        long millis;
+        public ZoneId getZone() { return ZoneOffset.UTC; }
+        public Clock withZone(ZoneId zone) { return this; }
+        public long millis() { return millis; }
+        public Instant instant() { return Instant.ofEpochMilli(millis); }
+        void advance(Duration d) { millis += d.toMillis(); }
+    }
+
+    @Test
+    public void sessions_expireWhenIdle_andAtTheirAbsoluteLimit() {
+        ManualClock clock = new ManualClock();
+        SessionManager sessions = new SessionManager(clock, Duration.ofMinutes(10), Duration.ofMinutes(60));
+        Nurse n = new Nurse("N1", "Nurse", "n1");
+
+        String idle = sessions.open(n).getToken();
+        String busy = sessions.open(new Nurse("N2", "Busy", "n2")).getToken();
+        for (int i = 0; i < 5; i++) {
+            clock.advance(Duration.ofMinutes(8));
+            assertNotNull(sessions.get(busy));     // activity keeps it alive
+        }
+        assertNull(sessions.get(idle));
+        assertNull(sessions.sessionOf(n));
+
+        clock.advance(Duration.ofMinutes(25));    // 65 minutes after login
+        assertNull(sessions.get(busy));
+        assertEquals(0, sessions.size());
+    }
+
+    @Test
+    public void wheel_evictsWithoutLookups() {
+        ManualClock clock = new ManualClock();
+        SessionManager sessions = new SessionManager(clock, Duration.ofMinutes(5), Duration.ofHours(1));
+        for (int i = 0; i < 100; i++) sessions.open(new Nurse("N" + i, "N", "n" + i));
+        assertEquals(100, sessions.size());
+        clock.advance(Duration.ofHours(3));       // longer than a whole rotation
+        assertEquals(0, sessions.size());
+    }
+
+    @Test
+    public void cachedShiftWindow_followsRosterChanges() {
+        SessionManager sessions = new SessionManager();
+        Nurse n = new Nurse("N1", "Nurse", "n1");
+        Session s = sessions.open(n);
+        Roster roster = new Roster();
+        LocalDate day = LocalDate.of(2025, 1, 6);
+
+        assertFalse(s.isRosteredAt(roster, day.atTime(9, 0)));
+        roster.addShift(new Shift(n, day, ShiftType.DAY));
+        assertTrue(s.isRosteredAt(roster, day.atTime(9, 0)));
+        roster.removeShiftsFor(n, day);
+        roster.addShift(new Shift(n, day, ShiftType.EVE));
+        assertFalse(s.isRosteredAt(roster, day.atTime(9, 0)));
+        assertTrue(s.isRosteredAt(roster, day.atTime(21, 59)));
+        assertTrue(s.hasRole(Nurse.class));
+    }
+}
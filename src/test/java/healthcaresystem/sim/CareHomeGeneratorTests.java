@@ -0,0 +1,48 @@
+package healthcaresystem.sim;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import healthcaresystem.model.facility.CareHome;
+import healthcaresystem.model.meds.AdministrationRecord;
+import healthcaresystem.model.meds.Prescription;
+
+public class CareHomeGeneratorTests {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 10);
+
+    private static CareHome build(long seed) {
+        return new CareHomeGenerator().seed(seed).today(TODAY).beds(200).staffFor(200).historyDays(180).generate();
+    }
+
+    @Test
+    public void sameSeed_buildsTheSameHome() {
+        CareHome a = build(7), b = build(7);
+        assertEquals(a.getResidents().size(), b.getResidents().size());
+        assertEquals(a.getRoster().getShifts().size(), b.getRoster().getShifts().size());
+        assertEquals(a.getAdministrations().size(), b.getAdministrations().size());
+        for (int i = 0; i < a.getAdministrations().size(); i += 997) {
+            AdministrationRecord x = a.getAdministrations().get(i), y = b.getAdministrations().get(i);
+            assertEquals(x.getPrescriptionId(), y.getPrescriptionId());
+            assertEquals(x.getTime(), y.getTime());
+        }
+        assertNotEquals(a.getAuditLog().get(0).getTime(), build(8).getAuditLog().get(0).getTime());
+    }
+
+    @Test
+    public void rosterIsCompliant_andHistoryIsConsistent() {
+        CareHome ch = build(1);
+        assertTrue(ch.getRoster().complianceReport(TODAY.minusDays(13), TODAY.plusDays(13)).isCompliant());
+        assertTrue(ch.getWards().size() >= 6);
+
+        Map<String, Prescription> rx = new HashMap<>();
+        for (Prescription p : ch.getPrescriptions()) rx.put(p.getId(), p);
+        for (AdministrationRecord a : ch.getAdministrations())
+            assertTrue(a.getTime().isAfter(rx.get(a.getPrescriptionId()).getCreatedAt()));
+    }
+}